@@ -0,0 +1,303 @@
+package com.carmaintenance.booking;
+
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.entity.Appointment;
+import com.carmaintenance.entity.Shop;
+import com.carmaintenance.repository.AppointmentRepository;
+import com.carmaintenance.utils.TimeWindow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 工位时段占用台账
+ * 按(门店, 日期)维护每个时段已占用的工位数，首次访问时从数据库加载，
+ * 之后由BaySlotReservation随预约的占用和释放同步更新，可用性判断直接在内存中完成。
+ * 只缓存存在的门店在可预约范围内的日期，其余查询每次从数据库计算，台账总数另有上限并按闲置时间淘汰
+ */
+@Component
+public class BaySlotLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaySlotLedger.class);
+
+    /**
+     * 营业时段（08:00-18:00，每30分钟一个时段），下标即时段序号
+     */
+    private static final String[] TIME_SLOTS;
+
+    private static final Map<String, Integer> SLOT_INDEX;
+
+    static {
+        List<String> slots = new ArrayList<>();
+        for (int hour = 8; hour < 18; hour++) {
+            slots.add(String.format("%02d:00-%02d:30", hour, hour));
+            slots.add(String.format("%02d:30-%02d:00", hour, hour + 1));
+        }
+        TIME_SLOTS = slots.toArray(new String[0]);
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < TIME_SLOTS.length; i++) {
+            index.put(TIME_SLOTS[i], i);
+        }
+        SLOT_INDEX = Collections.unmodifiableMap(index);
+    }
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    /**
+     * 门店未配置工位数时的默认值
+     */
+    @Value("${appointment.ledger.default-bays:10}")
+    private int defaultBays;
+
+    /**
+     * 台账有效期，过期后重新从数据库加载，用于纠正多实例部署下的偏差
+     */
+    @Value("${appointment.ledger.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * 可预约的天数，与创建预约的日期校验一致
+     */
+    @Value("${appointment.ledger.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${appointment.ledger.max-size:10000}")
+    private long maxSize;
+
+    /**
+     * 台账闲置超过该时间即淘汰
+     */
+    @Value("${appointment.ledger.idle-seconds:120}")
+    private long idleSeconds;
+
+    private Cache<LedgerKey, DayLedger> ledgers;
+
+    @PostConstruct
+    public void init() {
+        ledgers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .expireAfterAccess(Duration.ofSeconds(idleSeconds))
+                .build();
+    }
+
+    /**
+     * 全部营业时段
+     */
+    public static List<String> getTimeSlots() {
+        return Collections.unmodifiableList(Arrays.asList(TIME_SLOTS));
+    }
+
+    /**
+     * 时段序号，非营业时段返回-1
+     */
+    public static int slotIndexOf(String timeSlot) {
+        Integer index = timeSlot != null ? SLOT_INDEX.get(timeSlot) : null;
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 预约状态是否占用工位（待服务、进行中）
+     */
+    public static boolean occupiesBay(Integer status) {
+        return Appointment.Status.PENDING.getCode().equals(status)
+                || Appointment.Status.IN_PROGRESS.getCode().equals(status);
+    }
+
+    /**
+     * 指定时段是否还有空闲工位
+     */
+    public boolean isAvailable(Long shopId, LocalDate date, String timeSlot) {
+        int slot = slotIndexOf(timeSlot);
+        if (slot < 0) {
+            // 非标准时段不在台账中，直接按数据库计数判断
+            return appointmentRepository.countByShopIdAndDateTime(shopId, date, timeSlot) < getCapacity(shopId);
+        }
+        DayLedger ledger = getLedger(shopId, date);
+        return ledger.counts.get(slot) < ledger.capacity;
+    }
+
+    /**
+     * 还有空闲工位的时段列表
+     */
+    public List<String> getAvailableSlots(Long shopId, LocalDate date) {
+        DayLedger ledger = getLedger(shopId, date);
+        List<String> available = new ArrayList<>(TIME_SLOTS.length);
+        for (int i = 0; i < TIME_SLOTS.length; i++) {
+            if (ledger.counts.get(i) < ledger.capacity) {
+                available.add(TIME_SLOTS[i]);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * 门店当日的工位数
+     */
+    public int getCapacity(Long shopId, LocalDate date) {
+        return getLedger(shopId, date).capacity;
+    }
+
+    /**
+     * 门店未配置工位数时的默认值
+     */
+    public int getDefaultBays() {
+        return defaultBays;
+    }
+
+    /**
+     * 门店工位数变更后调用，丢弃该门店的台账，处于事务中时提交后再丢弃一次，下次访问按新工位数重新加载
+     */
+    public void evictShop(Long shopId) {
+        if (shopId == null) {
+            return;
+        }
+        ledgers.asMap().keySet().removeIf(key -> shopId.equals(key.shopId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ledgers.asMap().keySet().removeIf(key -> shopId.equals(key.shopId));
+                }
+            });
+        }
+    }
+
+    /**
+     * 在内存中占用一个工位，已满时返回false
+     */
+    public boolean tryReserve(Long shopId, LocalDate date, int slot) {
+        DayLedger ledger = getLedger(shopId, date);
+        while (true) {
+            int current = ledger.counts.get(slot);
+            if (current >= ledger.capacity) {
+                return false;
+            }
+            if (ledger.counts.compareAndSet(slot, current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 在内存中归还一个工位，尚未加载或未缓存的台账无需处理，下次访问时会从数据库加载到最新结果
+     */
+    public void release(Long shopId, LocalDate date, int slot) {
+        DayLedger ledger = ledgers.getIfPresent(new LedgerKey(shopId, date));
+        if (ledger == null) {
+            return;
+        }
+        while (true) {
+            int current = ledger.counts.get(slot);
+            if (current <= 0 || ledger.counts.compareAndSet(slot, current, current - 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 清理已过日期的台账
+     */
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void evictPastDays() {
+        LocalDate today = TimeWindow.currentDate();
+        ledgers.asMap().keySet().removeIf(key -> key.date.isBefore(today));
+    }
+
+    private DayLedger getLedger(Long shopId, LocalDate date) {
+        if (!isCacheable(shopId, date)) {
+            // 不存在的门店或可预约范围外的日期不占用缓存，数据库的条件更新仍是最终约束
+            return load(shopId, date);
+        }
+        return ledgers.get(new LedgerKey(shopId, date), key -> load(shopId, date));
+    }
+
+    private boolean isCacheable(Long shopId, LocalDate date) {
+        if (shopId == null || date == null) {
+            return false;
+        }
+        LocalDate today = TimeWindow.currentDate();
+        if (date.isBefore(today) || date.isAfter(today.plusDays(horizonDays))) {
+            return false;
+        }
+        return referenceDataCache.getShop(shopId) != null;
+    }
+
+    private DayLedger load(Long shopId, LocalDate date) {
+        DayLedger ledger = new DayLedger(getCapacity(shopId), TIME_SLOTS.length);
+        for (Appointment appointment : appointmentRepository.findByShopIdAndDate(shopId, date)) {
+            int slot = slotIndexOf(appointment.getTimeSlot());
+            if (slot >= 0) {
+                ledger.counts.incrementAndGet(slot);
+            }
+        }
+        logger.debug("加载工位台账: shopId={}, date={}", shopId, date);
+        return ledger;
+    }
+
+    private int getCapacity(Long shopId) {
+        Shop shop = referenceDataCache.getShop(shopId);
+        return shop != null && shop.getShopBays() != null ? shop.getShopBays() : defaultBays;
+    }
+
+    private static final class LedgerKey {
+
+        private final Long shopId;
+
+        private final LocalDate date;
+
+        private LedgerKey(Long shopId, LocalDate date) {
+            this.shopId = shopId;
+            this.date = date;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LedgerKey)) {
+                return false;
+            }
+            LedgerKey other = (LedgerKey) o;
+            return Objects.equals(shopId, other.shopId) && Objects.equals(date, other.date);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shopId, date);
+        }
+    }
+
+    /**
+     * 单个门店单日的占用计数，按时段CAS更新，不同时段之间互不阻塞
+     */
+    private static final class DayLedger {
+
+        private final int capacity;
+
+        private final AtomicIntegerArray counts;
+
+        private DayLedger(int capacity, int slotCount) {
+            this.capacity = capacity;
+            this.counts = new AtomicIntegerArray(slotCount);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.carmaintenance.booking;
+
+import com.carmaintenance.entity.Appointment;
+import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+/**
+ * 工位时段预占
+ * 先在内存台账中CAS占用，满额时直接拒绝，不访问数据库；
+ * 再对appointment_slot_capacity容量行做条件更新，行锁只落在同一门店同一时段上，
+ * 条件中读取门店当前的工位数，保证多线程、多实例并发预约时不会超卖，工位数调整后立即生效。
+ * 必须在事务中调用：预占随事务回滚归还，释放在事务提交后才同步到内存
+ */
+@Component
+public class BaySlotReservation {
+
+    private static final Logger logger = LoggerFactory.getLogger(BaySlotReservation.class);
+
+    @Autowired
+    private BaySlotLedger baySlotLedger;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * 占用一个工位，已满时抛出异常
+     */
+    public void reserve(Long shopId, LocalDate date, String timeSlot) {
+        requireTransaction();
+        int slot = BaySlotLedger.slotIndexOf(timeSlot);
+        if (slot >= 0) {
+            if (!baySlotLedger.tryReserve(shopId, date, slot)) {
+                throw slotFull(shopId, date, timeSlot);
+            }
+            onCompletion(false, () -> baySlotLedger.release(shopId, date, slot));
+        }
+
+        appointmentRepository.initSlotCapacity(shopId, date, timeSlot, baySlotLedger.getCapacity(shopId, date));
+        if (appointmentRepository.reserveSlot(shopId, date, timeSlot, baySlotLedger.getDefaultBays()) == 0) {
+            // 内存台账与数据库不一致（通常是其它实例先占满），以数据库为准
+            throw slotFull(shopId, date, timeSlot);
+        }
+    }
+
+    /**
+     * 释放一个工位
+     */
+    public void release(Long shopId, LocalDate date, String timeSlot) {
+        requireTransaction();
+        appointmentRepository.releaseSlot(shopId, date, timeSlot);
+        int slot = BaySlotLedger.slotIndexOf(timeSlot);
+        if (slot >= 0) {
+            onCompletion(true, () -> baySlotLedger.release(shopId, date, slot));
+        }
+    }
+
+    /**
+     * 预约状态变更后调用，按新旧状态是否占用工位进行占用或释放
+     */
+    public void onStatusChanged(Appointment appointment, Integer oldStatus) {
+        boolean wasOccupying = BaySlotLedger.occupiesBay(oldStatus);
+        boolean isOccupying = BaySlotLedger.occupiesBay(appointment.getStatus());
+        if (wasOccupying && !isOccupying) {
+            release(appointment.getShopId(), appointment.getAppointmentDate(), appointment.getTimeSlot());
+        } else if (!wasOccupying && isOccupying) {
+            reserve(appointment.getShopId(), appointment.getAppointmentDate(), appointment.getTimeSlot());
+        }
+    }
+
+    private BusinessException slotFull(Long shopId, LocalDate date, String timeSlot) {
+        logger.warn("工位预占失败: 时间段已满, shopId={}, date={}, timeSlot={}", shopId, date, timeSlot);
+        return new BusinessException(400, "该时间段已被预约");
+    }
+
+    private void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("工位预占必须在事务中调用");
+        }
+    }
+
+    /**
+     * 事务提交(committed=true)或回滚(committed=false)后执行
+     */
+    private void onCompletion(boolean committed, Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == STATUS_COMMITTED) == committed) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
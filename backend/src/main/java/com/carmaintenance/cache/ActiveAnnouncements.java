@@ -0,0 +1,190 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.entity.Announcement;
+import com.carmaintenance.mapper.AnnouncementMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 有效公告快照
+ * 加载全部已发布且未结束的公告，按优先级、创建时间排序后预先算出当前有效的列表，读取时直接返回，不查库。
+ * 公告增删改、发布、下线后从数据库重建；最近一个开始或结束时间到达时由定时任务在内存中重新计算，
+ * 之后再预约下一个时间点。快照中的对象只读
+ */
+@Component
+public class ActiveAnnouncements {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveAnnouncements.class);
+
+    /**
+     * 用户端最多展示的公告数
+     */
+    private static final int MAX_SIZE = 10;
+
+    /**
+     * 与原查询一致：优先级、创建时间倒序，空值在后
+     */
+    private static final Comparator<Announcement> ORDER =
+            Comparator.comparing(Announcement::getPriority, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                    .thenComparing(Announcement::getCreateTime, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                    .thenComparing(Announcement::getId, Comparator.nullsLast(Comparator.<Long>reverseOrder()));
+
+    @Autowired
+    private AnnouncementMapper announcementMapper;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private volatile Snapshot snapshot;
+
+    private ScheduledFuture<?> transition;
+
+    /**
+     * 当前有效的公告，首次访问时加载
+     */
+    public List<Announcement> get() {
+        Snapshot current = snapshot;
+        return (current != null ? current : rebuild()).active;
+    }
+
+    /**
+     * 从数据库重新加载并替换快照
+     */
+    public synchronized Snapshot rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Announcement> candidates = announcementMapper.findPublishedNotEnded(now);
+        candidates.sort(ORDER);
+        Snapshot rebuilt = install(candidates, now);
+        logger.info("有效公告快照已重建: candidates={}, active={}, next={}",
+                rebuilt.candidates.size(), rebuilt.active.size(), rebuilt.nextTransition);
+        return rebuilt;
+    }
+
+    /**
+     * 公告变更后调用，处于事务中时在提交后重建
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * 定时重建，用于同步其它实例上的公告变更
+     */
+    @Scheduled(initialDelayString = "${announcement.active.refresh-interval:600000}",
+               fixedDelayString = "${announcement.active.refresh-interval:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * 开始或结束时间到达，用已加载的公告重新计算
+     */
+    private synchronized void transit() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            Snapshot next = install(current.candidates, LocalDateTime.now());
+            logger.debug("有效公告切换: active={}, next={}", next.active.size(), next.nextTransition);
+        }
+    }
+
+    private Snapshot install(List<Announcement> candidates, LocalDateTime now) {
+        List<Announcement> remaining = new ArrayList<>(candidates.size());
+        List<Announcement> active = new ArrayList<>(MAX_SIZE);
+        LocalDateTime nextTransition = null;
+        for (Announcement announcement : candidates) {
+            LocalDateTime startTime = announcement.getStartTime();
+            LocalDateTime endTime = announcement.getEndTime();
+            if (endTime != null && endTime.isBefore(now)) {
+                continue;
+            }
+            remaining.add(announcement);
+            if (startTime == null || !startTime.isAfter(now)) {
+                if (active.size() < MAX_SIZE) {
+                    active.add(announcement);
+                }
+            } else {
+                nextTransition = earlier(nextTransition, startTime);
+            }
+            if (endTime != null) {
+                // 结束时间当刻仍有效，之后才失效
+                nextTransition = earlier(nextTransition, endTime.plusNanos(1000000));
+            }
+        }
+
+        Snapshot installed = new Snapshot(remaining, Collections.unmodifiableList(active), nextTransition);
+        snapshot = installed;
+        // 先替换快照再失效版本号，保证新版本对应的一定是新列表
+        catalogVersions.evictAnnouncements();
+        scheduleTransition(nextTransition);
+        return installed;
+    }
+
+    private void scheduleTransition(LocalDateTime at) {
+        if (transition != null) {
+            transition.cancel(false);
+            transition = null;
+        }
+        if (at != null) {
+            transition = taskScheduler.schedule(this::transit, at.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+
+    private static LocalDateTime earlier(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    /**
+     * 公告快照，创建后不再修改
+     */
+    public static final class Snapshot {
+
+        /**
+         * 已发布且未结束的公告，已排序
+         */
+        private final List<Announcement> candidates;
+
+        private final List<Announcement> active;
+
+        private final LocalDateTime nextTransition;
+
+        private Snapshot(List<Announcement> candidates, List<Announcement> active, LocalDateTime nextTransition) {
+            this.candidates = candidates;
+            this.active = active;
+            this.nextTransition = nextTransition;
+        }
+
+        public List<Announcement> getActive() {
+            return active;
+        }
+
+        /**
+         * 下一次有效列表可能变化的时间，没有时为null
+         */
+        public LocalDateTime getNextTransition() {
+            return nextTransition;
+        }
+    }
+}
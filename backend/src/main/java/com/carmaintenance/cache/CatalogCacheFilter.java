@@ -0,0 +1,203 @@
+package com.carmaintenance.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 公共目录接口的HTTP协商缓存
+ * 按CatalogVersions中的资源版本生成强ETag和Last-Modified，请求携带的If-None-Match/If-Modified-Since
+ * 与当前版本一致时直接返回304，不进入Controller；可选按(版本, URL)缓存序列化后的响应体。
+ * 只缓存业务成功(code=200)的响应。过滤器在Spring Security之后执行，鉴权规则不受影响
+ */
+@Component
+@ConditionalOnProperty(prefix = "cache.http", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogCacheFilter extends OncePerRequestFilter {
+
+    private static final List<Rule> RULES = new ArrayList<>();
+
+    static {
+        RULES.add(new Rule("^/shop/list$", m -> CatalogVersions.SHOPS));
+        RULES.add(new Rule("^/shop/(\\d{1,18})$", m -> CatalogVersions.shop(Long.valueOf(m.group(1)))));
+        RULES.add(new Rule("^/service-item/(?:shop|categories)/(\\d{1,18})$",
+                m -> CatalogVersions.serviceItems(Long.valueOf(m.group(1)))));
+        RULES.add(new Rule("^/service-package/shop/(\\d{1,18})$",
+                m -> CatalogVersions.servicePackages(Long.valueOf(m.group(1)))));
+        RULES.add(new Rule("^/announcement/active$", m -> CatalogVersions.ANNOUNCEMENTS));
+    }
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cache.http.body-cache-size:1000}")
+    private long bodyCacheSize;
+
+    @Value("${cache.http.version-ttl-minutes:10}")
+    private long ttlMinutes;
+
+    /**
+     * key为ETag + URL，版本变化后旧条目不再命中，随容量和TTL淘汰；未开启时为null
+     */
+    private Cache<String, CachedBody> bodies;
+
+    @PostConstruct
+    public void init() {
+        if (bodyCacheSize > 0) {
+            bodies = Caffeine.newBuilder()
+                    .maximumSize(bodyCacheSize)
+                    .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                    .build();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String resource = resolveResource(request.getRequestURI().substring(request.getContextPath().length()));
+        if (resource == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // 先取版本再查询，查询期间发生的写入会使版本失效，不会把旧数据记在新版本下
+        CatalogVersions.Version version = catalogVersions.current(resource);
+        if (isNotModified(request, version)) {
+            writeValidators(response, version);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        String bodyKey = version.getEtag() + " " + request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        CachedBody cached = bodies != null ? bodies.getIfPresent(bodyKey) : null;
+        if (cached != null) {
+            writeValidators(response, version);
+            response.setContentType(cached.contentType);
+            response.setContentLength(cached.body.length);
+            if (!"HEAD".equals(request.getMethod())) {
+                response.getOutputStream().write(cached.body);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK && isSuccess(body)) {
+            writeValidators(response, version);
+            if (bodies != null) {
+                bodies.put(bodyKey, new CachedBody(body, wrapper.getContentType()));
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private String resolveResource(String path) {
+        for (Rule rule : RULES) {
+            Matcher matcher = rule.pattern.matcher(path);
+            if (matcher.matches()) {
+                return rule.resource.apply(matcher);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * If-None-Match优先，未携带时再比较If-Modified-Since
+     */
+    private boolean isNotModified(HttpServletRequest request, CatalogVersions.Version version) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if ("*".equals(candidate) || version.getEtag().equals(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && version.getLastModified() <= ifModifiedSince;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void writeValidators(HttpServletResponse response, CatalogVersions.Version version) {
+        response.setHeader(HttpHeaders.ETAG, version.getEtag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.getLastModified());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    }
+
+    /**
+     * 统一响应中code为200才视为成功，错误结果不缓存
+     */
+    private boolean isSuccess(byte[] body) {
+        if (body.length == 0) {
+            return false;
+        }
+        try {
+            JsonNode code = objectMapper.readTree(body).get("code");
+            return code != null && code.asInt() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static final class Rule {
+
+        private final Pattern pattern;
+
+        private final Function<Matcher, String> resource;
+
+        private Rule(String regex, Function<Matcher, String> resource) {
+            this.pattern = Pattern.compile(regex);
+            this.resource = resource;
+        }
+    }
+
+    private static final class CachedBody {
+
+        private final byte[] body;
+
+        private final String contentType;
+
+        private CachedBody(byte[] body, String contentType) {
+            this.body = body;
+            this.contentType = contentType;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.carmaintenance.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 公共目录资源版本号
+ * 门店、服务项目、服务套餐和公告按资源维护版本号，对应的写操作调用evict方法失效版本，下次读取时分配新版本。
+ * 版本号由实例前缀和实例内递增序号组成，用作强ETag；版本按TTL过期后重新分配，
+ * 多实例部署时其它实例上的写入最多延迟一个TTL可见
+ */
+@Component
+public class CatalogVersions {
+
+    public static final String SHOPS = "shops";
+
+    public static final String ANNOUNCEMENTS = "announcements";
+
+    @Value("${cache.http.version-ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Cache<String, Version> versions;
+
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public static String shop(Long shopId) {
+        return "shop:" + shopId;
+    }
+
+    public static String serviceItems(Long shopId) {
+        return "service-items:" + shopId;
+    }
+
+    public static String servicePackages(Long shopId) {
+        return "service-packages:" + shopId;
+    }
+
+    /**
+     * 资源的当前版本，不存在时分配新版本
+     */
+    public Version current(String resource) {
+        return versions.get(resource, key -> new Version(instanceTag + "-" + sequence.incrementAndGet(),
+                System.currentTimeMillis() / 1000 * 1000));
+    }
+
+    /**
+     * 门店变更同时影响门店详情和门店列表
+     */
+    public void evictShop(Long shopId) {
+        evict(SHOPS, shop(shopId));
+    }
+
+    public void evictServiceItems(Long shopId) {
+        evict(serviceItems(shopId));
+    }
+
+    public void evictServicePackages(Long shopId) {
+        evict(servicePackages(shopId));
+    }
+
+    public void evictAnnouncements() {
+        evict(ANNOUNCEMENTS);
+    }
+
+    /**
+     * 立即失效，处于事务中时提交后再失效一次，避免提交前的并发读取以旧数据占用新版本
+     */
+    private void evict(String... resources) {
+        for (String resource : resources) {
+            versions.invalidate(resource);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    for (String resource : resources) {
+                        versions.invalidate(resource);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 资源版本，创建后不再修改
+     */
+    public static final class Version {
+
+        private final String etag;
+
+        private final long lastModified;
+
+        private Version(String tag, long lastModified) {
+            this.etag = "\"" + tag + "\"";
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 带引号的强ETag
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 版本分配时间，精确到秒
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+}
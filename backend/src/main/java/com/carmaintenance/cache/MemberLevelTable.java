@@ -0,0 +1,169 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.entity.MemberLevel;
+import com.carmaintenance.repository.MemberLevelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * 会员等级查找表
+ * 等级数据加载为不可变快照：按最低经验值升序排列的int[]阈值和对应的等级对象，
+ * 按经验值定位等级时做二分查找。等级变更后整体重建并原子替换快照，读取方无需加锁。
+ * 快照返回等级对象的副本，调用方修改返回值不会影响快照
+ */
+@Component
+public class MemberLevelTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberLevelTable.class);
+
+    @Autowired
+    private MemberLevelRepository memberLevelRepository;
+
+    private volatile Snapshot snapshot;
+
+    private long version;
+
+    /**
+     * 当前快照，首次访问时加载
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * 从数据库重新加载并替换快照
+     */
+    public synchronized Snapshot rebuild() {
+        Snapshot rebuilt = new Snapshot(++version, memberLevelRepository.getAllLevels());
+        snapshot = rebuilt;
+        logger.info("会员等级表已重建: version={}, levels={}", rebuilt.version, rebuilt.levels.length);
+        return rebuilt;
+    }
+
+    /**
+     * 等级数据变更后调用，处于事务中时在提交后重建
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * 定时重建，用于同步其它实例上的等级变更
+     */
+    @Scheduled(initialDelayString = "${member.level.refresh-interval:600000}",
+               fixedDelayString = "${member.level.refresh-interval:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * 等级表快照，创建后不再修改
+     */
+    public static final class Snapshot {
+
+        private final long version;
+
+        private final int[] thresholds;
+
+        private final MemberLevel[] levels;
+
+        private final Map<Integer, Integer> indexById;
+
+        private Snapshot(long version, List<MemberLevel> sortedLevels) {
+            this.version = version;
+            this.levels = sortedLevels.toArray(new MemberLevel[0]);
+            this.thresholds = new int[levels.length];
+            Map<Integer, Integer> index = new HashMap<>();
+            for (int i = 0; i < levels.length; i++) {
+                Integer minExperience = levels[i].getMinExperience();
+                thresholds[i] = minExperience != null ? minExperience : 0;
+                index.put(levels[i].getId(), i);
+            }
+            this.indexById = index;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * 全部等级，按最低经验值升序
+         */
+        public List<MemberLevel> getLevels() {
+            List<MemberLevel> copies = new ArrayList<>(levels.length);
+            for (MemberLevel level : levels) {
+                copies.add(copyOf(level));
+            }
+            return copies;
+        }
+
+        /**
+         * 经验值对应的等级（最低经验值不超过该经验值的最高等级），经验值低于所有等级时返回null
+         */
+        public MemberLevel levelFor(int experience) {
+            int index = indexFor(experience);
+            return index >= 0 ? copyOf(levels[index]) : null;
+        }
+
+        /**
+         * 指定等级的下一等级，已是最高等级或等级不存在时返回null
+         */
+        public MemberLevel nextLevel(MemberLevel level) {
+            Integer index = level != null ? indexById.get(level.getId()) : null;
+            return index != null && index + 1 < levels.length ? copyOf(levels[index + 1]) : null;
+        }
+
+        public MemberLevel getById(Integer levelId) {
+            Integer index = indexById.get(levelId);
+            return index != null ? copyOf(levels[index]) : null;
+        }
+
+        /**
+         * 逐字段浅拷贝，避免每次读取都走反射；实体新增字段时需同步补充
+         */
+        static MemberLevel copyOf(MemberLevel level) {
+            MemberLevel copy = new MemberLevel();
+            copy.setId(level.getId());
+            copy.setLevelName(level.getLevelName());
+            copy.setMinExperience(level.getMinExperience());
+            copy.setDiscountRate(level.getDiscountRate());
+            copy.setBenefits(level.getBenefits());
+            copy.setCreateTime(level.getCreateTime());
+            copy.setUpdateTime(level.getUpdateTime());
+            return copy;
+        }
+
+        private int indexFor(int experience) {
+            int low = 0;
+            int high = thresholds.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= experience) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.entity.PlatformGuidePrice;
+import com.carmaintenance.entity.Shop;
+import com.carmaintenance.entity.SystemConfig;
+import com.carmaintenance.repository.PlatformGuidePriceRepository;
+import com.carmaintenance.repository.ShopRepository;
+import com.carmaintenance.repository.SystemConfigRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 参考数据本地缓存
+ * 门店、系统配置和平台指导价读多写少，读取时按需从数据库加载，按容量和TTL淘汰；
+ * 对应的更新路径调用evict方法失效，处于事务中时提交后会再失效一次，避免并发读取把旧值写回缓存。
+ * 门店和指导价返回缓存对象的副本，调用方修改返回值不会影响缓存
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String ALL = "all";
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private SystemConfigRepository systemConfigRepository;
+
+    @Autowired
+    private PlatformGuidePriceRepository guidePriceRepository;
+
+    @Value("${cache.reference.shop-max-size:5000}")
+    private long shopMaxSize;
+
+    @Value("${cache.reference.guide-price-max-size:2000}")
+    private long guidePriceMaxSize;
+
+    @Value("${cache.reference.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<Long, Shop> shops;
+
+    private Cache<String, Map<String, String>> systemConfigs;
+
+    /**
+     * key为服务项目名称，没有指导价的项目缓存为Optional.empty()
+     */
+    private Cache<String, Optional<PlatformGuidePrice>> guidePrices;
+
+    private Cache<String, List<PlatformGuidePrice>> activeGuidePrices;
+
+    @PostConstruct
+    public void init() {
+        shops = newCache(shopMaxSize);
+        systemConfigs = newCache(1);
+        guidePrices = newCache(guidePriceMaxSize);
+        activeGuidePrices = newCache(1);
+    }
+
+    private <K, V> Cache<K, V> newCache(long maxSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 根据ID获取门店，不存在时返回null
+     */
+    public Shop getShop(Long shopId) {
+        if (shopId == null) {
+            return null;
+        }
+        return copyOf(shops.get(shopId, shopRepository::selectById));
+    }
+
+    public void evictShop(Long shopId) {
+        if (shopId != null) {
+            evict(() -> shops.invalidate(shopId));
+        }
+    }
+
+    /**
+     * 全部系统配置
+     */
+    public Map<String, String> getSystemConfigs() {
+        return systemConfigs.get(ALL, key -> {
+            Map<String, String> configs = new HashMap<>();
+            for (SystemConfig config : systemConfigRepository.selectList(null)) {
+                configs.put(config.getConfigKey(), config.getConfigValue());
+            }
+            return Collections.unmodifiableMap(configs);
+        });
+    }
+
+    public String getConfigValue(String configKey) {
+        return getSystemConfigs().get(configKey);
+    }
+
+    public void evictSystemConfigs() {
+        evict(() -> systemConfigs.invalidateAll());
+    }
+
+    /**
+     * 根据服务项目名称获取有效的指导价，没有时返回null
+     */
+    public PlatformGuidePrice getGuidePrice(String serviceName) {
+        if (serviceName == null) {
+            return null;
+        }
+        PlatformGuidePrice price = guidePrices.get(serviceName,
+                key -> Optional.ofNullable(guidePriceRepository.findByServiceName(key))).orElse(null);
+        return copyOf(price);
+    }
+
+    /**
+     * 全部有效的指导价
+     */
+    public List<PlatformGuidePrice> getActiveGuidePrices() {
+        List<PlatformGuidePrice> cached = activeGuidePrices.get(ALL,
+                key -> Collections.unmodifiableList(guidePriceRepository.findAllActive()));
+        List<PlatformGuidePrice> prices = new ArrayList<>(cached.size());
+        for (PlatformGuidePrice price : cached) {
+            prices.add(copyOf(price));
+        }
+        return prices;
+    }
+
+    /**
+     * 指导价的服务名称和状态都可能变化，整体失效
+     */
+    public void evictGuidePrices() {
+        evict(() -> {
+            guidePrices.invalidateAll();
+            activeGuidePrices.invalidateAll();
+        });
+    }
+
+    /**
+     * 各缓存的命中统计
+     */
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("shops", toMap(shops));
+        stats.put("systemConfigs", toMap(systemConfigs));
+        stats.put("guidePrices", toMap(guidePrices));
+        stats.put("activeGuidePrices", toMap(activeGuidePrices));
+        return stats;
+    }
+
+    private Map<String, Object> toMap(Cache<?, ?> cache) {
+        CacheStats cacheStats = cache.stats();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("size", cache.estimatedSize());
+        map.put("hitCount", cacheStats.hitCount());
+        map.put("missCount", cacheStats.missCount());
+        map.put("hitRate", cacheStats.hitRate());
+        map.put("loadCount", cacheStats.loadCount());
+        map.put("evictionCount", cacheStats.evictionCount());
+        return map;
+    }
+
+    /**
+     * 浅拷贝，实体字段均为不可变类型；逐字段复制，避免每次命中都走反射。
+     * 实体新增字段时需同步补充
+     */
+    static Shop copyOf(Shop source) {
+        if (source == null) {
+            return null;
+        }
+        Shop copy = new Shop();
+        copy.setId(source.getId());
+        copy.setUserId(source.getUserId());
+        copy.setShopName(source.getShopName());
+        copy.setDescription(source.getDescription());
+        copy.setAddress(source.getAddress());
+        copy.setProvince(source.getProvince());
+        copy.setCity(source.getCity());
+        copy.setDistrict(source.getDistrict());
+        copy.setLongitude(source.getLongitude());
+        copy.setLatitude(source.getLatitude());
+        copy.setPhone(source.getPhone());
+        copy.setEmail(source.getEmail());
+        copy.setBusinessHours(source.getBusinessHours());
+        copy.setShopBays(source.getShopBays());
+        copy.setImages(source.getImages());
+        copy.setLogoUrl(source.getLogoUrl());
+        copy.setStatus(source.getStatus());
+        copy.setRating(source.getRating());
+        copy.setCreateTime(source.getCreateTime());
+        copy.setUpdateTime(source.getUpdateTime());
+        return copy;
+    }
+
+    static PlatformGuidePrice copyOf(PlatformGuidePrice source) {
+        if (source == null) {
+            return null;
+        }
+        PlatformGuidePrice copy = new PlatformGuidePrice();
+        copy.setId(source.getId());
+        copy.setServiceName(source.getServiceName());
+        copy.setCategory(source.getCategory());
+        copy.setGuidePrice(source.getGuidePrice());
+        copy.setMinPrice(source.getMinPrice());
+        copy.setMaxPrice(source.getMaxPrice());
+        copy.setDescription(source.getDescription());
+        copy.setStatus(source.getStatus());
+        copy.setCreateTime(source.getCreateTime());
+        copy.setUpdateTime(source.getUpdateTime());
+        return copy;
+    }
+
+    private void evict(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.dto.ServiceSummary;
+import com.carmaintenance.repository.AppointmentItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 预约服务项目摘要缓存
+ * 订单列表展示的服务项目名称按预约缓存，未命中的预约用一次IN查询批量拼接，不再随每次列表请求重新GROUP_CONCAT。
+ * 预约项目修改后失效；服务项目改名随TTL过期生效
+ */
+@Component
+public class ServiceSummaryCache {
+
+    /**
+     * 没有服务项目的预约也缓存，以空串占位
+     */
+    private static final String EMPTY = "";
+
+    @Autowired
+    private AppointmentItemRepository appointmentItemRepository;
+
+    @Value("${order.details.summary-cache-size:10000}")
+    private long maxSize;
+
+    @Value("${order.details.summary-ttl-minutes:30}")
+    private long ttlMinutes;
+
+    private Cache<Long, String> summaries;
+
+    @PostConstruct
+    public void init() {
+        summaries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /**
+     * 批量获取预约的服务项目摘要，key为预约ID；没有项目的预约不在结果中
+     */
+    public Map<Long, String> getAll(Collection<Long> appointmentIds) {
+        if (appointmentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> cached = summaries.getAll(appointmentIds, this::load);
+        Map<Long, String> result = new HashMap<>(cached.size() * 2);
+        for (Map.Entry<Long, String> entry : cached.entrySet()) {
+            if (!EMPTY.equals(entry.getValue())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 预约项目变更后调用，立即失效，处于事务中时提交后再失效一次
+     */
+    public void evict(Long appointmentId) {
+        if (appointmentId == null) {
+            return;
+        }
+        summaries.invalidate(appointmentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    summaries.invalidate(appointmentId);
+                }
+            });
+        }
+    }
+
+    private Map<Long, String> load(Iterable<? extends Long> appointmentIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        appointmentIds.forEach(ids::add);
+        Map<Long, String> loaded = new HashMap<>(ids.size() * 2);
+        for (ServiceSummary summary : appointmentItemRepository.findServiceSummaries(ids)) {
+            loaded.put(summary.getAppointmentId(),
+                    summary.getServiceItems() != null ? summary.getServiceItems() : EMPTY);
+        }
+        for (Long id : ids) {
+            loaded.putIfAbsent(id, EMPTY);
+        }
+        return loaded;
+    }
+}
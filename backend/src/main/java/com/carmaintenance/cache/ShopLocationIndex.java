@@ -0,0 +1,263 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.dto.ShopLocation;
+import com.carmaintenance.repository.ShopRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * 附近门店网格索引
+ * 按固定经纬度步长把门店划入网格，查询时只扫描半径外接矩形覆盖的网格，
+ * 再按球面距离过滤并用大小为K的堆保留最近的门店。
+ * 索引为不可变快照，门店新增、修改、审核后整体重建并原子替换；评分随定时重建刷新
+ */
+@Component
+public class ShopLocationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopLocationIndex.class);
+
+    private static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    /**
+     * 网格步长(度)，0.05度约5.5公里
+     */
+    @Value("${shop.nearby.cell-degrees:0.05}")
+    private double cellDegrees;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 查询半径内最近的门店，按距离升序
+     *
+     * @param minRating 最低平均评分，为空时不限；暂无评价的门店不满足评分条件
+     */
+    public List<Hit> nearest(double latitude, double longitude, double radiusMeters, int limit,
+                             Integer status, BigDecimal minRating) {
+        Snapshot current = current();
+        double minRatingValue = minRating != null ? minRating.doubleValue() : Double.NaN;
+
+        double latDelta = radiusMeters / METERS_PER_DEGREE;
+        double lngDelta = radiusMeters / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int minRow = cellOf(latitude - latDelta, current.cellDegrees);
+        int maxRow = cellOf(latitude + latDelta, current.cellDegrees);
+        int minCol = cellOf(longitude - lngDelta, current.cellDegrees);
+        int maxCol = cellOf(longitude + lngDelta, current.cellDegrees);
+
+        // 在半正矢值上比较距离（与距离单调），只有进入堆的门店才换算成米
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        double maxHaversine = haversineOf(radiusMeters);
+        // 大顶堆，堆顶是当前K个候选中最远的
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(b.distance, a.distance));
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                Entry[] entries = current.cells.get(cellKey(row, col));
+                if (entries == null) {
+                    continue;
+                }
+                for (Entry entry : entries) {
+                    if (status != null && entry.status != status) {
+                        continue;
+                    }
+                    if (!Double.isNaN(minRatingValue) && !(entry.rating >= minRatingValue)) {
+                        continue;
+                    }
+                    double haversine = haversine(latitude, longitude, cosLatitude, entry);
+                    if (haversine > maxHaversine) {
+                        continue;
+                    }
+                    if (heap.size() < limit) {
+                        heap.add(new Hit(entry.shopId, distanceOf(haversine), entry.rating));
+                        if (heap.size() == limit) {
+                            maxHaversine = haversineOf(heap.peek().distance);
+                        }
+                    } else if (haversine < maxHaversine) {
+                        heap.poll();
+                        heap.add(new Hit(entry.shopId, distanceOf(haversine), entry.rating));
+                        maxHaversine = haversineOf(heap.peek().distance);
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::getDistance));
+        return hits;
+    }
+
+    /**
+     * 当前快照，首次访问时加载
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 从数据库重新加载并替换快照
+     */
+    public synchronized void rebuild() {
+        Snapshot rebuilt = new Snapshot(cellDegrees, shopRepository.findAllLocations());
+        snapshot = rebuilt;
+        logger.info("附近门店索引已重建: shops={}, cells={}", rebuilt.size, rebuilt.cells.size());
+    }
+
+    /**
+     * 门店数据变更后调用，处于事务中时在提交后重建
+     */
+    public void rebuildAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rebuild();
+                }
+            });
+        } else {
+            rebuild();
+        }
+    }
+
+    /**
+     * 定时重建，用于刷新评分和同步其它实例上的门店变更
+     */
+    @Scheduled(initialDelayString = "${shop.nearby.refresh-interval:600000}",
+               fixedDelayString = "${shop.nearby.refresh-interval:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    /**
+     * 两点的半正矢值 sin²(Δφ/2) + cosφ1·cosφ2·sin²(Δλ/2)，随球面距离单调递增
+     */
+    private static double haversine(double latitude, double longitude, double cosLatitude, Entry entry) {
+        double sinLat = Math.sin(Math.toRadians(entry.latitude - latitude) / 2);
+        double sinLng = Math.sin(Math.toRadians(entry.longitude - longitude) / 2);
+        return sinLat * sinLat + cosLatitude * entry.cosLatitude * sinLng * sinLng;
+    }
+
+    /**
+     * 半正矢值换算为球面距离(米)
+     */
+    private static double distanceOf(double haversine) {
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+    /**
+     * 球面距离(米)换算为半正矢值
+     */
+    private static double haversineOf(double meters) {
+        double sin = Math.sin(Math.min(meters / EARTH_RADIUS_METERS, Math.PI) / 2);
+        return sin * sin;
+    }
+
+    private static int cellOf(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * 查询结果：门店ID、距离和平均评分（暂无评价时为NaN）
+     */
+    public static final class Hit {
+
+        private final Long shopId;
+
+        private final double distance;
+
+        private final double rating;
+
+        private Hit(Long shopId, double distance, double rating) {
+            this.shopId = shopId;
+            this.distance = distance;
+            this.rating = rating;
+        }
+
+        public Long getShopId() {
+            return shopId;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        public BigDecimal getRating() {
+            return Double.isNaN(rating) ? null : BigDecimal.valueOf(rating).setScale(2, RoundingMode.HALF_UP);
+        }
+    }
+
+    private static final class Entry {
+
+        private final Long shopId;
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final double cosLatitude;
+
+        private final int status;
+
+        private final double rating;
+
+        private Entry(ShopLocation location) {
+            this.shopId = location.getShopId();
+            this.latitude = location.getLatitude().doubleValue();
+            this.longitude = location.getLongitude().doubleValue();
+            this.cosLatitude = Math.cos(Math.toRadians(latitude));
+            this.status = location.getStatus() != null ? location.getStatus() : -1;
+            Integer count = location.getRatingCount();
+            this.rating = count != null && count > 0 && location.getRatingSum() != null
+                    ? location.getRatingSum().doubleValue() / count : Double.NaN;
+        }
+    }
+
+    /**
+     * 网格快照，创建后不再修改
+     */
+    private static final class Snapshot {
+
+        private final double cellDegrees;
+
+        private final Map<Long, Entry[]> cells;
+
+        private final int size;
+
+        private Snapshot(double cellDegrees, List<ShopLocation> locations) {
+            this.cellDegrees = cellDegrees;
+            Map<Long, List<Entry>> grouped = new HashMap<>();
+            for (ShopLocation location : locations) {
+                Entry entry = new Entry(location);
+                long key = cellKey(cellOf(entry.latitude, cellDegrees), cellOf(entry.longitude, cellDegrees));
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+            Map<Long, Entry[]> built = new HashMap<>(grouped.size() * 2);
+            for (Map.Entry<Long, List<Entry>> cell : grouped.entrySet()) {
+                built.put(cell.getKey(), cell.getValue().toArray(new Entry[0]));
+            }
+            this.cells = built;
+            this.size = locations.size();
+        }
+    }
+}
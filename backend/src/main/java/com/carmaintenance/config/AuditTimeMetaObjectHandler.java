@@ -0,0 +1,33 @@
+package com.carmaintenance.config;
+
+import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import org.apache.ibatis.reflection.MetaObject;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 创建时间、更新时间自动填充
+ * 更新时总是覆盖updateTime：先查询再updateById时实体带着旧的update_time，显式赋值会让MySQL的
+ * ON UPDATE CURRENT_TIMESTAMP失效，每日指标汇总按update_time增量刷新，旧值会导致状态变更漏算。
+ * 与汇总水位线使用同一时钟
+ */
+@Component
+public class AuditTimeMetaObjectHandler implements MetaObjectHandler {
+
+    private static final String CREATE_TIME = "createTime";
+
+    private static final String UPDATE_TIME = "updateTime";
+
+    @Override
+    public void insertFill(MetaObject metaObject) {
+        LocalDateTime now = LocalDateTime.now();
+        strictInsertFill(metaObject, CREATE_TIME, LocalDateTime.class, now);
+        strictInsertFill(metaObject, UPDATE_TIME, LocalDateTime.class, now);
+    }
+
+    @Override
+    public void updateFill(MetaObject metaObject) {
+        setFieldValByName(UPDATE_TIME, LocalDateTime.now(), metaObject);
+    }
+}
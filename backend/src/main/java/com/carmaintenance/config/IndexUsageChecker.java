@@ -0,0 +1,207 @@
+package com.carmaintenance.config;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * 索引使用检查
+ * 启动完成后对各Repository接口中声明的SELECT/UPDATE/DELETE语句执行EXPLAIN，
+ * 没有任何可用索引(possible_keys为空)的全表扫描视为缺失索引，默认使启动失败；
+ * 有可用索引但优化器仍选择全表扫描的只记录警告（与表中数据量有关）。
+ * 仅用于本地库检查，通过db.index-check.enabled开启。
+ * BaseMapper继承的通用方法和Service中的QueryWrapper条件在运行时才确定，不在检查范围内
+ */
+@Component
+@ConditionalOnProperty(prefix = "db.index-check", name = "enabled", havingValue = "true")
+public class IndexUsageChecker {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexUsageChecker.class);
+
+    private static final Pattern TIME_PARAM = Pattern.compile("(?i).*(time|date|start|end|since|until|now|before).*");
+
+    private static final String SAMPLE_TIME = "'2024-01-01 00:00:00'";
+
+    private static final String SAMPLE_VALUE = "'1'";
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${db.index-check.fail-on-full-scan:true}")
+    private boolean failOnFullScan;
+
+    /**
+     * 允许全表扫描的小表
+     */
+    @Value("#{'${db.index-check.ignore-tables:member_levels}'.split(',')}")
+    private Set<String> ignoreTables;
+
+    /**
+     * 暂不检查的语句，格式为 接口名.方法名
+     */
+    @Value("#{'${db.index-check.ignore-statements:}'.split(',')}")
+    private Set<String> ignoreStatements;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        List<String> violations = new ArrayList<>();
+        int checked = 0;
+        int skipped = 0;
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (MappedStatement ms : distinct(sqlSessionFactory.getConfiguration().getMappedStatements())) {
+                if (!isChecked(ms)) {
+                    continue;
+                }
+                String sql;
+                try {
+                    sql = toExplainableSql(ms);
+                } catch (Exception e) {
+                    logger.warn("索引检查跳过: {}, 无法生成SQL: {}", ms.getId(), e.getMessage());
+                    skipped++;
+                    continue;
+                }
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+                    checked++;
+                    while (rs.next()) {
+                        String table = rs.getString("table");
+                        String type = rs.getString("type");
+                        if (table == null || table.startsWith("<") || ignoreTables.contains(table)
+                                || !"ALL".equalsIgnoreCase(type)) {
+                            continue;
+                        }
+                        String possibleKeys = rs.getString("possible_keys");
+                        if (possibleKeys == null) {
+                            violations.add(ms.getId() + " -> " + table);
+                        } else {
+                            logger.warn("索引检查: {} 对表{}全表扫描, 可用索引: {}", ms.getId(), table, possibleKeys);
+                        }
+                    }
+                } catch (Exception e) {
+                    logger.warn("索引检查跳过: {}, EXPLAIN失败: {}", ms.getId(), e.getMessage());
+                    skipped++;
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("索引检查失败: " + e.getMessage(), e);
+        }
+
+        logger.info("索引检查完成: 检查{}条语句, 跳过{}条, 缺失索引{}处", checked, skipped, violations.size());
+        if (!violations.isEmpty()) {
+            String message = "以下语句没有可用索引，将全表扫描: " + String.join(", ", violations);
+            if (failOnFullScan) {
+                throw new IllegalStateException(message);
+            }
+            logger.error(message);
+        }
+    }
+
+    /**
+     * 只检查Repository接口自身声明的方法，跳过BaseMapper注入的通用方法
+     */
+    private boolean isChecked(MappedStatement ms) {
+        SqlCommandType type = ms.getSqlCommandType();
+        if (type != SqlCommandType.SELECT && type != SqlCommandType.UPDATE && type != SqlCommandType.DELETE) {
+            return false;
+        }
+        String id = ms.getId();
+        int dot = id.lastIndexOf('.');
+        if (dot < 0 || id.contains("!")) {
+            return false;
+        }
+        String namespace = id.substring(0, dot);
+        String methodName = id.substring(dot + 1);
+        if (ignoreStatements.contains(namespace.substring(namespace.lastIndexOf('.') + 1) + "." + methodName)) {
+            return false;
+        }
+        try {
+            for (Method method : Class.forName(namespace).getDeclaredMethods()) {
+                if (method.getName().equals(methodName)) {
+                    return true;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+        return false;
+    }
+
+    /**
+     * 用示例值替换占位符：参数名像时间的用日期时间，limit用数字，其余用字符串'1'。
+     * 动态SQL的条件参数都视为非空，检查条件最多的情况
+     */
+    private String toExplainableSql(MappedStatement ms) {
+        BoundSql boundSql = ms.getBoundSql(new SampleParameters());
+        String sql = boundSql.getSql();
+        StringBuilder result = new StringBuilder(sql.length() + 32);
+        Iterator<ParameterMapping> mappings = boundSql.getParameterMappings().iterator();
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?' && mappings.hasNext()) {
+                result.append(sampleFor(mappings.next().getProperty()));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private String sampleFor(String property) {
+        String name = property.substring(property.lastIndexOf('.') + 1);
+        if ("limit".equalsIgnoreCase(name)) {
+            return "10";
+        }
+        return TIME_PARAM.matcher(name).matches() ? SAMPLE_TIME : SAMPLE_VALUE;
+    }
+
+    /**
+     * MyBatis以全限定名和短名各注册一次，按对象去重
+     */
+    private Collection<MappedStatement> distinct(Collection<MappedStatement> statements) {
+        Set<MappedStatement> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object statement : statements) {
+            if (statement instanceof MappedStatement) {
+                result.add((MappedStatement) statement);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 任意参数名都返回非空示例值，使动态SQL中的条件全部生效
+     */
+    private static final class SampleParameters extends HashMap<String, Object> {
+
+        @Override
+        public boolean containsKey(Object key) {
+            return true;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return "1";
+        }
+    }
+}
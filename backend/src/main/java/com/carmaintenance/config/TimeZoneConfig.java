@@ -0,0 +1,24 @@
+package com.carmaintenance.config;
+
+import com.carmaintenance.utils.TimeWindow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.time.ZoneId;
+
+/**
+ * 业务时区配置
+ * 与JSON序列化使用同一时区，用于TimeWindow计算今天、本周、本月
+ */
+@Configuration
+public class TimeZoneConfig {
+
+    @Value("${spring.jackson.time-zone:GMT+8}")
+    private String timeZone;
+
+    @PostConstruct
+    public void init() {
+        TimeWindow.setZone(ZoneId.of(timeZone));
+    }
+}
@@ -1,20 +1,28 @@
 package com.carmaintenance.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.CursorPage;
+import com.carmaintenance.dto.ExportJob;
 import com.carmaintenance.dto.Result;
 import com.carmaintenance.entity.*;
+import com.carmaintenance.exception.BusinessException;
 import com.carmaintenance.repository.ReviewRepository;
 import com.carmaintenance.service.AdminService;
-import com.carmaintenance.utils.ExcelExportUtil;
+import com.carmaintenance.service.ExportJobService;
+import com.carmaintenance.service.ReviewService;
+import com.carmaintenance.utils.RangeFileSender;
+import com.carmaintenance.utils.StreamingExcelWriter;
+import com.carmaintenance.utils.TimeWindow;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -32,6 +40,12 @@ public class AdminController {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private ReviewService reviewService;
+
     // ==================== 用户管理 ====================
 
     /**
@@ -177,6 +191,24 @@ public class AdminController {
         return Result.success(orderPage);
     }
 
+    /**
+     * 获取订单列表（游标分页），首页不传cursor，之后传上一页返回的nextCursor
+     */
+    @GetMapping("/orders/cursor")
+    public Result<CursorPage<Order>> getOrderListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long shopId,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+
+        CursorPage<Order> orderPage = adminService.getOrderListByCursor(cursor, size, userId, shopId, status, startDate, endDate);
+
+        return Result.success(orderPage);
+    }
+
     /**
      * 获取订单统计信息
      */
@@ -221,6 +253,14 @@ public class AdminController {
         return Result.success(stats);
     }
 
+    /**
+     * 获取参考数据缓存命中统计
+     */
+    @GetMapping("/cache/stats")
+    public Result<Map<String, Map<String, Object>>> getCacheStats() {
+        return Result.success(adminService.getCacheStats());
+    }
+
     // ==================== 数据导出 ====================
 
     /**
@@ -229,10 +269,12 @@ public class AdminController {
     @GetMapping("/export/users")
     public void exportUsers(@RequestParam(required = false) Integer userType,
                           HttpServletResponse response) throws IOException {
-        List<Map<String, Object>> data = adminService.exportUsers(userType);
-        List<String> headers = Arrays.asList("用户ID", "用户名", "真实姓名", "邮箱", "手机号", "用户类型", "状态", "注册时间");
+        List<String> headers = exportJobService.getHeaders("users");
         String fileName = "用户数据_" + System.currentTimeMillis();
-        ExcelExportUtil.exportToExcel(fileName, headers, data, response);
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(headers)) {
+            adminService.exportUsers(userType, writer);
+            writer.writeTo(response, fileName);
+        }
     }
 
     /**
@@ -242,11 +284,12 @@ public class AdminController {
     public void exportOrders(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
                             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
                             HttpServletResponse response) throws IOException {
-        List<Map<String, Object>> data = adminService.exportOrders(startDate, endDate);
-        List<String> headers = Arrays.asList("订单ID", "订单编号", "用户ID", "门店ID", "总金额", 
-                                            "折扣金额", "实付金额", "支付方式", "支付状态", "订单状态", "创建时间");
+        List<String> headers = exportJobService.getHeaders("orders");
         String fileName = "订单数据_" + System.currentTimeMillis();
-        ExcelExportUtil.exportToExcel(fileName, headers, data, response);
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(headers)) {
+            adminService.exportOrders(startDate, endDate, writer);
+            writer.writeTo(response, fileName);
+        }
     }
 
     /**
@@ -256,10 +299,47 @@ public class AdminController {
     public void exportFinancialData(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
                                    @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate,
                                    HttpServletResponse response) throws IOException {
-        List<Map<String, Object>> data = adminService.exportFinancialData(startDate, endDate);
-        List<String> headers = Arrays.asList("日期", "订单数量", "营业额", "收款金额");
+        List<String> headers = exportJobService.getHeaders("financial");
         String fileName = "财务数据_" + System.currentTimeMillis();
-        ExcelExportUtil.exportToExcel(fileName, headers, data, response);
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(headers)) {
+            adminService.exportFinancialData(startDate, endDate, writer);
+            writer.writeTo(response, fileName);
+        }
+    }
+
+    /**
+     * 提交异步导出任务
+     */
+    @PostMapping("/export/jobs")
+    public Result<ExportJob> submitExportJob(@RequestParam String type,
+                                            @RequestParam(required = false) Integer userType,
+                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        ExportJob job = exportJobService.submit(type, userType, startDate, endDate);
+        return Result.success("导出任务已提交", job);
+    }
+
+    /**
+     * 查询导出任务状态和进度
+     */
+    @GetMapping("/export/jobs/{jobId}")
+    public Result<ExportJob> getExportJob(@PathVariable String jobId) {
+        return Result.success(exportJobService.getJob(jobId));
+    }
+
+    /**
+     * 下载导出文件，支持Range断点续传
+     */
+    @GetMapping("/export/jobs/{jobId}/download")
+    public void downloadExportJob(@PathVariable String jobId,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
+        ExportJob job = exportJobService.getJob(jobId);
+        if (!ExportJob.Status.COMPLETED.getCode().equals(job.getStatus())) {
+            throw new BusinessException(409, "导出文件尚未生成完成");
+        }
+        RangeFileSender.send(Paths.get(job.getFilePath()), job.getFileName(),
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", request, response);
     }
 
     /**
@@ -383,7 +463,7 @@ public class AdminController {
             return Result.error("评价不存在");
         }
         
-        boolean result = reviewRepository.deleteById(reviewId) > 0;
+        boolean result = reviewService.adminDeleteReview(reviewId);
         if (result) {
             return Result.success("评价删除成功");
         } else {
@@ -399,7 +479,7 @@ public class AdminController {
     @GetMapping("/reports/daily")
     public Result<Map<String, Object>> getDailyReport(
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
-        LocalDate reportDate = date != null ? date : LocalDate.now();
+        LocalDate reportDate = date != null ? date : TimeWindow.currentDate();
         Map<String, Object> report = adminService.getDailyReport(reportDate);
         return Result.success(report);
     }
@@ -410,7 +490,7 @@ public class AdminController {
     @GetMapping("/reports/weekly")
     public Result<Map<String, Object>> getWeeklyReport(
             @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate) {
-        LocalDate reportStart = startDate != null ? startDate : LocalDate.now().minusDays(6);
+        LocalDate reportStart = startDate != null ? startDate : TimeWindow.currentDate().minusDays(6);
         Map<String, Object> report = adminService.getWeeklyReport(reportStart);
         return Result.success(report);
     }
@@ -422,8 +502,8 @@ public class AdminController {
     public Result<Map<String, Object>> getMonthlyReport(
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) Integer month) {
-        int reportYear = year != null ? year : LocalDate.now().getYear();
-        int reportMonth = month != null ? month : LocalDate.now().getMonthValue();
+        int reportYear = year != null ? year : TimeWindow.currentDate().getYear();
+        int reportMonth = month != null ? month : TimeWindow.currentDate().getMonthValue();
         Map<String, Object> report = adminService.getMonthlyReport(reportYear, reportMonth);
         return Result.success(report);
     }
@@ -2,6 +2,7 @@ package com.carmaintenance.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.carmaintenance.dto.AppointmentDTO;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.Result;
 import com.carmaintenance.entity.Appointment;
 import com.carmaintenance.entity.Shop;
@@ -115,6 +116,30 @@ public class AppointmentController {
         return Result.success(appointmentPage);
     }
 
+    /**
+     * 获取门店预约列表（游标分页），首页不传cursor，之后传上一页返回的nextCursor
+     */
+    @GetMapping("/shop/cursor")
+    @PreAuthorize("hasRole('SHOP')")
+    public Result<CursorPage<Appointment>> getShopAppointmentsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        // 根据用户ID获取门店ID
+        Shop shop = shopRepository.findByUserId(userPrincipal.getUserId());
+        if (shop == null) {
+            return Result.error("门店信息不存在");
+        }
+
+        CursorPage<Appointment> appointmentPage =
+                appointmentService.getShopAppointmentsByCursor(cursor, size, shop.getId(), status, date);
+
+        return Result.success(appointmentPage);
+    }
+
     /**
      * 获取预约详情
      */
@@ -1,6 +1,7 @@
 package com.carmaintenance.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.OrderDTO;
 import com.carmaintenance.dto.OrderVO;
 import com.carmaintenance.dto.Result;
@@ -106,6 +107,83 @@ public class OrderController {
         return Result.success(orders);
     }
 
+    /**
+     * 获取用户订单列表（包含完整信息，游标分页），首页不传cursor，之后传上一页返回的nextCursor
+     */
+    @GetMapping("/my/details")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public Result<CursorPage<OrderVO>> getMyOrderDetails(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer status,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        CursorPage<OrderVO> orderPage =
+                orderService.getUserOrderDetailsByCursor(cursor, size, userPrincipal.getUserId(), status);
+
+        return Result.success(orderPage);
+    }
+
+    /**
+     * 获取门店订单列表（包含完整信息，游标分页）
+     */
+    @GetMapping("/shop/details")
+    @PreAuthorize("hasRole('SHOP')")
+    public Result<CursorPage<OrderVO>> getShopOrderDetails(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer status,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        // 根据用户ID获取门店ID
+        Shop shop = shopRepository.findByUserId(userPrincipal.getUserId());
+        if (shop == null) {
+            return Result.error("门店信息不存在");
+        }
+
+        CursorPage<OrderVO> orderPage = orderService.getShopOrderDetailsByCursor(cursor, size, shop.getId(), status);
+
+        return Result.success(orderPage);
+    }
+
+    /**
+     * 获取用户订单列表（游标分页），首页不传cursor，之后传上一页返回的nextCursor
+     */
+    @GetMapping("/my/cursor")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public Result<CursorPage<Order>> getMyOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer status,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        CursorPage<Order> orderPage = orderService.getUserOrdersByCursor(cursor, size, userPrincipal.getUserId(), status);
+
+        return Result.success(orderPage);
+    }
+
+    /**
+     * 获取门店订单列表（游标分页）
+     */
+    @GetMapping("/shop/cursor")
+    @PreAuthorize("hasRole('SHOP')")
+    public Result<CursorPage<Order>> getShopOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(required = false) Integer status,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
+
+        // 根据用户ID获取门店ID
+        Shop shop = shopRepository.findByUserId(userPrincipal.getUserId());
+        if (shop == null) {
+            return Result.error("门店信息不存在");
+        }
+
+        CursorPage<Order> orderPage = orderService.getShopOrdersByCursor(cursor, size, shop.getId(), status);
+
+        return Result.success(orderPage);
+    }
+
     /**
      * 获取订单详情
      */
@@ -1,6 +1,7 @@
 package com.carmaintenance.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.Result;
 import com.carmaintenance.dto.ReviewDTO;
 import com.carmaintenance.entity.Review;
@@ -96,6 +97,20 @@ public class ReviewController {
         return Result.success(reviewPage);
     }
 
+    /**
+     * 获取门店评价列表（游标分页），首页不传cursor，之后传上一页返回的nextCursor
+     */
+    @GetMapping("/shop/{shopId}/cursor")
+    public Result<CursorPage<Review>> getShopReviewsByCursor(
+            @PathVariable Long shopId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+
+        CursorPage<Review> reviewPage = reviewService.getShopReviewsByCursor(cursor, size, shopId);
+
+        return Result.success(reviewPage);
+    }
+
     /**
      * 获取评价详情
      */
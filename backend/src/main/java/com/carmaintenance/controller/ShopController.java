@@ -1,6 +1,7 @@
 package com.carmaintenance.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.NearbyShopVO;
 import com.carmaintenance.dto.Result;
 import com.carmaintenance.dto.ShopRegisterDTO;
 import com.carmaintenance.entity.Shop;
@@ -12,6 +13,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -68,12 +70,28 @@ public class ShopController {
         return Result.success(shops);
     }
 
+    /**
+     * 附近门店，按距离升序
+     */
+    @GetMapping("/nearby")
+    public Result<List<NearbyShopVO>> getNearbyShops(
+            @RequestParam Double lat,
+            @RequestParam Double lng,
+            @RequestParam(required = false) Integer radius,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) BigDecimal minRating) {
+
+        List<NearbyShopVO> shops = shopService.getNearbyShops(lat, lng, radius, limit, status, minRating);
+        return Result.success(shops);
+    }
+
     /**
      * 获取门店详情
      */
     @GetMapping("/{shopId}")
     public Result<Shop> getShopDetail(@PathVariable Long shopId) {
-        Shop shop = shopService.getById(shopId);
+        Shop shop = shopService.getShopDetail(shopId);
         if (shop == null) {
             return Result.error("门店不存在");
         }
@@ -0,0 +1,14 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+/**
+ * 按分类的计数结果
+ */
+@Data
+public class CategoryCount {
+
+    private String category;
+
+    private Long total;
+}
@@ -0,0 +1,21 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 不返回总数，hasMore为true时用nextCursor请求下一页
+ */
+@Data
+public class CursorPage<T> {
+
+    private List<T> records;
+
+    private Integer size;
+
+    private Boolean hasMore;
+
+    private String nextCursor;
+}
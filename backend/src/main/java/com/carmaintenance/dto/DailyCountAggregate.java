@@ -0,0 +1,18 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 按日期（及可选分类）的计数聚合结果
+ */
+@Data
+public class DailyCountAggregate {
+
+    private LocalDate day;
+
+    private Integer category;
+
+    private Long total;
+}
@@ -0,0 +1,75 @@
+package com.carmaintenance.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导出任务
+ */
+@Data
+public class ExportJob {
+
+    private String jobId;
+
+    private String type; // users, orders, financial
+
+    private volatile Integer status; // 0-排队中, 1-生成中, 2-已完成, 3-失败（最后写入，保证其它字段对查询线程可见）
+
+    private Long totalRows; // 预计行数，-1表示未知
+
+    private Long writtenRows;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    private String errorMessage;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime finishTime;
+
+    @JsonIgnore
+    private String dedupKey;
+
+    @JsonIgnore
+    private String filePath;
+
+    /**
+     * 生成进度(0-100)，行数未知时只在完成后为100
+     */
+    public Integer getProgress() {
+        if (Status.COMPLETED.getCode().equals(status)) {
+            return 100;
+        }
+        if (totalRows == null || totalRows <= 0 || writtenRows == null) {
+            return 0;
+        }
+        return (int) Math.min(99, writtenRows * 100 / totalRows);
+    }
+
+    public enum Status {
+        PENDING(0, "排队中"),
+        RUNNING(1, "生成中"),
+        COMPLETED(2, "已完成"),
+        FAILED(3, "失败");
+
+        private final Integer code;
+        private final String desc;
+
+        Status(Integer code, String desc) {
+            this.code = code;
+            this.desc = desc;
+        }
+
+        public Integer getCode() {
+            return code;
+        }
+
+        public String getDesc() {
+            return desc;
+        }
+    }
+}
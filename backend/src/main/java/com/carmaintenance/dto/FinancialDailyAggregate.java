@@ -0,0 +1,21 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 已支付订单按日期的财务聚合结果
+ */
+@Data
+public class FinancialDailyAggregate {
+
+    private LocalDate day;
+
+    private Long orderCount;
+
+    private BigDecimal revenue; // 已完成订单实付金额
+
+    private BigDecimal paidAmount; // 全部已支付订单实付金额
+}
@@ -0,0 +1,32 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 附近门店视图对象
+ */
+@Data
+public class NearbyShopVO {
+
+    private Long shopId;
+
+    private String shopName;
+
+    private String address;
+
+    private String city;
+
+    private String phone;
+
+    private String businessHours;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private BigDecimal rating; // 平均评分，暂无评价时为空
+
+    private Integer distance; // 距离(米)
+}
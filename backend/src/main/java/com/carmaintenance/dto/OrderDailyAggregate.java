@@ -0,0 +1,21 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 订单按日期和状态的聚合结果
+ */
+@Data
+public class OrderDailyAggregate {
+
+    private LocalDate day;
+
+    private Integer status;
+
+    private Long orderCount;
+
+    private BigDecimal amount;
+}
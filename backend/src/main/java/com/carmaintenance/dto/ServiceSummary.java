@@ -0,0 +1,14 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+/**
+ * 预约的服务项目摘要，多个项目名称以逗号拼接
+ */
+@Data
+public class ServiceSummary {
+
+    private Long appointmentId;
+
+    private String serviceItems;
+}
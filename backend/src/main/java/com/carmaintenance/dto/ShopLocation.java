@@ -0,0 +1,24 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 门店坐标及筛选字段，用于构建附近门店索引
+ */
+@Data
+public class ShopLocation {
+
+    private Long shopId;
+
+    private BigDecimal latitude;
+
+    private BigDecimal longitude;
+
+    private Integer status;
+
+    private BigDecimal ratingSum;
+
+    private Integer ratingCount;
+}
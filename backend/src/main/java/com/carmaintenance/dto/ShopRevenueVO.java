@@ -0,0 +1,18 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 门店营业额视图对象
+ */
+@Data
+public class ShopRevenueVO {
+
+    private Long shopId;
+
+    private String shopName;
+
+    private BigDecimal revenue;
+}
@@ -0,0 +1,27 @@
+package com.carmaintenance.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 按状态的聚合结果，一个状态一行
+ * amount等金额列由各查询自行定义（订单为实付金额，服务项目为价格），不适用的列为null
+ */
+@Data
+public class StatusAggregate {
+
+    private Integer status;
+
+    private Long total;
+
+    private BigDecimal amount;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+
+    private Long recentTotal; // 满足时间条件（如今日）的行数
+
+    private BigDecimal recentAmount;
+}
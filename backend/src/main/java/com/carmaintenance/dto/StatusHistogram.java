@@ -0,0 +1,78 @@
+package com.carmaintenance.dto;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 状态直方图
+ * 包装一次GROUP BY status查询的结果，按状态或全部状态取计数和金额；没有数据的状态计为0
+ */
+public class StatusHistogram {
+
+    private final Map<Integer, StatusAggregate> byStatus;
+
+    private StatusHistogram(Map<Integer, StatusAggregate> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public static StatusHistogram of(List<StatusAggregate> rows) {
+        Map<Integer, StatusAggregate> byStatus = new HashMap<>();
+        for (StatusAggregate row : rows) {
+            byStatus.put(row.getStatus(), row);
+        }
+        return new StatusHistogram(byStatus);
+    }
+
+    public long count(Integer status) {
+        StatusAggregate row = byStatus.get(status);
+        return row != null ? nonNull(row.getTotal()) : 0L;
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (StatusAggregate row : byStatus.values()) {
+            total += nonNull(row.getTotal());
+        }
+        return total;
+    }
+
+    public BigDecimal amount(Integer status) {
+        StatusAggregate row = byStatus.get(status);
+        return row != null ? nonNull(row.getAmount()) : BigDecimal.ZERO;
+    }
+
+    public long recentCount(Integer status) {
+        StatusAggregate row = byStatus.get(status);
+        return row != null ? nonNull(row.getRecentTotal()) : 0L;
+    }
+
+    public long totalRecentCount() {
+        long total = 0;
+        for (StatusAggregate row : byStatus.values()) {
+            total += nonNull(row.getRecentTotal());
+        }
+        return total;
+    }
+
+    public BigDecimal recentAmount(Integer status) {
+        StatusAggregate row = byStatus.get(status);
+        return row != null ? nonNull(row.getRecentAmount()) : BigDecimal.ZERO;
+    }
+
+    /**
+     * 指定状态的单行聚合，没有数据时返回null
+     */
+    public StatusAggregate get(Integer status) {
+        return byStatus.get(status);
+    }
+
+    private static long nonNull(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static BigDecimal nonNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
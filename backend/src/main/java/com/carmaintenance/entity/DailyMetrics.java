@@ -0,0 +1,67 @@
+package com.carmaintenance.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日指标汇总实体类
+ * 每行对应一个自然日内创建的数据，由定时任务增量维护
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("daily_metrics")
+public class DailyMetrics {
+
+    @TableId(value = "metric_date", type = IdType.INPUT)
+    private LocalDate metricDate;
+
+    @TableField("order_count")
+    private Long orderCount = 0L;
+
+    @TableField("pending_orders")
+    private Long pendingOrders = 0L;
+
+    @TableField("in_progress_orders")
+    private Long inProgressOrders = 0L;
+
+    @TableField("completed_orders")
+    private Long completedOrders = 0L;
+
+    @TableField("cancelled_orders")
+    private Long cancelledOrders = 0L;
+
+    @TableField("order_revenue")
+    private BigDecimal orderRevenue = BigDecimal.ZERO; // 已完成订单实付金额
+
+    @TableField("new_users")
+    private Long newUsers = 0L;
+
+    @TableField("new_customers")
+    private Long newCustomers = 0L;
+
+    @TableField("new_shop_users")
+    private Long newShopUsers = 0L;
+
+    @TableField("new_admins")
+    private Long newAdmins = 0L;
+
+    @TableField("new_shops")
+    private Long newShops = 0L;
+
+    @TableField("new_members")
+    private Long newMembers = 0L;
+
+    @TableField("new_reviews")
+    private Long newReviews = 0L; // 显示状态的评价
+
+    @TableField("new_appointments")
+    private Long newAppointments = 0L;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,30 @@
+package com.carmaintenance.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 指标位图实体类
+ * bitmap为java.util.BitSet.toByteArray()的结果，watermark为已合并到的源表最大ID
+ */
+@Data
+@TableName("metric_bitmaps")
+public class MetricBitmap {
+
+    @TableId(value = "name", type = IdType.INPUT)
+    private String name;
+
+    private byte[] bitmap;
+
+    private Long cardinality;
+
+    private Long watermark;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
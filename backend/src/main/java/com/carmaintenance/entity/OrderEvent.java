@@ -0,0 +1,74 @@
+package com.carmaintenance.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+/**
+ * 订单事件实体类（事务发件箱）
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("order_events")
+public class OrderEvent {
+
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    @TableField("event_type")
+    private String eventType;
+
+    @TableField("order_id")
+    private Long orderId;
+
+    @TableField("payload")
+    private String payload;
+
+    @TableField("status")
+    private Integer status; // 0-待处理, 1-处理中, 2-已完成, 3-失败
+
+    @TableField("retry_count")
+    private Integer retryCount;
+
+    @TableField("next_retry_time")
+    private LocalDateTime nextRetryTime;
+
+    @TableField("last_error")
+    private String lastError;
+
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+
+    public enum Status {
+        PENDING(0, "待处理"),
+        PROCESSING(1, "处理中"),
+        DONE(2, "已完成"),
+        FAILED(3, "失败");
+
+        private final Integer code;
+        private final String desc;
+
+        Status(Integer code, String desc) {
+            this.code = code;
+            this.desc = desc;
+        }
+
+        public Integer getCode() {
+            return code;
+        }
+
+        public String getDesc() {
+            return desc;
+        }
+    }
+
+    /**
+     * 事件类型
+     */
+    public static final String ORDER_COMPLETED = "OrderCompleted";
+}
@@ -39,10 +39,10 @@ public class Shop {
     @TableField(exist = false)
     private String district;
 
-    @TableField(exist = false)
+    @TableField("longitude")
     private BigDecimal longitude;
 
-    @TableField(exist = false)
+    @TableField("latitude")
     private BigDecimal latitude;
 
     @TableField("phone")
@@ -0,0 +1,82 @@
+package com.carmaintenance.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * 门店评分统计实体类
+ * 只统计显示状态的评价，星级按综合评分四舍五入到1-5
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("shop_rating_stats")
+public class ShopRatingStats {
+
+    @TableId(value = "shop_id", type = IdType.INPUT)
+    private Long shopId;
+
+    @TableField("rating_sum")
+    private BigDecimal ratingSum;
+
+    @TableField("rating_count")
+    private Integer ratingCount;
+
+    @TableField("star_1")
+    private Integer star1;
+
+    @TableField("star_2")
+    private Integer star2;
+
+    @TableField("star_3")
+    private Integer star3;
+
+    @TableField("star_4")
+    private Integer star4;
+
+    @TableField("star_5")
+    private Integer star5;
+
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+
+    /**
+     * 平均评分，保留两位小数，无评价时返回0
+     */
+    public BigDecimal getAverageRating() {
+        if (ratingCount == null || ratingCount <= 0 || ratingSum == null) {
+            return BigDecimal.ZERO;
+        }
+        return ratingSum.divide(BigDecimal.valueOf(ratingCount), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 指定星级的评价数
+     */
+    public int getStarCount(int star) {
+        Integer count;
+        switch (star) {
+            case 1: count = star1; break;
+            case 2: count = star2; break;
+            case 3: count = star3; break;
+            case 4: count = star4; break;
+            default: count = star5; break;
+        }
+        return count != null ? count : 0;
+    }
+
+    /**
+     * 综合评分对应的星级(1-5)
+     */
+    public static int starOf(BigDecimal overallRating) {
+        if (overallRating == null) {
+            return 1;
+        }
+        int star = overallRating.setScale(0, RoundingMode.HALF_UP).intValue();
+        return Math.max(1, Math.min(5, star));
+    }
+}
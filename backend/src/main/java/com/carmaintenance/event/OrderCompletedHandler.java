@@ -0,0 +1,37 @@
+package com.carmaintenance.event;
+
+import com.carmaintenance.entity.OrderEvent;
+import com.carmaintenance.service.UserMemberService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * 订单完成事件处理器：发放订单经验值并检查等级升级
+ * 幂等由经验记录的(订单, 类型)唯一键保证：记录插入失败说明已处理过，见UserMemberService.addExperienceForOrder
+ */
+@Component
+public class OrderCompletedHandler implements OrderEventHandler {
+
+    @Autowired
+    private UserMemberService userMemberService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getEventType() {
+        return OrderEvent.ORDER_COMPLETED;
+    }
+
+    @Override
+    public void handle(OrderEvent event) throws Exception {
+        JsonNode payload = objectMapper.readTree(event.getPayload());
+        Long userId = payload.path("userId").asLong();
+        BigDecimal finalAmount = new BigDecimal(payload.path("finalAmount").asText("0"));
+        userMemberService.addExperienceForOrder(userId, finalAmount, event.getOrderId());
+    }
+}
@@ -0,0 +1,224 @@
+package com.carmaintenance.event;
+
+import com.carmaintenance.entity.OrderEvent;
+import com.carmaintenance.repository.OrderEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订单事件分发器（事务发件箱）
+ * 业务事务中通过publish写入事件行，与业务数据一同提交；
+ * 定时轮询到期的待处理事件，认领后交给有界线程池执行对应的处理器。
+ * 处理器与“标记完成”在同一事务中提交，失败时按指数退避重试，超过上限后标记为失败
+ */
+@Component
+public class OrderEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private List<OrderEventHandler> handlerList;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.event.threads:2}")
+    private int threads;
+
+    @Value("${order.event.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${order.event.max-retries:5}")
+    private int maxRetries;
+
+    @Value("${order.event.retry-base-seconds:10}")
+    private long retryBaseSeconds;
+
+    @Value("${order.event.processing-timeout-seconds:300}")
+    private long processingTimeoutSeconds;
+
+    private final Map<String, OrderEventHandler> handlers = new HashMap<>();
+
+    private TransactionTemplate transactionTemplate;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        for (OrderEventHandler handler : handlerList) {
+            handlers.put(handler.getEventType(), handler);
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "order-event-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 在当前事务中写入事件，事务提交后立即触发一次分发
+     */
+    public void publish(String eventType, Long orderId, Map<String, Object> payload) {
+        OrderEvent event = new OrderEvent();
+        event.setEventType(eventType);
+        event.setOrderId(orderId);
+        event.setPayload(toJson(payload));
+        event.setStatus(OrderEvent.Status.PENDING.getCode());
+        event.setRetryCount(0);
+        event.setNextRetryTime(LocalDateTime.now());
+        orderEventRepository.insert(event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        }
+    }
+
+    /**
+     * 在工作线程中触发一次分发，不占用请求线程；线程池已满时等待下次轮询
+     */
+    private void wakeUp() {
+        try {
+            executor.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            logger.debug("订单事件线程池已满，等待下次轮询");
+        }
+    }
+
+    /**
+     * 定时轮询到期事件，兜底处理提交后触发失败、重试和其它实例写入的事件
+     */
+    @Scheduled(initialDelayString = "${order.event.poll-interval:5000}",
+               fixedDelayString = "${order.event.poll-interval:5000}")
+    public void poll() {
+        orderEventRepository.recoverStuck(LocalDateTime.now().minusSeconds(processingTimeoutSeconds));
+        dispatch();
+    }
+
+    /**
+     * 按线程池剩余容量认领并提交到期事件
+     */
+    public synchronized void dispatch() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity <= 0) {
+            return;
+        }
+        List<OrderEvent> events;
+        try {
+            events = orderEventRepository.findDue(LocalDateTime.now(), capacity);
+        } catch (Exception e) {
+            logger.error("查询待处理订单事件失败", e);
+            return;
+        }
+        for (OrderEvent event : events) {
+            if (orderEventRepository.claim(event.getId()) == 0) {
+                continue;
+            }
+            try {
+                executor.execute(() -> process(event));
+            } catch (RejectedExecutionException e) {
+                orderEventRepository.release(event.getId());
+                return;
+            }
+        }
+    }
+
+    private void process(OrderEvent event) {
+        OrderEventHandler handler = handlers.get(event.getEventType());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("未注册的事件类型: " + event.getEventType());
+            }
+            transactionTemplate.execute(status -> {
+                try {
+                    handler.handle(event);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+                orderEventRepository.markDone(event.getId());
+                return null;
+            });
+            logger.debug("订单事件处理完成: id={}, type={}, orderId={}", event.getId(), event.getEventType(), event.getOrderId());
+        } catch (Exception e) {
+            onFailure(event, e);
+        }
+    }
+
+    private void onFailure(OrderEvent event, Exception e) {
+        int retryCount = event.getRetryCount() != null ? event.getRetryCount() + 1 : 1;
+        boolean exhausted = retryCount >= maxRetries;
+        Integer status = exhausted ? OrderEvent.Status.FAILED.getCode() : OrderEvent.Status.PENDING.getCode();
+        // 指数退避：base, 2*base, 4*base ...
+        long delaySeconds = retryBaseSeconds << Math.min(retryCount - 1, 16);
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        try {
+            orderEventRepository.markRetry(event.getId(), status, LocalDateTime.now().plusSeconds(delaySeconds), error);
+        } catch (Exception ex) {
+            // 状态未能写回时事件停留在处理中，超时后由poll重新置为待处理
+            logger.error("更新订单事件状态失败: id={}", event.getId(), ex);
+        }
+        if (exhausted) {
+            logger.error("订单事件处理失败，已停止重试: id={}, type={}, orderId={}",
+                    event.getId(), event.getEventType(), event.getOrderId(), e);
+        } else {
+            logger.warn("订单事件处理失败，{}秒后重试: id={}, type={}, orderId={}, error={}",
+                    delaySeconds, event.getId(), event.getEventType(), event.getOrderId(), error);
+        }
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("事件内容序列化失败", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.carmaintenance.event;
+
+import com.carmaintenance.entity.OrderEvent;
+
+/**
+ * 订单事件处理器
+ * 事件可能被重复投递（处理超时后重新认领、重试等），实现必须幂等
+ */
+public interface OrderEventHandler {
+
+    /**
+     * 处理的事件类型
+     */
+    String getEventType();
+
+    /**
+     * 处理事件，在事务中调用，抛出异常时事件按退避策略重试
+     */
+    void handle(OrderEvent event) throws Exception;
+}
@@ -1,12 +1,40 @@
 package com.carmaintenance.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.carmaintenance.entity.Announcement;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 公告Mapper
  */
 @Mapper
 public interface AnnouncementMapper extends BaseMapper<Announcement> {
+
+    String SEARCH_MATCH = "MATCH(title, content)";
+
+    /**
+     * 分页搜索公告（全文索引），按相关度、优先级和创建时间排序
+     */
+    @Select("<script>" +
+            "SELECT * FROM announcements WHERE " + SEARCH_MATCH + " AGAINST(#{phrase} IN BOOLEAN MODE) " +
+            "<if test='status != null'> AND status = #{status} </if>" +
+            "<if test='type != null'> AND type = #{type} </if>" +
+            "AND deleted = 0 " +
+            "ORDER BY " + SEARCH_MATCH + " AGAINST(#{keyword}) DESC, priority DESC, create_time DESC" +
+            "</script>")
+    Page<Announcement> searchPage(Page<Announcement> page, @Param("status") Integer status, @Param("type") Integer type,
+                                  @Param("keyword") String keyword, @Param("phrase") String phrase);
+
+    /**
+     * 已发布且未结束的公告，包括尚未开始的，用于构建有效公告快照
+     */
+    @Select("SELECT * FROM announcements WHERE status = 1 AND deleted = 0 " +
+            "AND (end_time IS NULL OR end_time >= #{now})")
+    List<Announcement> findPublishedNotEnded(@Param("now") LocalDateTime now);
 }
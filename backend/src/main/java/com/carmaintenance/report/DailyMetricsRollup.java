@@ -0,0 +1,229 @@
+package com.carmaintenance.report;
+
+import com.carmaintenance.dto.DailyCountAggregate;
+import com.carmaintenance.dto.OrderDailyAggregate;
+import com.carmaintenance.entity.DailyMetrics;
+import com.carmaintenance.entity.Order;
+import com.carmaintenance.entity.User;
+import com.carmaintenance.repository.*;
+import com.carmaintenance.utils.TimeWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * 每日指标汇总
+ * 定时任务按update_time水位线增量刷新daily_metrics，读取时水位线之前的日期走汇总表，
+ * 水位线当天及之后（通常只有今天）实时统计
+ */
+@Component
+public class DailyMetricsRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyMetricsRollup.class);
+
+    private static final String WATERMARK_NAME = "daily_metrics";
+
+    /**
+     * 参与汇总的源表，均包含create_time和update_time
+     */
+    private static final String[] SOURCE_TABLES = {
+            "orders", "users", "shops", "user_members", "reviews", "appointments"
+    };
+
+    /**
+     * 最早统计日期，用于全量统计的起点
+     */
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    @Autowired
+    private DailyMetricsRepository dailyMetricsRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShopRepository shopRepository;
+
+    @Autowired
+    private UserMemberRepository userMemberRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    /**
+     * 水位线相对当前时间的滞后秒数，给尚未提交的事务留出时间
+     */
+    @Value("${metrics.rollup.lag-seconds:60}")
+    private long lagSeconds;
+
+    /**
+     * 增量刷新：只重算水位线之后有变更的数据所属的日期
+     */
+    @Scheduled(initialDelayString = "${metrics.rollup.initial-delay:10000}",
+               fixedDelayString = "${metrics.rollup.interval:300000}")
+    public void refresh() {
+        LocalDateTime since = dailyMetricsRepository.getWatermark(WATERMARK_NAME);
+        if (since == null) {
+            since = EPOCH.atStartOfDay();
+        }
+        LocalDateTime until = LocalDateTime.now().minusSeconds(lagSeconds).truncatedTo(ChronoUnit.SECONDS);
+        if (!until.isAfter(since)) {
+            return;
+        }
+
+        TreeSet<LocalDate> changedDays = new TreeSet<>();
+        for (String table : SOURCE_TABLES) {
+            for (LocalDate day : dailyMetricsRepository.findChangedDays(table, since, until)) {
+                if (day != null) {
+                    changedDays.add(day);
+                }
+            }
+        }
+
+        // 按连续日期分段重算，避免零散的旧数据变更把整段历史都扫一遍
+        LocalDate runStart = null;
+        LocalDate runEnd = null;
+        for (LocalDate day : changedDays) {
+            if (runEnd != null && day.equals(runEnd.plusDays(1))) {
+                runEnd = day;
+                continue;
+            }
+            if (runStart != null) {
+                rebuild(runStart, runEnd);
+            }
+            runStart = day;
+            runEnd = day;
+        }
+        if (runStart != null) {
+            rebuild(runStart, runEnd);
+        }
+
+        dailyMetricsRepository.saveWatermark(WATERMARK_NAME, until);
+        logger.info("每日指标汇总刷新完成: since={}, until={}, days={}", since, until, changedDays.size());
+    }
+
+    /**
+     * 重算[startDate, endDate]内每一天的汇总行
+     */
+    private void rebuild(LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, DailyMetrics> metrics = computeLive(startDate, endDate.plusDays(1));
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            DailyMetrics row = metrics.get(day);
+            dailyMetricsRepository.upsert(row != null ? row : emptyMetrics(day));
+        }
+    }
+
+    /**
+     * 获取[startDate, endDate]（含首尾两天）的每日指标
+     * startDate为空表示从最早一天开始，endDate为空表示到今天为止
+     */
+    public List<DailyMetrics> getDailyMetrics(LocalDate startDate, LocalDate endDate) {
+        LocalDate endExclusive = (endDate != null ? endDate : TimeWindow.currentDate()).plusDays(1);
+
+        LocalDateTime watermark = dailyMetricsRepository.getWatermark(WATERMARK_NAME);
+        LocalDate liveFrom = watermark != null ? watermark.toLocalDate() : EPOCH;
+        if (startDate != null && startDate.isAfter(liveFrom)) {
+            liveFrom = startDate;
+        }
+
+        List<DailyMetrics> result = new ArrayList<>();
+        if (watermark != null && (startDate == null || startDate.isBefore(liveFrom))) {
+            LocalDate rolledEnd = liveFrom.isBefore(endExclusive) ? liveFrom : endExclusive;
+            result.addAll(dailyMetricsRepository.findByDateRange(startDate, rolledEnd));
+        }
+        if (liveFrom.isBefore(endExclusive)) {
+            result.addAll(computeLive(liveFrom, endExclusive).values());
+        }
+        return result;
+    }
+
+    /**
+     * 获取[startDate, endDate]的指标合计
+     */
+    public OrderPeriodSummary summarize(LocalDate startDate, LocalDate endDate) {
+        return new OrderPeriodSummary(getDailyMetrics(startDate, endDate));
+    }
+
+    /**
+     * 直接从源表按日期分组统计，日期范围为[startDate, endExclusive)
+     */
+    private Map<LocalDate, DailyMetrics> computeLive(LocalDate startDate, LocalDate endExclusive) {
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = endExclusive.atStartOfDay();
+        TreeMap<LocalDate, DailyMetrics> metrics = new TreeMap<>();
+
+        for (OrderDailyAggregate row : orderRepository.aggregateByDayAndStatus(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            long count = row.getOrderCount() != null ? row.getOrderCount() : 0L;
+            m.setOrderCount(m.getOrderCount() + count);
+            if (Order.Status.PENDING.getCode().equals(row.getStatus())) {
+                m.setPendingOrders(m.getPendingOrders() + count);
+            } else if (Order.Status.IN_PROGRESS.getCode().equals(row.getStatus())) {
+                m.setInProgressOrders(m.getInProgressOrders() + count);
+            } else if (Order.Status.COMPLETED.getCode().equals(row.getStatus())) {
+                m.setCompletedOrders(m.getCompletedOrders() + count);
+                if (row.getAmount() != null) {
+                    m.setOrderRevenue(m.getOrderRevenue().add(row.getAmount()));
+                }
+            } else if (Order.Status.CANCELLED.getCode().equals(row.getStatus())) {
+                m.setCancelledOrders(m.getCancelledOrders() + count);
+            }
+        }
+
+        for (DailyCountAggregate row : userRepository.countByDayAndType(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            m.setNewUsers(m.getNewUsers() + row.getTotal());
+            if (User.UserType.CUSTOMER.getCode().equals(row.getCategory())) {
+                m.setNewCustomers(m.getNewCustomers() + row.getTotal());
+            } else if (User.UserType.SHOP.getCode().equals(row.getCategory())) {
+                m.setNewShopUsers(m.getNewShopUsers() + row.getTotal());
+            } else if (User.UserType.ADMIN.getCode().equals(row.getCategory())) {
+                m.setNewAdmins(m.getNewAdmins() + row.getTotal());
+            }
+        }
+
+        for (DailyCountAggregate row : shopRepository.countByDay(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            m.setNewShops(m.getNewShops() + row.getTotal());
+        }
+
+        for (DailyCountAggregate row : userMemberRepository.countByDay(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            m.setNewMembers(m.getNewMembers() + row.getTotal());
+        }
+
+        for (DailyCountAggregate row : reviewRepository.countByDay(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            m.setNewReviews(m.getNewReviews() + row.getTotal());
+        }
+
+        for (DailyCountAggregate row : appointmentRepository.countByDay(start, end)) {
+            DailyMetrics m = metrics.computeIfAbsent(row.getDay(), this::emptyMetrics);
+            m.setNewAppointments(m.getNewAppointments() + row.getTotal());
+        }
+
+        return metrics;
+    }
+
+    private DailyMetrics emptyMetrics(LocalDate day) {
+        DailyMetrics metrics = new DailyMetrics();
+        metrics.setMetricDate(day);
+        metrics.setOrderRevenue(BigDecimal.ZERO);
+        return metrics;
+    }
+}
@@ -0,0 +1,119 @@
+package com.carmaintenance.report;
+
+import com.carmaintenance.entity.DailyMetrics;
+import com.carmaintenance.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 时间段指标汇总
+ * 由每日指标行一次性折叠而成，不持有任何订单明细
+ */
+public class OrderPeriodSummary {
+
+    private long totalOrders;
+
+    private long completedOrders;
+
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    private final Map<Integer, Long> countByStatus = new HashMap<>();
+
+    private final Map<LocalDate, Long> countByDay = new HashMap<>();
+
+    private long newUsers;
+
+    private long newCustomers;
+
+    private long newShopUsers;
+
+    private long newAdmins;
+
+    private long newShops;
+
+    private long newMembers;
+
+    private long newReviews;
+
+    private long newAppointments;
+
+    public OrderPeriodSummary(List<DailyMetrics> rows) {
+        for (DailyMetrics row : rows) {
+            totalOrders += row.getOrderCount();
+            completedOrders += row.getCompletedOrders();
+            totalRevenue = totalRevenue.add(row.getOrderRevenue());
+            countByStatus.merge(Order.Status.PENDING.getCode(), row.getPendingOrders(), Long::sum);
+            countByStatus.merge(Order.Status.IN_PROGRESS.getCode(), row.getInProgressOrders(), Long::sum);
+            countByStatus.merge(Order.Status.COMPLETED.getCode(), row.getCompletedOrders(), Long::sum);
+            countByStatus.merge(Order.Status.CANCELLED.getCode(), row.getCancelledOrders(), Long::sum);
+            countByDay.merge(row.getMetricDate(), row.getOrderCount(), Long::sum);
+            newUsers += row.getNewUsers();
+            newCustomers += row.getNewCustomers();
+            newShopUsers += row.getNewShopUsers();
+            newAdmins += row.getNewAdmins();
+            newShops += row.getNewShops();
+            newMembers += row.getNewMembers();
+            newReviews += row.getNewReviews();
+            newAppointments += row.getNewAppointments();
+        }
+    }
+
+    public long getTotalOrders() {
+        return totalOrders;
+    }
+
+    public long getCompletedOrders() {
+        return completedOrders;
+    }
+
+    /**
+     * 已完成订单的实付金额合计
+     */
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public long getCountByStatus(Integer status) {
+        return countByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getCountByDay(LocalDate day) {
+        return countByDay.getOrDefault(day, 0L);
+    }
+
+    public long getNewUsers() {
+        return newUsers;
+    }
+
+    public long getNewCustomers() {
+        return newCustomers;
+    }
+
+    public long getNewShopUsers() {
+        return newShopUsers;
+    }
+
+    public long getNewAdmins() {
+        return newAdmins;
+    }
+
+    public long getNewShops() {
+        return newShops;
+    }
+
+    public long getNewMembers() {
+        return newMembers;
+    }
+
+    public long getNewReviews() {
+        return newReviews;
+    }
+
+    public long getNewAppointments() {
+        return newAppointments;
+    }
+}
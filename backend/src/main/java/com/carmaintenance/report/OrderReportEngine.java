@@ -0,0 +1,47 @@
+package com.carmaintenance.report;
+
+import com.carmaintenance.dto.ShopRevenueVO;
+import com.carmaintenance.repository.OrderRepository;
+import com.carmaintenance.utils.TimeWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 订单报表引擎
+ * 所有统计均在数据库中GROUP BY完成或读取每日汇总表，只把聚合结果取回内存
+ */
+@Component
+public class OrderReportEngine {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private DailyMetricsRollup dailyMetricsRollup;
+
+    /**
+     * 汇总[startDate, endDate]（含首尾两天）内的订单及新增数据，历史日期读取每日汇总表
+     */
+    public OrderPeriodSummary summarize(LocalDate startDate, LocalDate endDate) {
+        return dailyMetricsRollup.summarize(startDate, endDate);
+    }
+
+    /**
+     * 统计[startDate, endDate]内有订单的门店数
+     */
+    public long countActiveShops(LocalDate startDate, LocalDate endDate) {
+        TimeWindow window = TimeWindow.ofDays(startDate, endDate);
+        return orderRepository.countActiveShops(window.getStart(), window.getEnd());
+    }
+
+    /**
+     * 获取[startDate, endDate]内营业额前N名的门店
+     */
+    public List<ShopRevenueVO> topShopsByRevenue(LocalDate startDate, LocalDate endDate, int limit) {
+        TimeWindow window = TimeWindow.ofDays(startDate, endDate);
+        return orderRepository.findTopShopsByRevenue(window.getStart(), window.getEnd(), limit);
+    }
+}
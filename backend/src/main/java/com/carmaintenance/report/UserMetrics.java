@@ -0,0 +1,232 @@
+package com.carmaintenance.report;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.carmaintenance.dto.StatusHistogram;
+import com.carmaintenance.entity.MetricBitmap;
+import com.carmaintenance.entity.Order;
+import com.carmaintenance.entity.User;
+import com.carmaintenance.repository.MetricBitmapRepository;
+import com.carmaintenance.repository.OrderRepository;
+import com.carmaintenance.repository.UserRepository;
+import com.carmaintenance.utils.TimeWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 用户指标
+ * 各类型用户数由一次GROUP BY查询得到；活跃用户（有过订单的用户）以用户ID为下标保存在位图中，
+ * 创建订单后增量置位，计数直接读取，不再对orders做半连接。
+ * 位图定期与metric_bitmaps中的持久化版本合并后写回（多实例各自置位，合并取并集），
+ * 并按订单主键水位线补齐未经本服务创建的订单。活跃用户只增不减，订单删除不回退
+ */
+@Component
+public class UserMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserMetrics.class);
+
+    private static final String ACTIVE_USERS = "active_users";
+
+    private static final int CATCH_UP_BATCH = 5000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MetricBitmapRepository metricBitmapRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 补齐订单时水位线只推进到该秒数之前创建的订单，给尚未提交的事务留出时间
+     */
+    @Value("${user.metrics.lag-seconds:60}")
+    private long lagSeconds;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final BitSet activeUsers = new BitSet();
+
+    private volatile long activeUserCount;
+
+    private volatile boolean loaded;
+
+    /**
+     * 已补齐到的订单ID，受this保护
+     */
+    private long watermark;
+
+    /**
+     * 上次持久化之后是否有新置位，受this保护
+     */
+    private boolean dirty;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 各类型用户数，key为用户类型
+     */
+    public StatusHistogram countByType() {
+        return StatusHistogram.of(userRepository.countGroupByType());
+    }
+
+    /**
+     * 时间窗口内注册的用户数
+     */
+    public long countNewUsers(TimeWindow window) {
+        return userRepository.selectCount(window.applyTo(new QueryWrapper<User>(), "create_time"));
+    }
+
+    /**
+     * 活跃用户数，首次访问时加载位图
+     */
+    public long getActiveUserCount() {
+        ensureLoaded();
+        return activeUserCount;
+    }
+
+    /**
+     * 用户下单后调用，处于事务中时在提交后置位
+     */
+    public void markActive(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    set(userId);
+                }
+            });
+        } else {
+            set(userId);
+        }
+    }
+
+    /**
+     * 定时补齐并持久化位图
+     */
+    @Scheduled(initialDelayString = "${user.metrics.persist-interval:300000}",
+               fixedDelayString = "${user.metrics.persist-interval:300000}")
+    public void persist() {
+        ensureLoaded();
+        catchUp();
+        transactionTemplate.execute(status -> {
+            MetricBitmap stored = metricBitmapRepository.selectForUpdate(ACTIVE_USERS);
+            byte[] bytes;
+            long cardinality;
+            long mergedWatermark;
+            synchronized (this) {
+                boolean changed = merge(stored);
+                if (!changed && !dirty && stored != null) {
+                    return null;
+                }
+                bytes = activeUsers.toByteArray();
+                cardinality = activeUserCount;
+                mergedWatermark = watermark;
+                dirty = false;
+            }
+            metricBitmapRepository.save(ACTIVE_USERS, bytes, cardinality, mergedWatermark);
+            logger.info("活跃用户位图已保存: users={}, bytes={}, watermark={}", cardinality, bytes.length, mergedWatermark);
+            return null;
+        });
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            merge(metricBitmapRepository.selectById(ACTIVE_USERS));
+            loaded = true;
+        }
+        // 首次启动时水位线为0，会按主键分批扫描一遍全部订单
+        catchUp();
+        logger.info("活跃用户位图已加载: users={}", activeUserCount);
+    }
+
+    /**
+     * 按主键分批读取水位线之后的订单并置位
+     */
+    private void catchUp() {
+        LocalDateTime safeBefore = LocalDateTime.now().minusSeconds(lagSeconds);
+        long afterId;
+        synchronized (this) {
+            afterId = watermark;
+        }
+        while (true) {
+            List<Order> orders = orderRepository.findUserIdsAfter(afterId, CATCH_UP_BATCH);
+            long advanceTo = afterId;
+            boolean blocked = false;
+            synchronized (this) {
+                for (Order order : orders) {
+                    set(order.getUserId());
+                    if (!blocked && order.getCreateTime() != null && order.getCreateTime().isBefore(safeBefore)) {
+                        advanceTo = order.getId();
+                    } else {
+                        blocked = true;
+                    }
+                }
+                watermark = Math.max(watermark, advanceTo);
+            }
+            if (orders.size() < CATCH_UP_BATCH || blocked) {
+                return;
+            }
+            afterId = orders.get(orders.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 合并持久化的位图和水位线，返回内存中的位图是否有变化
+     */
+    private synchronized boolean merge(MetricBitmap stored) {
+        if (stored == null) {
+            return false;
+        }
+        long before = activeUserCount;
+        if (stored.getBitmap() != null) {
+            activeUsers.or(BitSet.valueOf(stored.getBitmap()));
+            activeUserCount = activeUsers.cardinality();
+        }
+        if (stored.getWatermark() != null) {
+            watermark = Math.max(watermark, stored.getWatermark());
+        }
+        return activeUserCount != before
+                || stored.getCardinality() == null || stored.getCardinality() != activeUserCount;
+    }
+
+    private synchronized void set(Long userId) {
+        if (userId == null || userId < 0 || userId > Integer.MAX_VALUE) {
+            return;
+        }
+        int index = userId.intValue();
+        if (!activeUsers.get(index)) {
+            activeUsers.set(index);
+            activeUserCount++;
+            dirty = true;
+        }
+    }
+}
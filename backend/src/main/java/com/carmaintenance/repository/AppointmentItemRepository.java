@@ -1,11 +1,13 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.ServiceSummary;
 import com.carmaintenance.entity.AppointmentItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,6 +22,19 @@ public interface AppointmentItemRepository extends BaseMapper<AppointmentItem> {
     @Select("SELECT * FROM appointment_items WHERE appointment_id = #{appointmentId}")
     List<AppointmentItem> findByAppointmentId(@Param("appointmentId") Long appointmentId);
 
+    /**
+     * 批量查询预约的服务项目摘要，没有项目的预约不返回
+     */
+    @Select("<script>" +
+            "SELECT ai.appointment_id, GROUP_CONCAT(DISTINCT si.name SEPARATOR ', ') AS service_items " +
+            "FROM appointment_items ai " +
+            "JOIN service_items si ON ai.item_id = si.id " +
+            "WHERE ai.appointment_id IN " +
+            "<foreach collection='appointmentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY ai.appointment_id" +
+            "</script>")
+    List<ServiceSummary> findServiceSummaries(@Param("appointmentIds") Collection<Long> appointmentIds);
+
     /**
      * 批量插入预约项目
      */
@@ -1,12 +1,17 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.DailyCountAggregate;
+import com.carmaintenance.dto.StatusAggregate;
 import com.carmaintenance.entity.Appointment;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,9 +33,20 @@ public interface AppointmentRepository extends BaseMapper<Appointment> {
     List<Appointment> findByShopId(@Param("shopId") Long shopId);
 
     /**
-     * 查询指定日期的预约
+     * 订单列表中展示预约车辆和时间所需的列
      */
-    @Select("SELECT * FROM appointments WHERE shop_id = #{shopId} AND appointment_date = #{date} AND status IN (1,2) ORDER BY time_slot")
+    String SCHEDULE_COLUMNS = "id, vehicle_id, appointment_date, time_slot";
+
+    /**
+     * 工位占用所需的列
+     */
+    String SLOT_COLUMNS = "id, shop_id, appointment_date, time_slot, bay_number, status";
+
+    /**
+     * 查询指定日期的预约，只返回SLOT_COLUMNS
+     */
+    @Select("SELECT " + SLOT_COLUMNS + " FROM appointments " +
+            "WHERE shop_id = #{shopId} AND appointment_date = #{date} AND status IN (1,2) ORDER BY time_slot")
     List<Appointment> findByShopIdAndDate(@Param("shopId") Long shopId, @Param("date") LocalDate date);
 
     /**
@@ -50,4 +66,48 @@ public interface AppointmentRepository extends BaseMapper<Appointment> {
      */
     @Select("SELECT COUNT(*) FROM appointments WHERE user_id = #{userId} AND status = #{status}")
     int countByUserIdAndStatus(@Param("userId") Long userId, @Param("status") Integer status);
-}
\ No newline at end of file
+
+    /**
+     * 按创建日期统计新增预约数，时间范围为[start, end)
+     */
+    @Select("SELECT DATE(create_time) AS day, COUNT(*) AS total FROM appointments " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time)")
+    List<DailyCountAggregate> countByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 初始化时段容量行，已占用数取当前有效预约数；行已存在时忽略。
+     * capacity只记录建行时的工位数，占用判断以reserveSlot读取的门店当前工位数为准
+     */
+    @Insert("INSERT IGNORE INTO appointment_slot_capacity (shop_id, appointment_date, time_slot, capacity, reserved) " +
+            "SELECT #{shopId}, #{date}, #{timeSlot}, #{capacity}, COUNT(*) FROM appointments " +
+            "WHERE shop_id = #{shopId} AND appointment_date = #{date} AND time_slot = #{timeSlot} AND status IN (1,2)")
+    int initSlotCapacity(@Param("shopId") Long shopId, @Param("date") LocalDate date,
+                         @Param("timeSlot") String timeSlot, @Param("capacity") int capacity);
+
+    /**
+     * 占用一个工位，只有已占用数小于门店当前工位数时才会更新成功（返回1），同时把capacity同步为当前工位数。
+     * 门店未配置工位数时按defaultCapacity计算
+     */
+    @Update("UPDATE appointment_slot_capacity c JOIN shops s ON s.id = c.shop_id " +
+            "SET c.capacity = COALESCE(s.shop_bays, #{defaultCapacity}), c.reserved = c.reserved + 1 " +
+            "WHERE c.shop_id = #{shopId} AND c.appointment_date = #{date} AND c.time_slot = #{timeSlot} " +
+            "AND c.reserved < COALESCE(s.shop_bays, #{defaultCapacity})")
+    int reserveSlot(@Param("shopId") Long shopId, @Param("date") LocalDate date, @Param("timeSlot") String timeSlot,
+                    @Param("defaultCapacity") int defaultCapacity);
+
+    /**
+     * 释放一个工位
+     */
+    @Update("UPDATE appointment_slot_capacity SET reserved = reserved - 1 " +
+            "WHERE shop_id = #{shopId} AND appointment_date = #{date} AND time_slot = #{timeSlot} AND reserved > 0")
+    int releaseSlot(@Param("shopId") Long shopId, @Param("date") LocalDate date, @Param("timeSlot") String timeSlot);
+
+    /**
+     * 门店预约按状态聚合：预约数，以及预约日期为date的预约数
+     */
+    @Select("SELECT status, COUNT(*) AS total, " +
+            "SUM(CASE WHEN appointment_date = #{date} THEN 1 ELSE 0 END) AS recent_total " +
+            "FROM appointments WHERE shop_id = #{shopId} GROUP BY status")
+    List<StatusAggregate> aggregateStatusByShop(@Param("shopId") Long shopId, @Param("date") LocalDate date);
+}
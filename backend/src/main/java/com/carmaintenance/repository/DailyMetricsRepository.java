@@ -0,0 +1,69 @@
+package com.carmaintenance.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.entity.DailyMetrics;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日指标汇总Repository接口
+ */
+@Mapper
+public interface DailyMetricsRepository extends BaseMapper<DailyMetrics> {
+
+    /**
+     * 查询日期范围内的汇总行，日期范围为[start, end)，start为空时从最早一天开始
+     */
+    @Select("<script>" +
+            "SELECT * FROM daily_metrics WHERE metric_date &lt; #{end} " +
+            "<if test='start != null'> AND metric_date &gt;= #{start} </if>" +
+            "ORDER BY metric_date" +
+            "</script>")
+    List<DailyMetrics> findByDateRange(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    /**
+     * 写入或覆盖某一天的汇总行
+     */
+    @Insert("INSERT INTO daily_metrics (metric_date, order_count, pending_orders, in_progress_orders, " +
+            "completed_orders, cancelled_orders, order_revenue, new_users, new_customers, new_shop_users, " +
+            "new_admins, new_shops, new_members, new_reviews, new_appointments, update_time) " +
+            "VALUES (#{metricDate}, #{orderCount}, #{pendingOrders}, #{inProgressOrders}, " +
+            "#{completedOrders}, #{cancelledOrders}, #{orderRevenue}, #{newUsers}, #{newCustomers}, #{newShopUsers}, " +
+            "#{newAdmins}, #{newShops}, #{newMembers}, #{newReviews}, #{newAppointments}, NOW()) " +
+            "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), pending_orders = VALUES(pending_orders), " +
+            "in_progress_orders = VALUES(in_progress_orders), completed_orders = VALUES(completed_orders), " +
+            "cancelled_orders = VALUES(cancelled_orders), order_revenue = VALUES(order_revenue), " +
+            "new_users = VALUES(new_users), new_customers = VALUES(new_customers), " +
+            "new_shop_users = VALUES(new_shop_users), new_admins = VALUES(new_admins), " +
+            "new_shops = VALUES(new_shops), new_members = VALUES(new_members), " +
+            "new_reviews = VALUES(new_reviews), new_appointments = VALUES(new_appointments), update_time = NOW()")
+    int upsert(DailyMetrics metrics);
+
+    /**
+     * 查询(since, until]之间有变更的数据所属的创建日期
+     * table只接受代码中固定的表名
+     */
+    @Select("SELECT DISTINCT DATE(create_time) FROM ${table} WHERE update_time > #{since} AND update_time <= #{until}")
+    List<LocalDate> findChangedDays(@Param("table") String table,
+                                    @Param("since") LocalDateTime since,
+                                    @Param("until") LocalDateTime until);
+
+    /**
+     * 获取汇总任务水位线
+     */
+    @Select("SELECT watermark FROM metric_watermarks WHERE name = #{name}")
+    LocalDateTime getWatermark(@Param("name") String name);
+
+    /**
+     * 保存汇总任务水位线
+     */
+    @Insert("INSERT INTO metric_watermarks (name, watermark) VALUES (#{name}, #{watermark}) " +
+            "ON DUPLICATE KEY UPDATE watermark = VALUES(watermark)")
+    int saveWatermark(@Param("name") String name, @Param("watermark") LocalDateTime watermark);
+}
@@ -2,6 +2,7 @@ package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.carmaintenance.entity.ExperienceRecord;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -31,4 +32,11 @@ public interface ExperienceRecordRepository extends BaseMapper<ExperienceRecord>
      */
     @Select("SELECT COALESCE(SUM(experience_change), 0) FROM experience_records WHERE user_id = #{userId}")
     Integer getTotalExperience(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 插入订单经验记录，同一订单同一类型的记录已存在时忽略（唯一键uk_order_type），返回0表示已发放过
+     */
+    @Insert("INSERT IGNORE INTO experience_records (user_id, order_id, experience_change, experience_type, reason) " +
+            "VALUES (#{userId}, #{orderId}, #{experienceChange}, #{experienceType}, #{reason})")
+    int insertIfAbsent(ExperienceRecord record);
+}
@@ -0,0 +1,31 @@
+package com.carmaintenance.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.entity.MetricBitmap;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 指标位图Repository接口
+ */
+@Mapper
+public interface MetricBitmapRepository extends BaseMapper<MetricBitmap> {
+
+    /**
+     * 加锁读取位图，用于多实例合并写入
+     */
+    @Select("SELECT * FROM metric_bitmaps WHERE name = #{name} FOR UPDATE")
+    MetricBitmap selectForUpdate(@Param("name") String name);
+
+    /**
+     * 保存位图
+     */
+    @Insert("INSERT INTO metric_bitmaps (name, bitmap, cardinality, watermark) " +
+            "VALUES (#{name}, #{bitmap}, #{cardinality}, #{watermark}) " +
+            "ON DUPLICATE KEY UPDATE bitmap = VALUES(bitmap), cardinality = VALUES(cardinality), " +
+            "watermark = VALUES(watermark)")
+    int save(@Param("name") String name, @Param("bitmap") byte[] bitmap,
+             @Param("cardinality") long cardinality, @Param("watermark") long watermark);
+}
@@ -0,0 +1,56 @@
+package com.carmaintenance.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.entity.OrderEvent;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 订单事件Repository接口
+ */
+@Mapper
+public interface OrderEventRepository extends BaseMapper<OrderEvent> {
+
+    /**
+     * 查询到期待处理的事件
+     */
+    @Select("SELECT * FROM order_events WHERE status = 0 AND next_retry_time <= #{now} ORDER BY id LIMIT #{limit}")
+    List<OrderEvent> findDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 认领事件，只有仍处于待处理状态时才会成功（返回1），多个实例同时轮询时不会重复处理
+     */
+    @Update("UPDATE order_events SET status = 1, update_time = NOW() WHERE id = #{id} AND status = 0")
+    int claim(@Param("id") Long id);
+
+    /**
+     * 标记事件处理完成
+     */
+    @Update("UPDATE order_events SET status = 2, last_error = NULL, update_time = NOW() WHERE id = #{id}")
+    int markDone(@Param("id") Long id);
+
+    /**
+     * 处理失败后重新排队或标记为失败
+     */
+    @Update("UPDATE order_events SET status = #{status}, retry_count = retry_count + 1, " +
+            "next_retry_time = #{nextRetryTime}, last_error = #{error}, update_time = NOW() WHERE id = #{id}")
+    int markRetry(@Param("id") Long id, @Param("status") Integer status,
+                  @Param("nextRetryTime") LocalDateTime nextRetryTime, @Param("error") String error);
+
+    /**
+     * 释放认领但未提交到线程池的事件
+     */
+    @Update("UPDATE order_events SET status = 0, update_time = NOW() WHERE id = #{id} AND status = 1")
+    int release(@Param("id") Long id);
+
+    /**
+     * 处理中超时的事件（实例宕机等原因）重新置为待处理
+     */
+    @Update("UPDATE order_events SET status = 0, update_time = NOW() WHERE status = 1 AND update_time < #{before}")
+    int recoverStuck(@Param("before") LocalDateTime before);
+}
@@ -1,12 +1,20 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import com.carmaintenance.dto.OrderVO;
+import com.carmaintenance.dto.FinancialDailyAggregate;
+import com.carmaintenance.dto.OrderDailyAggregate;
+import com.carmaintenance.dto.ShopRevenueVO;
+import com.carmaintenance.dto.StatusAggregate;
 import com.carmaintenance.entity.Order;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -15,6 +23,11 @@ import java.util.List;
 @Mapper
 public interface OrderRepository extends BaseMapper<Order> {
 
+    /**
+     * 列表中展示订单号所需的列
+     */
+    String NO_COLUMNS = "id, order_no";
+
     /**
      * 根据用户ID查询订单
      */
@@ -52,60 +65,93 @@ public interface OrderRepository extends BaseMapper<Order> {
     int countByShopIdAndStatus(@Param("shopId") Long shopId, @Param("status") Integer status);
 
     /**
-     * 获取用户订单列表（包含关联信息）
+     * 按日期和状态聚合订单数与实付金额，时间范围为[start, end)
      */
-    @Select("<script>" +
-            "SELECT " +
-            "o.id, o.order_no, o.appointment_id, o.user_id, o.shop_id, " +
-            "o.total_amount, o.discount_amount, o.final_amount, " +
-            "o.payment_method, o.payment_status, " +
-            "o.technician_id, o.start_time, o.end_time, o.status, " +
-            "o.create_time, o.update_time, " +
-            "s.shop_name, s.address as shopAddress, s.phone as shopPhone, " +
-            "a.appointment_date as appointmentDate, a.time_slot as appointmentTime, a.vehicle_id, " +
-            "v.brand as vehicleBrand, v.model as vehicleModel, v.license_plate as licensePlate, " +
-            "GROUP_CONCAT(DISTINCT si.name SEPARATOR ', ') as serviceItems, " +
-            "u.real_name as technicianName " +
+    @Select("SELECT DATE(create_time) AS day, status, COUNT(*) AS order_count, " +
+            "COALESCE(SUM(final_amount), 0) AS amount " +
+            "FROM orders " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time), status")
+    List<OrderDailyAggregate> aggregateByDayAndStatus(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    /**
+     * 统计时间范围内有订单的门店数，时间范围为[start, end)
+     */
+    @Select("SELECT COUNT(DISTINCT shop_id) FROM orders WHERE create_time >= #{start} AND create_time < #{end}")
+    long countActiveShops(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 按已完成订单营业额排名的门店，时间范围为[start, end)
+     */
+    @Select("SELECT o.shop_id, s.shop_name, SUM(o.final_amount) AS revenue " +
             "FROM orders o " +
             "LEFT JOIN shops s ON o.shop_id = s.id " +
-            "LEFT JOIN appointments a ON o.appointment_id = a.id " +
-            "LEFT JOIN vehicles v ON a.vehicle_id = v.id " +
-            "LEFT JOIN appointment_items ai ON a.id = ai.appointment_id " +
-            "LEFT JOIN service_items si ON ai.item_id = si.id " +
-            "LEFT JOIN users u ON o.technician_id = u.id " +
-            "WHERE o.user_id = #{userId} " +
-            "<if test='status != null'> AND o.status = #{status} </if>" +
-            "GROUP BY o.id " +
-            "ORDER BY o.create_time DESC" +
+            "WHERE o.status = 3 AND o.create_time >= #{start} AND o.create_time < #{end} " +
+            "GROUP BY o.shop_id, s.shop_name " +
+            "ORDER BY revenue DESC " +
+            "LIMIT #{limit}")
+    List<ShopRevenueVO> findTopShopsByRevenue(@Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("limit") int limit);
+
+    /**
+     * 流式读取导出用订单数据，结果集逐行回调，不在内存中堆积
+     * 时间范围为[start, end)，为空表示不限
+     */
+    @Select("<script>" +
+            "SELECT id, order_no, user_id, shop_id, total_amount, discount_amount, final_amount, " +
+            "payment_method, payment_status, status, create_time " +
+            "FROM orders " +
+            "<where>" +
+            "<if test='start != null'> create_time &gt;= #{start} </if>" +
+            "<if test='end != null'> AND create_time &lt; #{end} </if>" +
+            "</where>" +
+            "ORDER BY id" +
             "</script>")
-    List<OrderVO> findUserOrdersWithDetails(@Param("userId") Long userId, @Param("status") Integer status);
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(Order.class)
+    void streamForExport(@Param("start") LocalDateTime start,
+                         @Param("end") LocalDateTime end,
+                         ResultHandler<Order> handler);
 
     /**
-     * 获取门店订单列表（包含关联信息）
+     * 按日期统计已支付订单的订单数、营业额和收款金额
+     * 时间范围为[start, end)，为空表示不限
      */
     @Select("<script>" +
-            "SELECT " +
-            "o.id, o.order_no, o.appointment_id, o.user_id, o.shop_id, " +
-            "o.total_amount, o.discount_amount, o.final_amount, " +
-            "o.payment_method, o.payment_status, " +
-            "o.technician_id, o.start_time, o.end_time, o.status, " +
-            "o.create_time, o.update_time, " +
-            "s.shop_name, s.address as shopAddress, s.phone as shopPhone, " +
-            "a.appointment_date as appointmentDate, a.time_slot as appointmentTime, a.vehicle_id, " +
-            "v.brand as vehicleBrand, v.model as vehicleModel, v.license_plate as licensePlate, " +
-            "GROUP_CONCAT(DISTINCT si.name SEPARATOR ', ') as serviceItems, " +
-            "u.real_name as technicianName " +
-            "FROM orders o " +
-            "LEFT JOIN shops s ON o.shop_id = s.id " +
-            "LEFT JOIN appointments a ON o.appointment_id = a.id " +
-            "LEFT JOIN vehicles v ON a.vehicle_id = v.id " +
-            "LEFT JOIN appointment_items ai ON a.id = ai.appointment_id " +
-            "LEFT JOIN service_items si ON ai.item_id = si.id " +
-            "LEFT JOIN users u ON o.technician_id = u.id " +
-            "WHERE o.shop_id = #{shopId} " +
-            "<if test='status != null'> AND o.status = #{status} </if>" +
-            "GROUP BY o.id " +
-            "ORDER BY o.create_time DESC" +
+            "SELECT DATE(create_time) AS day, COUNT(*) AS order_count, " +
+            "COALESCE(SUM(CASE WHEN status = 3 THEN final_amount ELSE 0 END), 0) AS revenue, " +
+            "COALESCE(SUM(final_amount), 0) AS paid_amount " +
+            "FROM orders " +
+            "WHERE payment_status = 1 " +
+            "<if test='start != null'> AND create_time &gt;= #{start} </if>" +
+            "<if test='end != null'> AND create_time &lt; #{end} </if>" +
+            "GROUP BY DATE(create_time) " +
+            "ORDER BY day" +
             "</script>")
-    List<OrderVO> findShopOrdersWithDetails(@Param("shopId") Long shopId, @Param("status") Integer status);
-}
\ No newline at end of file
+    List<FinancialDailyAggregate> aggregatePaidByDay(@Param("start") LocalDateTime start,
+                                                     @Param("end") LocalDateTime end);
+
+    /**
+     * 全部订单按状态聚合：订单数、实付金额
+     */
+    @Select("SELECT status, COUNT(*) AS total, COALESCE(SUM(final_amount), 0) AS amount " +
+            "FROM orders GROUP BY status")
+    List<StatusAggregate> aggregateByStatus();
+
+    /**
+     * 门店订单按状态聚合：订单数、实付金额，以及since之后创建的订单数和实付金额
+     */
+    @Select("SELECT status, COUNT(*) AS total, COALESCE(SUM(final_amount), 0) AS amount, " +
+            "SUM(CASE WHEN create_time >= #{since} THEN 1 ELSE 0 END) AS recent_total, " +
+            "COALESCE(SUM(CASE WHEN create_time >= #{since} THEN final_amount END), 0) AS recent_amount " +
+            "FROM orders WHERE shop_id = #{shopId} GROUP BY status")
+    List<StatusAggregate> aggregateStatusByShop(@Param("shopId") Long shopId, @Param("since") LocalDateTime since);
+
+    /**
+     * 按主键顺序读取afterId之后的订单用户，只取id、user_id和create_time
+     */
+    @Select("SELECT id, user_id, create_time FROM orders WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<Order> findUserIdsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
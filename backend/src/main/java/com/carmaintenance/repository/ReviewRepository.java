@@ -1,11 +1,13 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.DailyCountAggregate;
 import com.carmaintenance.entity.Review;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -55,4 +57,12 @@ public interface ReviewRepository extends BaseMapper<Review> {
      */
     @Select("SELECT COUNT(*) FROM reviews WHERE user_id = #{userId} AND order_id = #{orderId} AND deleted = 0")
     int checkUserReviewed(@Param("userId") Long userId, @Param("orderId") Long orderId);
+
+    /**
+     * 按创建日期统计新增的显示状态评价数，时间范围为[start, end)
+     */
+    @Select("SELECT DATE(create_time) AS day, COUNT(*) AS total FROM reviews " +
+            "WHERE status = 1 AND deleted = 0 AND create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time)")
+    List<DailyCountAggregate> countByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
@@ -1,6 +1,8 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.CategoryCount;
+import com.carmaintenance.dto.StatusAggregate;
 import com.carmaintenance.entity.ServiceItem;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -14,6 +16,11 @@ import java.util.List;
 @Mapper
 public interface ServiceItemRepository extends BaseMapper<ServiceItem> {
 
+    /**
+     * 校验归属门店所需的列
+     */
+    String OWNER_COLUMNS = "id, shop_id";
+
     /**
      * 根据门店ID查询服务项目
      */
@@ -25,4 +32,18 @@ public interface ServiceItemRepository extends BaseMapper<ServiceItem> {
      */
     @Select("SELECT * FROM service_items WHERE shop_id = #{shopId} AND category = #{category} AND status = 1 ORDER BY price")
     List<ServiceItem> findByShopIdAndCategory(@Param("shopId") Long shopId, @Param("category") String category);
-}
\ No newline at end of file
+
+    /**
+     * 门店服务项目按状态聚合：项目数及价格合计、最低价、最高价
+     */
+    @Select("SELECT status, COUNT(*) AS total, SUM(price) AS amount, MIN(price) AS min_amount, MAX(price) AS max_amount " +
+            "FROM service_items WHERE shop_id = #{shopId} GROUP BY status")
+    List<StatusAggregate> aggregateStatusByShop(@Param("shopId") Long shopId);
+
+    /**
+     * 门店上架服务项目按分类计数
+     */
+    @Select("SELECT category, COUNT(*) AS total FROM service_items " +
+            "WHERE shop_id = #{shopId} AND status = 1 GROUP BY category")
+    List<CategoryCount> countActiveByCategory(@Param("shopId") Long shopId);
+}
@@ -1,6 +1,7 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.StatusAggregate;
 import com.carmaintenance.entity.ServicePackage;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -14,6 +15,11 @@ import java.util.List;
 @Mapper
 public interface ServicePackageRepository extends BaseMapper<ServicePackage> {
 
+    /**
+     * 校验归属门店所需的列
+     */
+    String OWNER_COLUMNS = "id, shop_id";
+
     /**
      * 根据门店ID查询套餐
      */
@@ -29,4 +35,12 @@ public interface ServicePackageRepository extends BaseMapper<ServicePackage> {
             "WHERE sp.shop_id = #{shopId} AND sp.status = 1 " +
             "GROUP BY sp.id ORDER BY COUNT(o.id) DESC LIMIT 5")
     List<ServicePackage> findPopularPackages(@Param("shopId") Long shopId);
-}
\ No newline at end of file
+
+    /**
+     * 门店服务套餐按状态聚合：套餐数及套餐价合计、最低价、最高价
+     */
+    @Select("SELECT status, COUNT(*) AS total, SUM(package_price) AS amount, " +
+            "MIN(package_price) AS min_amount, MAX(package_price) AS max_amount " +
+            "FROM service_packages WHERE shop_id = #{shopId} GROUP BY status")
+    List<StatusAggregate> aggregateStatusByShop(@Param("shopId") Long shopId);
+}
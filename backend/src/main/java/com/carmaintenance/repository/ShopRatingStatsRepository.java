@@ -0,0 +1,54 @@
+package com.carmaintenance.repository;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.entity.ShopRatingStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.math.BigDecimal;
+
+/**
+ * 门店评分统计Repository接口
+ */
+@Mapper
+public interface ShopRatingStatsRepository extends BaseMapper<ShopRatingStats> {
+
+    String AGGREGATE_REVIEWS = "SELECT #{shopId}, COALESCE(SUM(overall_rating), 0), COUNT(*), " +
+            "COALESCE(SUM(GREATEST(1, LEAST(5, ROUND(overall_rating))) = 1), 0), " +
+            "COALESCE(SUM(GREATEST(1, LEAST(5, ROUND(overall_rating))) = 2), 0), " +
+            "COALESCE(SUM(GREATEST(1, LEAST(5, ROUND(overall_rating))) = 3), 0), " +
+            "COALESCE(SUM(GREATEST(1, LEAST(5, ROUND(overall_rating))) = 4), 0), " +
+            "COALESCE(SUM(GREATEST(1, LEAST(5, ROUND(overall_rating))) = 5), 0) " +
+            "FROM reviews WHERE shop_id = #{shopId} AND status = 1 AND deleted = 0";
+
+    /**
+     * 按增量更新统计，星级对应的计数加countDelta，评分和加ratingDelta。
+     * 返回0表示门店统计行尚不存在
+     */
+    @Update("UPDATE shop_rating_stats SET rating_sum = rating_sum + #{ratingDelta}, " +
+            "rating_count = rating_count + #{countDelta}, " +
+            "star_1 = star_1 + IF(#{star} = 1, #{countDelta}, 0), " +
+            "star_2 = star_2 + IF(#{star} = 2, #{countDelta}, 0), " +
+            "star_3 = star_3 + IF(#{star} = 3, #{countDelta}, 0), " +
+            "star_4 = star_4 + IF(#{star} = 4, #{countDelta}, 0), " +
+            "star_5 = star_5 + IF(#{star} = 5, #{countDelta}, 0) " +
+            "WHERE shop_id = #{shopId}")
+    int applyDelta(@Param("shopId") Long shopId, @Param("star") int star,
+                   @Param("countDelta") int countDelta, @Param("ratingDelta") BigDecimal ratingDelta);
+
+    /**
+     * 统计行不存在时按评价表汇总初始化，已存在时不做处理
+     */
+    @Insert("INSERT IGNORE INTO shop_rating_stats " +
+            "(shop_id, rating_sum, rating_count, star_1, star_2, star_3, star_4, star_5) " + AGGREGATE_REVIEWS)
+    int initFromReviews(@Param("shopId") Long shopId);
+
+    /**
+     * 按评价表重新汇总并覆盖统计行，用于修正偏差
+     */
+    @Insert("REPLACE INTO shop_rating_stats " +
+            "(shop_id, rating_sum, rating_count, star_1, star_2, star_3, star_4, star_5) " + AGGREGATE_REVIEWS)
+    int rebuildFromReviews(@Param("shopId") Long shopId);
+}
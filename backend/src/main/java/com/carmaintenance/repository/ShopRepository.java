@@ -1,11 +1,16 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.CategoryCount;
+import com.carmaintenance.dto.DailyCountAggregate;
+import com.carmaintenance.dto.ShopLocation;
 import com.carmaintenance.entity.Shop;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -14,22 +19,70 @@ import java.util.List;
 @Mapper
 public interface ShopRepository extends BaseMapper<Shop> {
 
+    /**
+     * 列表中展示门店名称所需的列，不含description、images等大字段
+     */
+    String NAME_COLUMNS = "id, shop_name";
+
+    /**
+     * 订单列表中展示门店所需的列
+     */
+    String CONTACT_COLUMNS = "id, shop_name, address, phone";
+
     /**
      * 根据城市查询门店
      */
     @Select("SELECT * FROM shops WHERE city = #{city} AND status = 1 ORDER BY create_time DESC")
     List<Shop> findByCity(@Param("city") String city);
 
+    String SEARCH_MATCH = "MATCH(shop_name, address, description)";
+
+    /**
+     * 搜索正常状态的门店（全文索引），按相关度排序
+     */
+    @Select("SELECT * FROM shops WHERE " + SEARCH_MATCH + " AGAINST(#{phrase} IN BOOLEAN MODE) " +
+            "AND status = 1 AND deleted = 0 " +
+            "ORDER BY " + SEARCH_MATCH + " AGAINST(#{keyword}) DESC, create_time DESC")
+    List<Shop> searchShops(@Param("keyword") String keyword, @Param("phrase") String phrase);
+
     /**
-     * 搜索门店
+     * 分页搜索门店（全文索引），按相关度排序，status为空时不限状态
      */
-    @Select("SELECT * FROM shops WHERE (shop_name LIKE CONCAT('%', #{keyword}, '%') " +
-            "OR address LIKE CONCAT('%', #{keyword}, '%')) AND status = 1 ORDER BY create_time DESC")
-    List<Shop> searchShops(@Param("keyword") String keyword);
+    @Select("<script>" +
+            "SELECT * FROM shops WHERE " + SEARCH_MATCH + " AGAINST(#{phrase} IN BOOLEAN MODE) " +
+            "<if test='status != null'> AND status = #{status} </if>" +
+            "<if test='city != null'> AND city = #{city} </if>" +
+            "AND deleted = 0 " +
+            "ORDER BY " + SEARCH_MATCH + " AGAINST(#{keyword}) DESC, create_time DESC" +
+            "</script>")
+    Page<Shop> searchShopPage(Page<Shop> page, @Param("status") Integer status, @Param("city") String city,
+                              @Param("keyword") String keyword, @Param("phrase") String phrase);
 
     /**
      * 根据用户ID查询门店
      */
     @Select("SELECT * FROM shops WHERE user_id = #{userId}")
     Shop findByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 按创建日期统计新增门店数，时间范围为[start, end)
+     */
+    @Select("SELECT DATE(create_time) AS day, COUNT(*) AS total FROM shops " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time)")
+    List<DailyCountAggregate> countByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 正常状态门店按城市计数
+     */
+    @Select("SELECT city AS category, COUNT(*) AS total FROM shops WHERE status = 1 GROUP BY city")
+    List<CategoryCount> countActiveByCity();
+
+    /**
+     * 全部有坐标的门店及其评分统计，用于构建附近门店索引
+     */
+    @Select("SELECT s.id AS shop_id, s.latitude, s.longitude, s.status, r.rating_sum, r.rating_count " +
+            "FROM shops s LEFT JOIN shop_rating_stats r ON r.shop_id = s.id " +
+            "WHERE s.deleted = 0 AND s.latitude IS NOT NULL AND s.longitude IS NOT NULL")
+    List<ShopLocation> findAllLocations();
+}
@@ -1,10 +1,16 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.DailyCountAggregate;
 import com.carmaintenance.entity.UserMember;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户会员Repository接口
@@ -26,4 +32,47 @@ public interface UserMemberRepository extends BaseMapper<UserMember> {
      */
     @Select("SELECT COUNT(*) FROM user_members WHERE user_id = #{userId}")
     int countByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+
+    /**
+     * 创建初始会员信息，依赖user_id唯一键，已存在时忽略，返回插入行数
+     */
+    @Insert("INSERT IGNORE INTO user_members (user_id, level_id, total_experience, available_experience) " +
+            "VALUES (#{userId}, #{levelId}, 0, 0)")
+    int insertIfAbsent(@Param("userId") Long userId, @Param("levelId") Integer levelId);
+
+    /**
+     * 按创建日期统计新增会员数，时间范围为[start, end)
+     */
+    @Select("SELECT DATE(create_time) AS day, COUNT(*) AS total FROM user_members " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time)")
+    List<DailyCountAggregate> countByDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 原子增加经验值，总经验值和可用经验值同时变化，返回更新行数
+     */
+    @Update("UPDATE user_members SET total_experience = total_experience + #{experience}, " +
+            "available_experience = available_experience + #{experience}, update_time = NOW() " +
+            "WHERE user_id = #{userId}")
+    int incrementExperience(@Param("userId") Long userId, @Param("experience") int experience);
+
+    /**
+     * 原子扣减可用经验值，可用经验值不足时不更新，返回更新行数
+     */
+    @Update("UPDATE user_members SET available_experience = available_experience - #{experience}, update_time = NOW() " +
+            "WHERE user_id = #{userId} AND available_experience >= #{experience}")
+    int deductAvailableExperience(@Param("userId") Long userId, @Param("experience") int experience);
+
+    /**
+     * 查询经验值和等级，在同一事务中更新之后调用时读到的是本事务写入的最新值
+     */
+    @Select("SELECT id, user_id, level_id, total_experience, available_experience FROM user_members WHERE user_id = #{userId}")
+    UserMember selectExperience(@Param("userId") Long userId);
+
+    /**
+     * 更新会员等级，等级未变化时不写入
+     */
+    @Update("UPDATE user_members SET level_id = #{levelId}, update_time = NOW() " +
+            "WHERE user_id = #{userId} AND level_id <> #{levelId}")
+    int updateLevel(@Param("userId") Long userId, @Param("levelId") Integer levelId);
+}
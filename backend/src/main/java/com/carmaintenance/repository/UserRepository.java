@@ -1,12 +1,73 @@
 package com.carmaintenance.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.DailyCountAggregate;
+import com.carmaintenance.dto.StatusAggregate;
 import com.carmaintenance.entity.User;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 用户Repository接口
  */
 @Mapper
 public interface UserRepository extends BaseMapper<User> {
-}
\ No newline at end of file
+
+    /**
+     * 列表中展示用户名所需的列
+     */
+    String NAME_COLUMNS = "id, username, real_name";
+
+    /**
+     * 按创建日期和用户类型统计新增用户数，时间范围为[start, end)
+     */
+    @Select("SELECT DATE(create_time) AS day, user_type AS category, COUNT(*) AS total FROM users " +
+            "WHERE create_time >= #{start} AND create_time < #{end} " +
+            "GROUP BY DATE(create_time), user_type")
+    List<DailyCountAggregate> countByDayAndType(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 流式读取导出用用户数据（不含密码），结果集逐行回调，不在内存中堆积
+     */
+    @Select("<script>" +
+            "SELECT id, username, real_name, email, phone, user_type, status, create_time " +
+            "FROM users " +
+            "<where>" +
+            "<if test='userType != null'> user_type = #{userType} </if>" +
+            "</where>" +
+            "ORDER BY id" +
+            "</script>")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(User.class)
+    void streamForExport(@Param("userType") Integer userType, ResultHandler<User> handler);
+
+    String SEARCH_MATCH = "MATCH(username, real_name, email, phone)";
+
+    /**
+     * 分页搜索用户（全文索引），按相关度排序
+     */
+    @Select("<script>" +
+            "SELECT * FROM users WHERE " + SEARCH_MATCH + " AGAINST(#{phrase} IN BOOLEAN MODE) " +
+            "<if test='userType != null'> AND user_type = #{userType} </if>" +
+            "<if test='status != null'> AND status = #{status} </if>" +
+            "AND deleted = 0 " +
+            "ORDER BY " + SEARCH_MATCH + " AGAINST(#{keyword}) DESC, create_time DESC" +
+            "</script>")
+    Page<User> searchUserPage(Page<User> page, @Param("userType") Integer userType, @Param("status") String status,
+                              @Param("keyword") String keyword, @Param("phrase") String phrase);
+
+    /**
+     * 按用户类型统计用户数，类型记在status列，配合StatusHistogram使用
+     */
+    @Select("SELECT user_type AS status, COUNT(*) AS total FROM users GROUP BY user_type")
+    List<StatusAggregate> countGroupByType();
+}
@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,12 +15,26 @@ import java.util.List;
 @Mapper
 public interface VehicleRepository extends BaseMapper<Vehicle> {
 
+    /**
+     * 订单列表中展示车辆所需的列
+     */
+    String PLATE_COLUMNS = "id, brand, model, license_plate";
+
     /**
      * 根据用户查询车辆列表
      */
     @Select("SELECT * FROM vehicles WHERE user_id = #{userId} ORDER BY id DESC")
     List<Vehicle> findByUserId(@Param("userId") Long userId);
 
+    /**
+     * 按ID批量查询车辆的PLATE_COLUMNS，包含已删除的车辆，用于展示历史订单
+     */
+    @Select("<script>" +
+            "SELECT " + PLATE_COLUMNS + " FROM vehicles WHERE id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<Vehicle> findPlatesByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * 检查车牌是否已存在
      */
@@ -32,10 +32,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && !jwtUtils.isTokenExpired(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                Long userId = jwtUtils.getUserIdFromToken(jwt);
-                Integer userType = jwtUtils.getUserTypeFromToken(jwt);
+            JwtUtils.VerifiedClaims claims = StringUtils.hasText(jwt) ? jwtUtils.parseVerified(jwt) : null;
+
+            if (claims != null && !claims.isExpired()) {
+                String username = claims.getUsername();
+                Long userId = claims.getUserId();
+                Integer userType = claims.getUserType();
 
                 // 根据用户类型设置角色
                 String role = getRoleByUserType(userType);
@@ -1,9 +1,11 @@
 package com.carmaintenance.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.entity.Order;
 import com.carmaintenance.entity.Shop;
 import com.carmaintenance.entity.User;
+import com.carmaintenance.utils.StreamingExcelWriter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -72,6 +74,12 @@ public interface AdminService {
      */
     Page<Order> getOrderList(Page<Order> page, Long userId, Long shopId, Integer status, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * 获取订单列表（游标分页）
+     */
+    CursorPage<Order> getOrderListByCursor(String cursor, Integer size, Long userId, Long shopId, Integer status,
+                                           LocalDate startDate, LocalDate endDate);
+
     /**
      * 获取订单统计信息
      */
@@ -99,21 +107,26 @@ public interface AdminService {
      */
     Map<String, Object> getSystemStats();
 
+    /**
+     * 获取参考数据缓存的命中统计
+     */
+    Map<String, Map<String, Object>> getCacheStats();
+
     // 数据导出
     /**
-     * 导出用户数据
+     * 导出用户数据，逐行写入流式Excel
      */
-    List<Map<String, Object>> exportUsers(Integer userType);
+    void exportUsers(Integer userType, StreamingExcelWriter writer);
 
     /**
-     * 导出订单数据
+     * 导出订单数据，逐行写入流式Excel
      */
-    List<Map<String, Object>> exportOrders(LocalDate startDate, LocalDate endDate);
+    void exportOrders(LocalDate startDate, LocalDate endDate, StreamingExcelWriter writer);
 
     /**
-     * 导出财务数据
+     * 导出财务数据，逐行写入流式Excel
      */
-    List<Map<String, Object>> exportFinancialData(LocalDate startDate, LocalDate endDate);
+    void exportFinancialData(LocalDate startDate, LocalDate endDate, StreamingExcelWriter writer);
 
     // 数据统计报表
     /**
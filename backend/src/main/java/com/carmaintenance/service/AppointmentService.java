@@ -3,6 +3,7 @@ package com.carmaintenance.service;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.carmaintenance.dto.AppointmentDTO;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.entity.Appointment;
 
 import java.time.LocalDate;
@@ -39,6 +40,11 @@ public interface AppointmentService extends IService<Appointment> {
      */
     Page<Appointment> getShopAppointments(Page<Appointment> page, Long shopId, Integer status, LocalDate date);
 
+    /**
+     * 获取门店预约列表（游标分页）
+     */
+    CursorPage<Appointment> getShopAppointmentsByCursor(String cursor, Integer size, Long shopId, Integer status, LocalDate date);
+
     /**
      * 获取预约详情
      */
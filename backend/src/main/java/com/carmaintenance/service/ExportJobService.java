@@ -0,0 +1,34 @@
+package com.carmaintenance.service;
+
+import com.carmaintenance.dto.ExportJob;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 导出任务Service接口
+ */
+public interface ExportJobService {
+
+    /**
+     * 提交导出任务，相同参数的近期任务直接复用
+     *
+     * @param type 导出类型: users, orders, financial
+     */
+    ExportJob submit(String type, Integer userType, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 获取导出任务
+     */
+    ExportJob getJob(String jobId);
+
+    /**
+     * 获取导出类型对应的表头
+     */
+    List<String> getHeaders(String type);
+
+    /**
+     * 清理过期的导出任务及文件
+     */
+    void cleanExpiredJobs();
+}
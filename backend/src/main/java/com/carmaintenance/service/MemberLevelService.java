@@ -21,6 +21,11 @@ public interface MemberLevelService extends IService<MemberLevel> {
      */
     List<MemberLevel> getAllLevels();
 
+    /**
+     * 根据ID获取会员等级
+     */
+    MemberLevel getLevelById(Integer levelId);
+
     /**
      * 创建或更新会员等级
      */
@@ -2,6 +2,7 @@ package com.carmaintenance.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.OrderDTO;
 import com.carmaintenance.dto.OrderVO;
 import com.carmaintenance.entity.Order;
@@ -50,15 +51,35 @@ public interface OrderService extends IService<Order> {
     Page<Order> getShopOrders(Page<Order> page, Long shopId, Integer status);
 
     /**
-     * 获取用户订单列表（包含完整信息）
+     * 获取用户订单列表（游标分页）
+     */
+    CursorPage<Order> getUserOrdersByCursor(String cursor, Integer size, Long userId, Integer status);
+
+    /**
+     * 获取门店订单列表（游标分页）
+     */
+    CursorPage<Order> getShopOrdersByCursor(String cursor, Integer size, Long shopId, Integer status);
+
+    /**
+     * 获取用户的全部订单（包含完整信息），订单较多时使用游标分页接口
      */
     List<OrderVO> getUserOrdersWithDetails(Long userId, Integer status);
 
     /**
-     * 获取门店订单列表（包含完整信息）
+     * 获取门店的全部订单（包含完整信息），订单较多时使用游标分页接口
      */
     List<OrderVO> getShopOrdersWithDetails(Long shopId, Integer status);
 
+    /**
+     * 获取用户订单列表（包含完整信息，游标分页）
+     */
+    CursorPage<OrderVO> getUserOrderDetailsByCursor(String cursor, Integer size, Long userId, Integer status);
+
+    /**
+     * 获取门店订单列表（包含完整信息，游标分页）
+     */
+    CursorPage<OrderVO> getShopOrderDetailsByCursor(String cursor, Integer size, Long shopId, Integer status);
+
     /**
      * 获取订单详情
      */
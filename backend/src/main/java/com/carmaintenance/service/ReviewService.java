@@ -2,6 +2,7 @@ package com.carmaintenance.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.ReviewDTO;
 import com.carmaintenance.entity.Review;
 
@@ -38,6 +39,11 @@ public interface ReviewService extends IService<Review> {
      */
     Page<Review> getShopReviews(Page<Review> page, Long shopId);
 
+    /**
+     * 获取门店评价列表（游标分页）
+     */
+    CursorPage<Review> getShopReviewsByCursor(String cursor, Integer size, Long shopId);
+
     /**
      * 获取评价详情
      */
@@ -63,6 +69,11 @@ public interface ReviewService extends IService<Review> {
      */
     boolean checkUserReviewed(Long userId, Long orderId);
 
+    /**
+     * 管理员删除评价
+     */
+    boolean adminDeleteReview(Long reviewId);
+
     /**
      * 管理员更新评价状态
      */
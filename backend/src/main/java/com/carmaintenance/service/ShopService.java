@@ -2,9 +2,11 @@ package com.carmaintenance.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.carmaintenance.dto.NearbyShopVO;
 import com.carmaintenance.dto.ShopRegisterDTO;
 import com.carmaintenance.entity.Shop;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -32,6 +34,12 @@ public interface ShopService extends IService<Shop> {
      */
     Page<Shop> getShopPage(Page<Shop> page, String city, String keyword, Integer status);
 
+    /**
+     * 查询附近门店，按距离升序
+     */
+    List<NearbyShopVO> getNearbyShops(Double latitude, Double longitude, Integer radius, Integer limit,
+                                      Integer status, BigDecimal minRating);
+
     /**
      * 更新门店状态
      */
@@ -42,6 +50,11 @@ public interface ShopService extends IService<Shop> {
      */
     Shop getShopByUserId(Long userId);
 
+    /**
+     * 获取门店详情（读取本地缓存），不存在时返回null
+     */
+    Shop getShopDetail(Long shopId);
+
     /**
      * 更新门店信息
      */
@@ -3,10 +3,28 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.booking.BaySlotLedger;
+import com.carmaintenance.cache.CatalogVersions;
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.cache.ShopLocationIndex;
+import com.carmaintenance.dto.CategoryCount;
+import com.carmaintenance.dto.CursorPage;
+import com.carmaintenance.dto.FinancialDailyAggregate;
+import com.carmaintenance.dto.ShopRevenueVO;
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.dto.StatusHistogram;
 import com.carmaintenance.entity.*;
 import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.report.OrderPeriodSummary;
+import com.carmaintenance.report.OrderReportEngine;
+import com.carmaintenance.report.UserMetrics;
 import com.carmaintenance.repository.*;
 import com.carmaintenance.service.AdminService;
+import com.carmaintenance.utils.AssociationLoader;
+import com.carmaintenance.utils.FullTextSearch;
+import com.carmaintenance.utils.KeysetPager;
+import com.carmaintenance.utils.StreamingExcelWriter;
+import com.carmaintenance.utils.TimeWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,9 +64,33 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
     @Autowired
     private SystemConfigRepository systemConfigRepository;
 
+    @Autowired
+    private OrderReportEngine orderReportEngine;
+
+    @Autowired
+    private UserMetrics userMetrics;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private BaySlotLedger baySlotLedger;
+
+    @Autowired
+    private ShopLocationIndex shopLocationIndex;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Override
     public Page<User> getUserList(Page<User> page, Integer userType, String keyword, String status) {
-        QueryWrapper<User> wrapper = new QueryWrapper<>();
+        if (FullTextSearch.isSearchable(keyword)) {
+            return userRepository.searchUserPage(page, userType, status,
+                    FullTextSearch.clean(keyword), FullTextSearch.toPhrase(keyword));
+        }
+
+        // 与全文检索路径一致，排除逻辑删除的用户
+        QueryWrapper<User> wrapper = new QueryWrapper<User>().eq("deleted", 0);
 
         if (userType != null) {
             wrapper.eq("user_type", userType);
@@ -103,35 +145,39 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
     public Map<String, Object> getUserStats() {
         Map<String, Object> stats = new HashMap<>();
 
+        // 一次GROUP BY查询得到各类型用户数
+        StatusHistogram typeCounts = userMetrics.countByType();
+
         // 总用户数
-        long totalUsers = userRepository.selectCount(null);
-        stats.put("totalUsers", totalUsers);
+        stats.put("totalUsers", typeCounts.totalCount());
 
         // 各类型用户数
         Map<String, Long> userTypeStats = new HashMap<>();
         for (int i = 1; i <= 3; i++) {
-            long count = userRepository.selectCount(new QueryWrapper<User>().eq("user_type", i));
             String typeName = i == 1 ? "车主" : i == 2 ? "门店" : "管理员";
-            userTypeStats.put(typeName, count);
+            userTypeStats.put(typeName, typeCounts.count(i));
         }
         stats.put("userTypeStats", userTypeStats);
 
         // 今日注册用户数
-        long todayUsers = userRepository.selectCount(new QueryWrapper<User>()
-                .apply("DATE(create_time) = CURDATE()"));
-        stats.put("todayUsers", todayUsers);
+        stats.put("todayUsers", userMetrics.countNewUsers(TimeWindow.today()));
 
-        // 活跃用户数（有订单的用户）
-        long activeUsers = userRepository.selectCount(new QueryWrapper<User>()
-                .in("id", "SELECT DISTINCT user_id FROM orders"));
-        stats.put("activeUsers", activeUsers);
+        // 活跃用户数（有订单的用户），读取位图计数
+        stats.put("activeUsers", userMetrics.getActiveUserCount());
 
         return stats;
     }
 
     @Override
     public Page<Shop> getShopList(Page<Shop> page, String city, String keyword, Integer status) {
-        QueryWrapper<Shop> wrapper = new QueryWrapper<>();
+        if (FullTextSearch.isSearchable(keyword)) {
+            return shopRepository.searchShopPage(page, status,
+                    city != null && !city.trim().isEmpty() ? city : null,
+                    FullTextSearch.clean(keyword), FullTextSearch.toPhrase(keyword));
+        }
+
+        // 与全文检索路径一致，排除逻辑删除的门店
+        QueryWrapper<Shop> wrapper = new QueryWrapper<Shop>().eq("deleted", 0);
 
         if (city != null && !city.trim().isEmpty()) {
             wrapper.eq("city", city);
@@ -160,6 +206,9 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
 
         shop.setStatus(status);
         boolean result = shopRepository.updateById(shop) > 0;
+        referenceDataCache.evictShop(shopId);
+        catalogVersions.evictShop(shopId);
+        shopLocationIndex.rebuildAfterCommit();
 
         if (result) {
             // 同时更新用户状态
@@ -190,10 +239,9 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         stats.put("statusStats", statusStats);
 
         // 城市分布
-        List<Shop> shops = shopRepository.selectList(new QueryWrapper<Shop>().eq("status", 1));
         Map<String, Long> cityStats = new HashMap<>();
-        for (Shop shop : shops) {
-            cityStats.put(shop.getCity(), cityStats.getOrDefault(shop.getCity(), 0L) + 1);
+        for (CategoryCount row : shopRepository.countActiveByCity()) {
+            cityStats.put(row.getCategory(), row.getTotal());
         }
         stats.put("cityStats", cityStats);
 
@@ -230,6 +278,8 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         // }
         boolean result = shopRepository.insert(shop) > 0;
         if (result) {
+            shopLocationIndex.rebuildAfterCommit();
+            catalogVersions.evictShop(shop.getId());
             logger.info("管理员创建门店成功: shopId={}, userId={}", shop.getId(), shop.getUserId());
         }
         return result;
@@ -242,6 +292,10 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
             throw new BusinessException(404, "门店不存在");
         }
         boolean result = shopRepository.updateById(shop) > 0;
+        referenceDataCache.evictShop(shop.getId());
+        catalogVersions.evictShop(shop.getId());
+        baySlotLedger.evictShop(shop.getId());
+        shopLocationIndex.rebuildAfterCommit();
         if (result) {
             logger.info("管理员更新门店成功: shopId={}", shop.getId());
         }
@@ -255,6 +309,9 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
             throw new BusinessException(404, "门店不存在");
         }
         boolean result = shopRepository.deleteById(shopId) > 0;
+        referenceDataCache.evictShop(shopId);
+        catalogVersions.evictShop(shopId);
+        shopLocationIndex.rebuildAfterCommit();
         if (result) {
             logger.info("管理员删除门店成功: shopId={}", shopId);
         }
@@ -264,6 +321,21 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
     @Override
     public Page<Order> getOrderList(Page<Order> page, Long userId, Long shopId, Integer status,
                                    LocalDate startDate, LocalDate endDate) {
+        QueryWrapper<Order> wrapper = orderListOf(userId, shopId, status, startDate, endDate);
+        wrapper.orderByDesc("create_time");
+
+        return orderRepository.selectPage(page, wrapper);
+    }
+
+    @Override
+    public CursorPage<Order> getOrderListByCursor(String cursor, Integer size, Long userId, Long shopId, Integer status,
+                                                  LocalDate startDate, LocalDate endDate) {
+        return KeysetPager.page(orderRepository, orderListOf(userId, shopId, status, startDate, endDate),
+                cursor, size, Order::getCreateTime, Order::getId);
+    }
+
+    private QueryWrapper<Order> orderListOf(Long userId, Long shopId, Integer status,
+                                            LocalDate startDate, LocalDate endDate) {
         QueryWrapper<Order> wrapper = new QueryWrapper<>();
 
         if (userId != null) {
@@ -278,84 +350,99 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
             wrapper.eq("status", status);
         }
 
-        if (startDate != null) {
-            wrapper.ge("create_time", startDate.atStartOfDay());
-        }
-
-        if (endDate != null) {
-            wrapper.le("create_time", endDate.atTime(23, 59, 59));
-        }
+        TimeWindow.ofDays(startDate, endDate).applyTo(wrapper, "create_time");
 
-        wrapper.orderByDesc("create_time");
-
-        return orderRepository.selectPage(page, wrapper);
+        return wrapper;
     }
 
     @Override
     public Map<String, Object> getOrderStats(LocalDate startDate, LocalDate endDate) {
-        Map<String, Object> stats = new HashMap<>();
-
-        QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        if (startDate != null) {
-            wrapper.ge("create_time", startDate.atStartOfDay());
-        }
-        if (endDate != null) {
-            wrapper.le("create_time", endDate.atTime(23, 59, 59));
+        if (startDate == null && endDate == null) {
+            return getAllTimeOrderStats();
         }
+        Map<String, Object> stats = new HashMap<>();
 
-        // 订单统计
-        List<Order> orders = orderRepository.selectList(wrapper);
-        stats.put("totalOrders", orders.size());
+        // 订单统计（历史日期读取每日汇总表，今天实时统计）
+        OrderPeriodSummary summary = orderReportEngine.summarize(startDate, endDate);
+        stats.put("totalOrders", (int) summary.getTotalOrders());
 
         // 营业额统计
-        BigDecimal totalRevenue = orders.stream()
-                .filter(order -> order.getStatus() == Order.Status.COMPLETED.getCode())
-                .map(Order::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        stats.put("totalRevenue", totalRevenue);
+        stats.put("totalRevenue", summary.getTotalRevenue());
 
         // 各状态订单数
         Map<String, Long> statusStats = new HashMap<>();
         for (Order.Status status : Order.Status.values()) {
-            long count = orders.stream()
-                    .filter(order -> order.getStatus().equals(status.getCode()))
-                    .count();
-            statusStats.put(status.getDesc(), count);
+            statusStats.put(status.getDesc(), summary.getCountByStatus(status.getCode()));
         }
         stats.put("statusStats", statusStats);
 
         // 今日订单
-        long todayOrders = orderRepository.selectCount(new QueryWrapper<Order>()
-                .apply("DATE(create_time) = CURDATE()"));
+        LocalDate today = TimeWindow.currentDate();
+        long todayOrders = orderReportEngine.summarize(today, today).getTotalOrders();
         stats.put("todayOrders", todayOrders);
 
         return stats;
     }
 
-    @Override
-    public Map<String, String> getSystemConfigs() {
-        Map<String, String> configs = new HashMap<>();
+    /**
+     * 不限日期的订单统计，总数按状态实时聚合
+     */
+    private Map<String, Object> getAllTimeOrderStats() {
+        Map<String, Object> stats = new HashMap<>();
 
-        List<SystemConfig> configList = systemConfigRepository.selectList(null);
-        for (SystemConfig config : configList) {
-            configs.put(config.getConfigKey(), config.getConfigValue());
+        long totalOrders = 0;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        Map<String, Long> statusStats = new HashMap<>();
+        for (Order.Status status : Order.Status.values()) {
+            statusStats.put(status.getDesc(), 0L);
         }
+        for (StatusAggregate row : orderRepository.aggregateByStatus()) {
+            totalOrders += row.getTotal();
+            if (Order.Status.COMPLETED.getCode().equals(row.getStatus()) && row.getAmount() != null) {
+                totalRevenue = totalRevenue.add(row.getAmount());
+            }
+            for (Order.Status status : Order.Status.values()) {
+                if (status.getCode().equals(row.getStatus())) {
+                    statusStats.put(status.getDesc(), row.getTotal());
+                }
+            }
+        }
+        stats.put("totalOrders", (int) totalOrders);
+        stats.put("totalRevenue", totalRevenue);
+        stats.put("statusStats", statusStats);
 
-        return configs;
+        LocalDate today = TimeWindow.currentDate();
+        stats.put("todayOrders", orderReportEngine.summarize(today, today).getTotalOrders());
+
+        return stats;
+    }
+
+    @Override
+    public Map<String, String> getSystemConfigs() {
+        return new HashMap<>(referenceDataCache.getSystemConfigs());
     }
 
     @Override
     public boolean updateSystemConfig(String configKey, String configValue) {
         SystemConfig config = systemConfigRepository.getByConfigKey(configKey);
+        boolean result;
         if (config != null) {
-            return systemConfigRepository.updateConfigValue(configKey, configValue) > 0;
+            result = systemConfigRepository.updateConfigValue(configKey, configValue) > 0;
         } else {
             // 创建新配置
             SystemConfig newConfig = new SystemConfig();
             newConfig.setConfigKey(configKey);
             newConfig.setConfigValue(configValue);
-            return systemConfigRepository.insert(newConfig) > 0;
+            result = systemConfigRepository.insert(newConfig) > 0;
         }
+        // 写入之后再失效，避免并发读取在写入前把旧值重新加载进缓存
+        referenceDataCache.evictSystemConfigs();
+        return result;
+    }
+
+    @Override
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return referenceDataCache.getStats();
     }
 
     @Override
@@ -367,17 +454,10 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         stats.put("shopStats", getShopStats());
         stats.put("orderStats", getOrderStats(null, null));
 
-        // 会员统计
-        long totalMembers = userMemberRepository.selectCount(null);
-        stats.put("totalMembers", totalMembers);
-
-        // 评价统计
-        long totalReviews = reviewRepository.selectCount(new QueryWrapper<Review>().eq("status", 1));
-        stats.put("totalReviews", totalReviews);
-
-        // 预约统计
-        long totalAppointments = appointmentRepository.selectCount(null);
-        stats.put("totalAppointments", totalAppointments);
+        // 会员、评价、预约总数实时统计，每日汇总表不反映物理删除，只用于按日序列
+        stats.put("totalMembers", userMemberRepository.selectCount(null));
+        stats.put("totalReviews", reviewRepository.selectCount(new QueryWrapper<Review>().eq("status", 1)));
+        stats.put("totalAppointments", appointmentRepository.selectCount(null));
 
         // 系统配置
         stats.put("systemConfigs", getSystemConfigs());
@@ -386,109 +466,55 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
     }
 
     @Override
-    public List<Map<String, Object>> exportUsers(Integer userType) {
-        QueryWrapper<User> wrapper = new QueryWrapper<>();
-        if (userType != null) {
-            wrapper.eq("user_type", userType);
-        }
-
-        List<User> users = userRepository.selectList(wrapper);
-        List<Map<String, Object>> exportData = new ArrayList<>();
-
-        for (User user : users) {
-            Map<String, Object> data = new HashMap<>();
-            data.put("用户ID", user.getId());
-            data.put("用户名", user.getUsername());
-            data.put("真实姓名", user.getRealName());
-            data.put("邮箱", user.getEmail());
-            data.put("手机号", user.getPhone());
-            data.put("用户类型", User.UserType.fromCode(user.getUserType()).getDesc());
-            data.put("状态", user.getStatus() == 1 ? "正常" : "禁用");
-            data.put("注册时间", user.getCreateTime() != null ? 
-                user.getCreateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "未知");
-            exportData.add(data);
-        }
-
-        return exportData;
+    public void exportUsers(Integer userType, StreamingExcelWriter writer) {
+        userRepository.streamForExport(userType, context -> {
+            User user = context.getResultObject();
+            writer.newRow()
+                    .cell(user.getId())
+                    .cell(user.getUsername())
+                    .cell(user.getRealName())
+                    .cell(user.getEmail())
+                    .cell(user.getPhone())
+                    .cell(User.UserType.fromCode(user.getUserType()).getDesc())
+                    .cell(Integer.valueOf(1).equals(user.getStatus()) ? "正常" : "禁用")
+                    .cell(user.getCreateTime() != null ? user.getCreateTime() : "未知");
+        });
     }
 
     @Override
-    public List<Map<String, Object>> exportOrders(LocalDate startDate, LocalDate endDate) {
-        QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        if (startDate != null) {
-            wrapper.ge("create_time", startDate.atStartOfDay());
-        }
-        if (endDate != null) {
-            wrapper.le("create_time", endDate.atTime(23, 59, 59));
-        }
-
-        List<Order> orders = orderRepository.selectList(wrapper);
-        List<Map<String, Object>> exportData = new ArrayList<>();
-
-        for (Order order : orders) {
-            Map<String, Object> data = new HashMap<>();
-            data.put("订单ID", order.getId());
-            data.put("订单编号", order.getOrderNo());
-            data.put("用户ID", order.getUserId());
-            data.put("门店ID", order.getShopId());
-            data.put("总金额", order.getTotalAmount());
-            data.put("折扣金额", order.getDiscountAmount());
-            data.put("实付金额", order.getFinalAmount());
-            data.put("支付方式", getPaymentMethodDesc(order.getPaymentMethod()));
-            data.put("支付状态", order.getPaymentStatus() == 1 ? "已支付" : "未支付");
-            data.put("订单状态", Order.Status.fromCode(order.getStatus()).getDesc());
-            data.put("创建时间", order.getCreateTime() != null ? 
-                order.getCreateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "未知");
-            exportData.add(data);
-        }
-
-        return exportData;
+    public void exportOrders(LocalDate startDate, LocalDate endDate, StreamingExcelWriter writer) {
+        TimeWindow window = TimeWindow.ofDays(startDate, endDate);
+        orderRepository.streamForExport(window.getStart(), window.getEnd(),
+                context -> {
+                    Order order = context.getResultObject();
+                    writer.newRow()
+                            .cell(order.getId())
+                            .cell(order.getOrderNo())
+                            .cell(order.getUserId())
+                            .cell(order.getShopId())
+                            .cell(order.getTotalAmount())
+                            .cell(order.getDiscountAmount())
+                            .cell(order.getFinalAmount())
+                            .cell(getPaymentMethodDesc(order.getPaymentMethod()))
+                            .cell(Integer.valueOf(1).equals(order.getPaymentStatus()) ? "已支付" : "未支付")
+                            .cell(Order.Status.fromCode(order.getStatus()).getDesc())
+                            .cell(order.getCreateTime() != null ? order.getCreateTime() : "未知");
+                });
     }
 
     @Override
-    public List<Map<String, Object>> exportFinancialData(LocalDate startDate, LocalDate endDate) {
-        QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        if (startDate != null) {
-            wrapper.ge("create_time", startDate.atStartOfDay());
-        }
-        if (endDate != null) {
-            wrapper.le("create_time", endDate.atTime(23, 59, 59));
-        }
-        wrapper.eq("payment_status", 1); // 只导出已支付的订单
-
-        List<Order> orders = orderRepository.selectList(wrapper);
-        List<Map<String, Object>> exportData = new ArrayList<>();
-
-        // 按日期统计
-        Map<LocalDate, List<Order>> dateGroups = new HashMap<>();
-        for (Order order : orders) {
-            LocalDate date = order.getCreateTime().toLocalDate();
-            dateGroups.computeIfAbsent(date, k -> new ArrayList<>()).add(order);
-        }
-
-        for (Map.Entry<LocalDate, List<Order>> entry : dateGroups.entrySet()) {
-            LocalDate date = entry.getKey();
-            List<Order> dayOrders = entry.getValue();
-
-            Map<String, Object> data = new HashMap<>();
-            data.put("日期", date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-            data.put("订单数量", dayOrders.size());
-
-            BigDecimal dayRevenue = dayOrders.stream()
-                    .filter(order -> order.getStatus() == Order.Status.COMPLETED.getCode())
-                    .map(Order::getFinalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            data.put("营业额", dayRevenue);
-
-            BigDecimal dayPaid = dayOrders.stream()
-                    .map(Order::getFinalAmount)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            data.put("收款金额", dayPaid);
-
-            exportData.add(data);
+    public void exportFinancialData(LocalDate startDate, LocalDate endDate, StreamingExcelWriter writer) {
+        // 按日期统计（只统计已支付的订单）
+        TimeWindow window = TimeWindow.ofDays(startDate, endDate);
+        List<FinancialDailyAggregate> rows = orderRepository.aggregatePaidByDay(window.getStart(), window.getEnd());
+
+        for (FinancialDailyAggregate row : rows) {
+            writer.newRow()
+                    .cell(row.getDay())
+                    .cell(row.getOrderCount())
+                    .cell(row.getRevenue())
+                    .cell(row.getPaidAmount());
         }
-
-        return exportData;
     }
 
     private String getPaymentMethodDesc(Integer paymentMethod) {
@@ -511,26 +537,17 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         LocalDate endDate = date;
         
         // 订单统计
-        QueryWrapper<Order> orderWrapper = new QueryWrapper<>();
-        orderWrapper.ge("create_time", startDate.atStartOfDay());
-        orderWrapper.le("create_time", endDate.atTime(23, 59, 59));
-        
-        List<Order> orders = orderRepository.selectList(orderWrapper);
+        OrderPeriodSummary summary = orderReportEngine.summarize(startDate, endDate);
         
         // 总订单数
-        report.put("totalOrders", orders.size());
+        report.put("totalOrders", (int) summary.getTotalOrders());
         
         // 已完成订单数
-        long completedOrders = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .count();
+        long completedOrders = summary.getCompletedOrders();
         report.put("completedOrders", completedOrders);
         
         // 总营业额
-        BigDecimal totalRevenue = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .map(Order::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = summary.getTotalRevenue();
         report.put("totalRevenue", totalRevenue);
         
         // 平均订单金额
@@ -540,16 +557,10 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         report.put("avgOrderAmount", avgOrderAmount);
         
         // 新注册用户数
-        long newUsers = userRepository.selectCount(new QueryWrapper<User>()
-                .ge("create_time", startDate.atStartOfDay())
-                .le("create_time", endDate.atTime(23, 59, 59)));
-        report.put("newUsers", newUsers);
+        report.put("newUsers", summary.getNewUsers());
         
         // 活跃门店数（有订单的门店）
-        long activeShops = orders.stream()
-                .map(Order::getShopId)
-                .distinct()
-                .count();
+        long activeShops = orderReportEngine.countActiveShops(startDate, endDate);
         report.put("activeShops", activeShops);
         
         report.put("date", date.toString());
@@ -566,26 +577,16 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         LocalDate endDate = startDate.plusDays(6);
         
         // 订单统计
-        QueryWrapper<Order> orderWrapper = new QueryWrapper<>();
-        orderWrapper.ge("create_time", startDate.atStartOfDay());
-        orderWrapper.le("create_time", endDate.atTime(23, 59, 59));
-        
-        List<Order> orders = orderRepository.selectList(orderWrapper);
+        OrderPeriodSummary summary = orderReportEngine.summarize(startDate, endDate);
         
         // 总订单数
-        report.put("totalOrders", orders.size());
+        report.put("totalOrders", (int) summary.getTotalOrders());
         
         // 已完成订单数
-        long completedOrders = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .count();
-        report.put("completedOrders", completedOrders);
+        report.put("completedOrders", summary.getCompletedOrders());
         
         // 总营业额
-        BigDecimal totalRevenue = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .map(Order::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = summary.getTotalRevenue();
         report.put("totalRevenue", totalRevenue);
         
         // 日均营业额
@@ -593,25 +594,16 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         report.put("dailyAvgRevenue", dailyAvgRevenue);
         
         // 新注册用户数
-        long newUsers = userRepository.selectCount(new QueryWrapper<User>()
-                .ge("create_time", startDate.atStartOfDay())
-                .le("create_time", endDate.atTime(23, 59, 59)));
-        report.put("newUsers", newUsers);
+        report.put("newUsers", summary.getNewUsers());
         
         // 新增门店数
-        long newShops = shopRepository.selectCount(new QueryWrapper<Shop>()
-                .ge("create_time", startDate.atStartOfDay())
-                .le("create_time", endDate.atTime(23, 59, 59)));
-        report.put("newShops", newShops);
+        report.put("newShops", summary.getNewShops());
         
         // 每日订单趋势
         Map<String, Integer> dailyOrderTrend = new HashMap<>();
         for (int i = 0; i < 7; i++) {
             LocalDate day = startDate.plusDays(i);
-            long dayOrders = orders.stream()
-                    .filter(o -> o.getCreateTime().toLocalDate().equals(day))
-                    .count();
-            dailyOrderTrend.put(day.toString(), (int) dayOrders);
+            dailyOrderTrend.put(day.toString(), (int) summary.getCountByDay(day));
         }
         report.put("dailyOrderTrend", dailyOrderTrend);
         
@@ -631,26 +623,16 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         LocalDate endDate = startDate.plusMonths(1).minusDays(1);
         
         // 订单统计
-        QueryWrapper<Order> orderWrapper = new QueryWrapper<>();
-        orderWrapper.ge("create_time", startDate.atStartOfDay());
-        orderWrapper.le("create_time", endDate.atTime(23, 59, 59));
-        
-        List<Order> orders = orderRepository.selectList(orderWrapper);
+        OrderPeriodSummary summary = orderReportEngine.summarize(startDate, endDate);
         
         // 总订单数
-        report.put("totalOrders", orders.size());
+        report.put("totalOrders", (int) summary.getTotalOrders());
         
         // 已完成订单数
-        long completedOrders = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .count();
-        report.put("completedOrders", completedOrders);
+        report.put("completedOrders", summary.getCompletedOrders());
         
         // 总营业额
-        BigDecimal totalRevenue = orders.stream()
-                .filter(o -> o.getStatus().equals(Order.Status.COMPLETED.getCode()))
-                .map(Order::getFinalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = summary.getTotalRevenue();
         report.put("totalRevenue", totalRevenue);
         
         // 日均营业额
@@ -659,38 +641,20 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         report.put("dailyAvgRevenue", dailyAvgRevenue);
         
         // 新注册用户数
-        long newUsers = userRepository.selectCount(new QueryWrapper<User>()
-                .ge("create_time", startDate.atStartOfDay())
-                .le("create_time", endDate.atTime(23, 59, 59)));
-        report.put("newUsers", newUsers);
+        report.put("newUsers", summary.getNewUsers());
         
         // 新增门店数
-        long newShops = shopRepository.selectCount(new QueryWrapper<Shop>()
-                .ge("create_time", startDate.atStartOfDay())
-                .le("create_time", endDate.atTime(23, 59, 59)));
-        report.put("newShops", newShops);
-        
-        // 门店排行榜（按营业额）
-        Map<Long, BigDecimal> shopRevenue = new HashMap<>();
-        for (Order order : orders) {
-            if (order.getStatus().equals(Order.Status.COMPLETED.getCode())) {
-                shopRevenue.merge(order.getShopId(), order.getFinalAmount(), BigDecimal::add);
-            }
-        }
+        report.put("newShops", summary.getNewShops());
         
-        // 获取前10名门店
-        List<Map<String, Object>> topShops = shopRevenue.entrySet().stream()
-                .sorted(Map.Entry.<Long, BigDecimal>comparingByValue().reversed())
-                .limit(10)
-                .map(entry -> {
-                    Map<String, Object> shopData = new HashMap<>();
-                    Shop shop = shopRepository.selectById(entry.getKey());
-                    shopData.put("shopId", entry.getKey());
-                    shopData.put("shopName", shop != null ? shop.getShopName() : "未知门店");
-                    shopData.put("revenue", entry.getValue());
-                    return shopData;
-                })
-                .collect(java.util.stream.Collectors.toList());
+        // 门店排行榜（按营业额，前10名）
+        List<Map<String, Object>> topShops = new ArrayList<>();
+        for (ShopRevenueVO shopRevenue : orderReportEngine.topShopsByRevenue(startDate, endDate, 10)) {
+            Map<String, Object> shopData = new HashMap<>();
+            shopData.put("shopId", shopRevenue.getShopId());
+            shopData.put("shopName", shopRevenue.getShopName() != null ? shopRevenue.getShopName() : "未知门店");
+            shopData.put("revenue", shopRevenue.getRevenue());
+            topShops.add(shopData);
+        }
         
         report.put("topShops", topShops);
         report.put("year", year);
@@ -717,8 +681,17 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
         // 转换为包含关联信息的Map
         Page<Map<String, Object>> resultPage = new Page<>(page.getCurrent(), page.getSize(), reviewPage.getTotal());
         List<Map<String, Object>> reviewList = new ArrayList<>();
+
+        // 批量加载关联的用户、门店和订单，只查询展示用到的列
+        List<Review> reviews = reviewPage.getRecords();
+        Map<Long, User> users = AssociationLoader.loadByIds(reviews, Review::getUserId, userRepository, User::getId,
+                UserRepository.NAME_COLUMNS);
+        Map<Long, Shop> shops = AssociationLoader.loadByIds(reviews, Review::getShopId, shopRepository, Shop::getId,
+                ShopRepository.NAME_COLUMNS);
+        Map<Long, Order> orders = AssociationLoader.loadByIds(reviews, Review::getOrderId, orderRepository, Order::getId,
+                OrderRepository.NO_COLUMNS);
         
-        for (Review review : reviewPage.getRecords()) {
+        for (Review review : reviews) {
             Map<String, Object> reviewMap = new HashMap<>();
             reviewMap.put("id", review.getId());
             reviewMap.put("orderId", review.getOrderId());
@@ -738,7 +711,7 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
                 review.getCreateTime().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null);
             
             // 获取用户信息
-            User user = userRepository.selectById(review.getUserId());
+            User user = users.get(review.getUserId());
             if (user != null) {
                 reviewMap.put("userName", user.getRealName() != null ? user.getRealName() : user.getUsername());
             } else {
@@ -746,7 +719,7 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
             }
             
             // 获取门店信息
-            Shop shop = shopRepository.selectById(review.getShopId());
+            Shop shop = shops.get(review.getShopId());
             if (shop != null) {
                 reviewMap.put("shopName", shop.getShopName());
             } else {
@@ -754,7 +727,7 @@ public class AdminServiceImpl extends ServiceImpl<SystemConfigRepository, System
             }
             
             // 获取订单号
-            Order order = orderRepository.selectById(review.getOrderId());
+            Order order = orders.get(review.getOrderId());
             if (order != null) {
                 reviewMap.put("orderNo", order.getOrderNo());
             } else {
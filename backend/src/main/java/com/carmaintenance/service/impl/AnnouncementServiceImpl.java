@@ -3,9 +3,12 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.cache.ActiveAnnouncements;
 import com.carmaintenance.entity.Announcement;
 import com.carmaintenance.mapper.AnnouncementMapper;
 import com.carmaintenance.service.AnnouncementService;
+import com.carmaintenance.utils.FullTextSearch;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -18,12 +21,24 @@ import java.util.List;
 @Service
 public class AnnouncementServiceImpl extends ServiceImpl<AnnouncementMapper, Announcement> implements AnnouncementService {
 
+    @Autowired
+    private ActiveAnnouncements activeAnnouncements;
+
     @Override
     public Page<Announcement> getAnnouncementPage(Integer current, Integer size, String keyword, Integer status, Integer type) {
         Page<Announcement> page = new Page<>(current, size);
 
+        // 关键字全文检索
+        if (FullTextSearch.isSearchable(keyword)) {
+            return baseMapper.searchPage(page, status, type,
+                    FullTextSearch.clean(keyword), FullTextSearch.toPhrase(keyword));
+        }
+
         LambdaQueryWrapper<Announcement> wrapper = new LambdaQueryWrapper<>();
 
+        // 与全文检索路径一致，排除逻辑删除的公告
+        wrapper.apply("deleted = 0");
+
         // 关键字搜索
         if (StringUtils.hasText(keyword)) {
             wrapper.and(w -> w.like(Announcement::getTitle, keyword)
@@ -50,39 +65,31 @@ public class AnnouncementServiceImpl extends ServiceImpl<AnnouncementMapper, Ann
 
     @Override
     public List<Announcement> getActiveAnnouncements() {
-        LambdaQueryWrapper<Announcement> wrapper = new LambdaQueryWrapper<>();
-        LocalDateTime now = LocalDateTime.now();
-
-        wrapper.eq(Announcement::getStatus, 1) // 状态为发布
-                .and(w -> w.isNull(Announcement::getStartTime)
-                        .or()
-                        .le(Announcement::getStartTime, now)) // 开始时间为空或已到
-                .and(w -> w.isNull(Announcement::getEndTime)
-                        .or()
-                        .ge(Announcement::getEndTime, now)) // 结束时间为空或未到
-                .orderByDesc(Announcement::getPriority)
-                .orderByDesc(Announcement::getCreateTime)
-                .last("LIMIT 10"); // 最多返回10条
-
-        return this.list(wrapper);
+        return activeAnnouncements.get();
     }
 
     @Override
     public boolean createAnnouncement(Announcement announcement, Long userId) {
         announcement.setCreatedBy(userId);
         announcement.setCreateTime(LocalDateTime.now());
-        return this.save(announcement);
+        boolean result = this.save(announcement);
+        activeAnnouncements.rebuildAfterCommit();
+        return result;
     }
 
     @Override
     public boolean updateAnnouncement(Announcement announcement) {
         announcement.setUpdateTime(LocalDateTime.now());
-        return this.updateById(announcement);
+        boolean result = this.updateById(announcement);
+        activeAnnouncements.rebuildAfterCommit();
+        return result;
     }
 
     @Override
     public boolean deleteAnnouncement(Long id) {
-        return this.removeById(id);
+        boolean result = this.removeById(id);
+        activeAnnouncements.rebuildAfterCommit();
+        return result;
     }
 
     @Override
@@ -91,7 +98,9 @@ public class AnnouncementServiceImpl extends ServiceImpl<AnnouncementMapper, Ann
         announcement.setId(id);
         announcement.setStatus(1);
         announcement.setUpdateTime(LocalDateTime.now());
-        return this.updateById(announcement);
+        boolean result = this.updateById(announcement);
+        activeAnnouncements.rebuildAfterCommit();
+        return result;
     }
 
     @Override
@@ -100,6 +109,8 @@ public class AnnouncementServiceImpl extends ServiceImpl<AnnouncementMapper, Ann
         announcement.setId(id);
         announcement.setStatus(2);
         announcement.setUpdateTime(LocalDateTime.now());
-        return this.updateById(announcement);
+        boolean result = this.updateById(announcement);
+        activeAnnouncements.rebuildAfterCommit();
+        return result;
     }
 }
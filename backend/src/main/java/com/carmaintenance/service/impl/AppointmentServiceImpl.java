@@ -3,12 +3,22 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.booking.BaySlotLedger;
+import com.carmaintenance.booking.BaySlotReservation;
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.cache.ServiceSummaryCache;
 import com.carmaintenance.dto.AppointmentDTO;
 import com.carmaintenance.dto.AppointmentItemDTO;
+import com.carmaintenance.dto.CursorPage;
+import com.carmaintenance.dto.StatusHistogram;
 import com.carmaintenance.entity.*;
 import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.report.UserMetrics;
 import com.carmaintenance.repository.*;
 import com.carmaintenance.service.AppointmentService;
+import com.carmaintenance.utils.IdGenerator;
+import com.carmaintenance.utils.KeysetPager;
+import com.carmaintenance.utils.TimeWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,9 +28,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * 预约Service实现类
@@ -34,7 +42,10 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
     private AppointmentItemRepository appointmentItemRepository;
 
     @Autowired
-    private ShopRepository shopRepository;
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private ServiceSummaryCache serviceSummaryCache;
 
     @Autowired
     private VehicleRepository vehicleRepository;
@@ -45,6 +56,18 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private BaySlotLedger baySlotLedger;
+
+    @Autowired
+    private BaySlotReservation baySlotReservation;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private UserMetrics userMetrics;
+
     @Override
     @Transactional
     public String createAppointment(AppointmentDTO appointmentDTO, Long userId) {
@@ -52,7 +75,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
                    userId, appointmentDTO.getShopId(), appointmentDTO.getVehicleId(), appointmentDTO.getAppointmentDate());
         
         // 检查门店是否存在
-        Shop shop = shopRepository.selectById(appointmentDTO.getShopId());
+        Shop shop = referenceDataCache.getShop(appointmentDTO.getShopId());
         if (shop == null || shop.getStatus() != 1) {
             logger.warn("预约创建失败: 门店不存在或已停业, shopId={}", appointmentDTO.getShopId());
             throw new BusinessException(400, "门店不存在或已停业");
@@ -66,7 +89,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
         }
 
         // 检查预约日期是否在可预约范围内（未来7天）
-        LocalDate today = LocalDate.now();
+        LocalDate today = TimeWindow.currentDate();
         LocalDate maxDate = today.plusDays(7);
         if (appointmentDTO.getAppointmentDate().isBefore(today) ||
             appointmentDTO.getAppointmentDate().isAfter(maxDate)) {
@@ -74,14 +97,10 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
             throw new BusinessException(400, "预约日期必须在今天到未来7天内");
         }
 
-        // 检查时间段是否可用
-        if (!checkTimeSlotAvailable(appointmentDTO.getShopId(),
-                                  appointmentDTO.getAppointmentDate(),
-                                  appointmentDTO.getTimeSlot())) {
-            logger.warn("预约创建失败: 时间段已被预约, shopId={}, date={}, timeSlot={}", 
-                       appointmentDTO.getShopId(), appointmentDTO.getAppointmentDate(), appointmentDTO.getTimeSlot());
-            throw new BusinessException(400, "该时间段已被预约");
-        }
+        // 预占时间段工位，已满时抛出异常，创建失败时随事务回滚归还
+        baySlotReservation.reserve(appointmentDTO.getShopId(),
+                                   appointmentDTO.getAppointmentDate(),
+                                   appointmentDTO.getTimeSlot());
 
         // 计算总金额
         BigDecimal totalAmount = BigDecimal.ZERO;
@@ -94,7 +113,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
 
         // 创建预约
         Appointment appointment = new Appointment();
-        appointment.setAppointmentNo(generateAppointmentNo());
+        appointment.setAppointmentNo(idGenerator.nextNo("APT"));
         appointment.setUserId(userId);
         appointment.setShopId(appointmentDTO.getShopId());
         appointment.setVehicleId(appointmentDTO.getVehicleId());
@@ -124,7 +143,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
 
             // 自动创建订单
             Order order = new Order();
-            order.setOrderNo(generateOrderNo());
+            order.setOrderNo(idGenerator.nextNo("ORD"));
             order.setAppointmentId(appointment.getId());
             order.setUserId(userId);
             order.setShopId(appointmentDTO.getShopId());
@@ -138,6 +157,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
             order.setCreateTime(LocalDateTime.now());
             order.setUpdateTime(LocalDateTime.now());
             orderRepository.insert(order);
+            userMetrics.markActive(userId);
 
             logger.info("预约创建成功: userId={}, appointmentId={}, appointmentNo={}, orderId={}",
                        userId, appointment.getId(), appointment.getAppointmentNo(), order.getId());
@@ -169,11 +189,16 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
         }
 
         // 更新预约状态
+        Integer oldStatus = appointment.getStatus();
         appointment.setStatus(Appointment.Status.CANCELLED.getCode());
         appointment.setCancelReason(reason);
         appointment.setCancelTime(LocalDateTime.now());
 
-        return updateById(appointment);
+        boolean updated = updateById(appointment);
+        if (updated) {
+            baySlotReservation.onStatusChanged(appointment, oldStatus);
+        }
+        return updated;
     }
 
     @Override
@@ -194,15 +219,16 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
             throw new RuntimeException("只能修改待服务的预约");
         }
 
-        // 检查新的时间段是否可用
+        // 预占新的时间段并释放原时间段
         if (!appointment.getTimeSlot().equals(appointmentDTO.getTimeSlot()) ||
             !appointment.getAppointmentDate().equals(appointmentDTO.getAppointmentDate())) {
 
-            if (!checkTimeSlotAvailable(appointmentDTO.getShopId(),
-                                      appointmentDTO.getAppointmentDate(),
-                                      appointmentDTO.getTimeSlot())) {
-                throw new RuntimeException("该时间段已被预约");
-            }
+            baySlotReservation.reserve(appointment.getShopId(),
+                                       appointmentDTO.getAppointmentDate(),
+                                       appointmentDTO.getTimeSlot());
+            baySlotReservation.release(appointment.getShopId(),
+                                       appointment.getAppointmentDate(),
+                                       appointment.getTimeSlot());
         }
 
         // 更新预约信息
@@ -237,6 +263,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
                 items.add(item);
             }
             appointmentItemRepository.insertBatch(items);
+            serviceSummaryCache.evict(appointmentId);
         }
 
         return updateById(appointment);
@@ -257,6 +284,19 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
 
     @Override
     public Page<Appointment> getShopAppointments(Page<Appointment> page, Long shopId, Integer status, LocalDate date) {
+        QueryWrapper<Appointment> wrapper = shopAppointmentsOf(shopId, status, date);
+        wrapper.orderByDesc("create_time");
+        return page(page, wrapper);
+    }
+
+    @Override
+    public CursorPage<Appointment> getShopAppointmentsByCursor(String cursor, Integer size, Long shopId,
+                                                               Integer status, LocalDate date) {
+        return KeysetPager.page(baseMapper, shopAppointmentsOf(shopId, status, date), cursor, size,
+                Appointment::getCreateTime, Appointment::getId);
+    }
+
+    private QueryWrapper<Appointment> shopAppointmentsOf(Long shopId, Integer status, LocalDate date) {
         QueryWrapper<Appointment> wrapper = new QueryWrapper<>();
         wrapper.eq("shop_id", shopId);
 
@@ -267,9 +307,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
         if (date != null) {
             wrapper.eq("appointment_date", date);
         }
-
-        wrapper.orderByDesc("create_time");
-        return page(page, wrapper);
+        return wrapper;
     }
 
     @Override
@@ -292,7 +330,7 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
         Vehicle vehicle = vehicleRepository.selectById(appointment.getVehicleId());
 
         // 获取门店信息
-        Shop shop = shopRepository.selectById(appointment.getShopId());
+        Shop shop = referenceDataCache.getShop(appointment.getShopId());
 
         Map<String, Object> result = new HashMap<>();
         result.put("appointment", appointment);
@@ -305,31 +343,12 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
 
     @Override
     public boolean checkTimeSlotAvailable(Long shopId, LocalDate date, String timeSlot) {
-        int count = baseMapper.countByShopIdAndDateTime(shopId, date, timeSlot);
-        Shop shop = shopRepository.selectById(shopId);
-        int maxBays = shop.getShopBays() != null ? shop.getShopBays() : 10; // 默认10个工位
-        return count < maxBays;
+        return baySlotLedger.isAvailable(shopId, date, timeSlot);
     }
 
     @Override
     public List<String> getAvailableTimeSlots(Long shopId, LocalDate date) {
-        // 生成时间段列表（08:00-18:00，每30分钟一个时段）
-        List<String> allTimeSlots = new ArrayList<>();
-        for (int hour = 8; hour < 18; hour++) {
-            allTimeSlots.add(String.format("%02d:00-%02d:30", hour, hour));
-            allTimeSlots.add(String.format("%02d:30-%02d:00", hour, hour + 1));
-        }
-
-        // 获取已被预约的时间段
-        List<Appointment> bookedAppointments = baseMapper.findByShopIdAndDate(shopId, date);
-        Set<String> bookedTimeSlots = bookedAppointments.stream()
-            .map(Appointment::getTimeSlot)
-            .collect(Collectors.toSet());
-
-        // 返回可用时间段
-        return allTimeSlots.stream()
-            .filter(slot -> !bookedTimeSlots.contains(slot))
-            .collect(Collectors.toList());
+        return baySlotLedger.getAvailableSlots(shopId, date);
     }
 
     @Override
@@ -340,8 +359,13 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
             throw new RuntimeException("预约不存在");
         }
 
+        Integer oldStatus = appointment.getStatus();
         appointment.setStatus(status);
-        return updateById(appointment);
+        boolean updated = updateById(appointment);
+        if (updated) {
+            baySlotReservation.onStatusChanged(appointment, oldStatus);
+        }
+        return updated;
     }
 
     @Override
@@ -360,39 +384,21 @@ public class AppointmentServiceImpl extends ServiceImpl<AppointmentRepository, A
     public Map<String, Object> getAppointmentStats(Long shopId) {
         Map<String, Object> stats = new HashMap<>();
 
+        // 一次GROUP BY status查询得到各状态预约数和今日预约数
+        StatusHistogram histogram = StatusHistogram.of(getBaseMapper().aggregateStatusByShop(shopId, TimeWindow.currentDate()));
+
         // 总预约数
-        long totalCount = count(new QueryWrapper<Appointment>().eq("shop_id", shopId));
-        stats.put("totalCount", totalCount);
+        stats.put("totalCount", histogram.totalCount());
 
         // 各状态预约数
-        stats.put("pendingCount", count(new QueryWrapper<Appointment>()
-            .eq("shop_id", shopId).eq("status", Appointment.Status.PENDING.getCode())));
-        stats.put("inProgressCount", count(new QueryWrapper<Appointment>()
-            .eq("shop_id", shopId).eq("status", Appointment.Status.IN_PROGRESS.getCode())));
-        stats.put("completedCount", count(new QueryWrapper<Appointment>()
-            .eq("shop_id", shopId).eq("status", Appointment.Status.COMPLETED.getCode())));
-        stats.put("cancelledCount", count(new QueryWrapper<Appointment>()
-            .eq("shop_id", shopId).eq("status", Appointment.Status.CANCELLED.getCode())));
+        stats.put("pendingCount", histogram.count(Appointment.Status.PENDING.getCode()));
+        stats.put("inProgressCount", histogram.count(Appointment.Status.IN_PROGRESS.getCode()));
+        stats.put("completedCount", histogram.count(Appointment.Status.COMPLETED.getCode()));
+        stats.put("cancelledCount", histogram.count(Appointment.Status.CANCELLED.getCode()));
 
         // 今日预约数
-        stats.put("todayCount", count(new QueryWrapper<Appointment>()
-            .eq("shop_id", shopId).eq("appointment_date", LocalDate.now())));
+        stats.put("todayCount", histogram.totalRecentCount());
 
         return stats;
     }
-
-    /**
-     * 生成预约编号
-     */
-    private String generateAppointmentNo() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-        return "APT" + LocalDateTime.now().format(formatter) +
-               String.format("%03d", new Random().nextInt(1000));
-    }
-
-    private String generateOrderNo() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-        return "ORD" + LocalDateTime.now().format(formatter) +
-               String.format("%03d", new Random().nextInt(1000));
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,269 @@
+package com.carmaintenance.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.carmaintenance.dto.ExportJob;
+import com.carmaintenance.entity.Order;
+import com.carmaintenance.entity.User;
+import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.repository.OrderRepository;
+import com.carmaintenance.repository.UserRepository;
+import com.carmaintenance.service.AdminService;
+import com.carmaintenance.service.ExportJobService;
+import com.carmaintenance.utils.StreamingExcelWriter;
+import com.carmaintenance.utils.TimeWindow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 导出任务Service实现类
+ * 导出在有界线程池中生成到本地磁盘，请求线程只负责提交和查询。
+ * 任务信息只保存在本实例内存中，文件也在本机：多实例部署时提交、查询和下载须路由到同一实例(会话粘滞)，
+ * 重启后此前的任务全部失效，启动时清理导出目录中遗留的文件。export.job.dir不能在多个实例之间共用
+ */
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportJobServiceImpl.class);
+
+    private static final List<String> USER_HEADERS = Arrays.asList(
+            "用户ID", "用户名", "真实姓名", "邮箱", "手机号", "用户类型", "状态", "注册时间");
+
+    private static final List<String> ORDER_HEADERS = Arrays.asList(
+            "订单ID", "订单编号", "用户ID", "门店ID", "总金额",
+            "折扣金额", "实付金额", "支付方式", "支付状态", "订单状态", "创建时间");
+
+    private static final List<String> FINANCIAL_HEADERS = Arrays.asList("日期", "订单数量", "营业额", "收款金额");
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${export.job.dir:${java.io.tmpdir}/car-exports}")
+    private String exportDir;
+
+    @Value("${export.job.threads:2}")
+    private int threads;
+
+    @Value("${export.job.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${export.job.dedup-minutes:5}")
+    private long dedupMinutes;
+
+    @Value("${export.job.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Map<String, StreamingExcelWriter> runningWriters = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(Paths.get(exportDir));
+        cleanOrphanedFiles();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public synchronized ExportJob submit(String type, Integer userType, LocalDate startDate, LocalDate endDate) {
+        if (!"users".equals(type) && !"orders".equals(type) && !"financial".equals(type)) {
+            throw new BusinessException(400, "不支持的导出类型: " + type);
+        }
+
+        // 相同参数的任务在去重窗口内直接复用
+        String dedupKey = type + "|" + userType + "|" + startDate + "|" + endDate;
+        LocalDateTime dedupSince = LocalDateTime.now().minusMinutes(dedupMinutes);
+        for (ExportJob existing : jobs.values()) {
+            if (dedupKey.equals(existing.getDedupKey())
+                    && !ExportJob.Status.FAILED.getCode().equals(existing.getStatus())
+                    && existing.getCreateTime().isAfter(dedupSince)) {
+                return existing;
+            }
+        }
+
+        ExportJob job = new ExportJob();
+        job.setJobId(UUID.randomUUID().toString().replace("-", ""));
+        job.setType(type);
+        job.setStatus(ExportJob.Status.PENDING.getCode());
+        job.setTotalRows(-1L);
+        job.setWrittenRows(0L);
+        job.setFileName(getFileNamePrefix(type) + "_" + System.currentTimeMillis() + ".xlsx");
+        job.setCreateTime(LocalDateTime.now());
+        job.setDedupKey(dedupKey);
+        job.setFilePath(Paths.get(exportDir, job.getJobId() + ".xlsx").toString());
+
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> runJob(job, userType, startDate, endDate));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            throw new BusinessException(503, "导出任务过多，请稍后再试");
+        }
+        logger.info("提交导出任务: jobId={}, type={}", job.getJobId(), type);
+        return job;
+    }
+
+    @Override
+    public ExportJob getJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new BusinessException(404, "导出任务不存在或已过期");
+        }
+        StreamingExcelWriter writer = runningWriters.get(jobId);
+        if (writer != null) {
+            job.setWrittenRows((long) writer.getRowCount());
+        }
+        return job;
+    }
+
+    private void runJob(ExportJob job, Integer userType, LocalDate startDate, LocalDate endDate) {
+        job.setStatus(ExportJob.Status.RUNNING.getCode());
+        Path target = Paths.get(job.getFilePath());
+        Path temp = Paths.get(job.getFilePath() + ".part");
+
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(getHeaders(job.getType()))) {
+            runningWriters.put(job.getJobId(), writer);
+            switch (job.getType()) {
+                case "users":
+                    job.setTotalRows(userRepository.selectCount(new QueryWrapper<User>()
+                            .eq(userType != null, "user_type", userType)));
+                    adminService.exportUsers(userType, writer);
+                    break;
+                case "orders":
+                    job.setTotalRows(orderRepository.selectCount(
+                            TimeWindow.ofDays(startDate, endDate).applyTo(new QueryWrapper<Order>(), "create_time")));
+                    adminService.exportOrders(startDate, endDate, writer);
+                    break;
+                default:
+                    adminService.exportFinancialData(startDate, endDate, writer);
+                    break;
+            }
+
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+
+            job.setWrittenRows((long) writer.getRowCount());
+            job.setFileSize(Files.size(target));
+            job.setStatus(ExportJob.Status.COMPLETED.getCode());
+            logger.info("导出任务完成: jobId={}, rows={}, size={}", job.getJobId(), job.getWrittenRows(), job.getFileSize());
+        } catch (Exception e) {
+            job.setStatus(ExportJob.Status.FAILED.getCode());
+            job.setErrorMessage(e.getMessage());
+            logger.error("导出任务失败: jobId={}", job.getJobId(), e);
+            deleteQuietly(temp);
+        } finally {
+            runningWriters.remove(job.getJobId());
+            job.setFinishTime(LocalDateTime.now());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${export.job.clean-interval:600000}")
+    public void cleanExpiredJobs() {
+        LocalDateTime expireBefore = LocalDateTime.now().minusMinutes(ttlMinutes);
+        Iterator<ExportJob> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            ExportJob job = iterator.next();
+            if (job.getFinishTime() != null && job.getFinishTime().isBefore(expireBefore)) {
+                iterator.remove();
+                deleteQuietly(Paths.get(job.getFilePath()));
+                logger.info("清理过期导出任务: jobId={}", job.getJobId());
+            }
+        }
+    }
+
+    /**
+     * 清理上次运行遗留的导出文件，重启后内存中已没有对应的任务，这些文件无法再被下载
+     */
+    private void cleanOrphanedFiles() throws IOException {
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(exportDir), "*.{xlsx,part}")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("清理遗留导出文件: dir={}, count={}", exportDir, deleted);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除导出文件失败: {}", path, e);
+        }
+    }
+
+    @Override
+    public List<String> getHeaders(String type) {
+        switch (type) {
+            case "users":
+                return USER_HEADERS;
+            case "orders":
+                return ORDER_HEADERS;
+            default:
+                return FINANCIAL_HEADERS;
+        }
+    }
+
+    private String getFileNamePrefix(String type) {
+        switch (type) {
+            case "users":
+                return "用户数据";
+            case "orders":
+                return "订单数据";
+            default:
+                return "财务数据";
+        }
+    }
+}
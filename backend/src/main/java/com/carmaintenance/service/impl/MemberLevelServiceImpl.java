@@ -1,6 +1,7 @@
 package com.carmaintenance.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.cache.MemberLevelTable;
 import com.carmaintenance.entity.MemberLevel;
 import com.carmaintenance.entity.UserMember;
 import com.carmaintenance.exception.BusinessException;
@@ -28,19 +29,28 @@ public class MemberLevelServiceImpl extends ServiceImpl<MemberLevelRepository, M
     @Autowired
     private UserMemberRepository userMemberRepository;
 
+    @Autowired
+    private MemberLevelTable memberLevelTable;
+
     @Override
     public MemberLevel getLevelByExperience(Integer experience) {
-        return baseMapper.getLevelByExperience(experience != null ? experience : 0);
+        return memberLevelTable.current().levelFor(experience != null ? experience : 0);
     }
 
     @Override
     public List<MemberLevel> getAllLevels() {
-        return baseMapper.getAllLevels();
+        return memberLevelTable.current().getLevels();
+    }
+
+    @Override
+    public MemberLevel getLevelById(Integer levelId) {
+        return memberLevelTable.current().getById(levelId);
     }
 
     @Override
     @Transactional
     public String saveMemberLevel(MemberLevel memberLevel) {
+        memberLevelTable.rebuildAfterCommit();
         if (memberLevel.getId() == null) {
             // 新增等级
             if (save(memberLevel)) {
@@ -71,6 +81,7 @@ public class MemberLevelServiceImpl extends ServiceImpl<MemberLevelRepository, M
             throw new BusinessException(400, "该等级下还有用户，无法删除");
         }
 
+        memberLevelTable.rebuildAfterCommit();
         return removeById(levelId);
     }
 
@@ -78,21 +89,15 @@ public class MemberLevelServiceImpl extends ServiceImpl<MemberLevelRepository, M
     public Map<String, Object> getLevelProgress(Integer currentExperience) {
         Map<String, Object> progress = new HashMap<>();
 
-        MemberLevel currentLevel = getLevelByExperience(currentExperience);
-        List<MemberLevel> allLevels = getAllLevels();
+        MemberLevelTable.Snapshot levels = memberLevelTable.current();
+        MemberLevel currentLevel = levels.levelFor(currentExperience != null ? currentExperience : 0);
 
         progress.put("currentLevel", currentLevel);
         progress.put("currentExperience", currentExperience);
 
         // 计算到下一等级的进度
-        if (currentLevel != null && allLevels.size() > 1) {
-            MemberLevel nextLevel = null;
-            for (int i = 0; i < allLevels.size() - 1; i++) {
-                if (allLevels.get(i).getId().equals(currentLevel.getId())) {
-                    nextLevel = allLevels.get(i + 1);
-                    break;
-                }
-            }
+        if (currentLevel != null) {
+            MemberLevel nextLevel = levels.nextLevel(currentLevel);
 
             if (nextLevel != null) {
                 int currentLevelMinExp = currentLevel.getMinExperience();
@@ -119,7 +124,7 @@ public class MemberLevelServiceImpl extends ServiceImpl<MemberLevelRepository, M
     @Override
     @Transactional
     public Integer checkAndUpdateUserLevel(Long userId) {
-        UserMember userMember = userMemberRepository.findByUserId(userId);
+        UserMember userMember = userMemberRepository.selectExperience(userId);
         if (userMember == null) {
             return null;
         }
@@ -127,9 +132,8 @@ public class MemberLevelServiceImpl extends ServiceImpl<MemberLevelRepository, M
         // 根据总经验值计算应该的等级
         MemberLevel shouldLevel = getLevelByExperience(userMember.getTotalExperience());
         if (shouldLevel != null && !shouldLevel.getId().equals(userMember.getLevelId())) {
-            // 更新用户等级
-            userMember.setLevelId(shouldLevel.getId());
-            userMemberRepository.updateById(userMember);
+            // 只更新等级字段，避免整行写回覆盖并发的经验值变更
+            userMemberRepository.updateLevel(userId, shouldLevel.getId());
             return shouldLevel.getId();
         }
 
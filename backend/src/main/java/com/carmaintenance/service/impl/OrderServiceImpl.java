@@ -3,27 +3,34 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.booking.BaySlotReservation;
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.cache.ServiceSummaryCache;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.OrderDTO;
 import com.carmaintenance.dto.OrderVO;
+import com.carmaintenance.dto.StatusHistogram;
 import com.carmaintenance.entity.*;
+import com.carmaintenance.event.OrderEventDispatcher;
 import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.report.UserMetrics;
 import com.carmaintenance.repository.*;
 import com.carmaintenance.service.AppointmentService;
 import com.carmaintenance.service.OrderService;
-import com.carmaintenance.service.UserMemberService;
+import com.carmaintenance.utils.AssociationLoader;
+import com.carmaintenance.utils.IdGenerator;
+import com.carmaintenance.utils.KeysetPager;
+import com.carmaintenance.utils.TimeWindow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Random;
+import java.util.*;
 
 /**
  * 订单Service实现类
@@ -49,7 +56,31 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
     private AppointmentService appointmentService;
 
     @Autowired
-    private UserMemberService userMemberService;
+    private BaySlotReservation baySlotReservation;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private UserMetrics userMetrics;
+
+    @Autowired
+    private OrderEventDispatcher orderEventDispatcher;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ServiceSummaryCache serviceSummaryCache;
+
+    /**
+     * 不分页的订单详情列表按批补充关联信息，限制每次IN查询的ID个数
+     */
+    @Value("${order.details.batch-size:500}")
+    private int detailsBatchSize;
 
     @Override
     @Transactional
@@ -89,7 +120,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
 
         // 创建订单
         Order order = new Order();
-        order.setOrderNo(generateOrderNo());
+        order.setOrderNo(idGenerator.nextNo("ORD"));
         order.setAppointmentId(orderDTO.getAppointmentId());
         order.setUserId(appointment.getUserId());
         order.setShopId(appointment.getShopId());
@@ -102,6 +133,8 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
         order.setStatus(Order.Status.PENDING.getCode());
 
         if (save(order)) {
+            userMetrics.markActive(order.getUserId());
+
             // 更新预约状态为进行中
             appointment.setStatus(Appointment.Status.IN_PROGRESS.getCode());
             appointmentRepository.updateById(appointment);
@@ -162,10 +195,12 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
         // 更新预约状态
         Appointment appointment = appointmentRepository.selectById(order.getAppointmentId());
         if (appointment != null) {
+            Integer oldStatus = appointment.getStatus();
             appointment.setStatus(Appointment.Status.CANCELLED.getCode());
             appointment.setCancelReason(reason);
             appointment.setCancelTime(LocalDateTime.now());
             appointmentRepository.updateById(appointment);
+            baySlotReservation.onStatusChanged(appointment, oldStatus);
         }
 
         return updateById(order);
@@ -210,40 +245,58 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
         // 更新预约状态
         Appointment appointment = appointmentRepository.selectById(order.getAppointmentId());
         if (appointment != null) {
+            Integer oldStatus = appointment.getStatus();
             appointment.setStatus(Appointment.Status.COMPLETED.getCode());
             appointmentRepository.updateById(appointment);
+            baySlotReservation.onStatusChanged(appointment, oldStatus);
         }
 
-        // 为用户添加经验值奖励
-        userMemberService.addExperienceForOrder(order.getUserId(), order.getFinalAmount(), order.getId());
+        // 经验值奖励和等级升级由订单完成事件异步处理
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("userId", order.getUserId());
+        payload.put("finalAmount", order.getFinalAmount());
+        orderEventDispatcher.publish(OrderEvent.ORDER_COMPLETED, order.getId(), payload);
 
         return updateById(order);
     }
 
     @Override
     public Page<Order> getUserOrders(Page<Order> page, Long userId, Integer status) {
-        QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        wrapper.eq("user_id", userId);
-
-        if (status != null) {
-            wrapper.eq("status", status);
-        }
-
+        QueryWrapper<Order> wrapper = ordersOf("user_id", userId, status);
         wrapper.orderByDesc("create_time");
         return page(page, wrapper);
     }
 
     @Override
     public Page<Order> getShopOrders(Page<Order> page, Long shopId, Integer status) {
+        QueryWrapper<Order> wrapper = ordersOf("shop_id", shopId, status);
+        wrapper.orderByDesc("create_time");
+        return page(page, wrapper);
+    }
+
+    @Override
+    public CursorPage<Order> getUserOrdersByCursor(String cursor, Integer size, Long userId, Integer status) {
+        return KeysetPager.page(baseMapper, ordersOf("user_id", userId, status), cursor, size,
+                Order::getCreateTime, Order::getId);
+    }
+
+    @Override
+    public CursorPage<Order> getShopOrdersByCursor(String cursor, Integer size, Long shopId, Integer status) {
+        return KeysetPager.page(baseMapper, ordersOf("shop_id", shopId, status), cursor, size,
+                Order::getCreateTime, Order::getId);
+    }
+
+    /**
+     * 按用户或门店过滤订单的查询条件
+     */
+    private QueryWrapper<Order> ordersOf(String ownerColumn, Long ownerId, Integer status) {
         QueryWrapper<Order> wrapper = new QueryWrapper<>();
-        wrapper.eq("shop_id", shopId);
+        wrapper.eq(ownerColumn, ownerId);
 
         if (status != null) {
             wrapper.eq("status", status);
         }
-
-        wrapper.orderByDesc("create_time");
-        return page(page, wrapper);
+        return wrapper;
     }
 
     @Override
@@ -278,7 +331,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
         Vehicle vehicle = vehicleRepository.selectById(appointment.getVehicleId());
 
         // 获取门店信息
-        Shop shop = shopRepository.selectById(order.getShopId());
+        Shop shop = referenceDataCache.getShop(order.getShopId());
 
         Map<String, Object> result = new HashMap<>();
         result.put("order", order);
@@ -318,37 +371,26 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
     public Map<String, Object> getOrderStats(Long shopId) {
         Map<String, Object> stats = new HashMap<>();
 
+        // 一次GROUP BY status查询得到各状态订单数、实付金额和今日数据
+        StatusHistogram histogram = StatusHistogram.of(
+                getBaseMapper().aggregateStatusByShop(shopId, TimeWindow.today().getStart()));
+
         // 总订单数
-        long totalCount = count(new QueryWrapper<Order>().eq("shop_id", shopId));
-        stats.put("totalCount", totalCount);
+        stats.put("totalCount", histogram.totalCount());
 
         // 各状态订单数
-        stats.put("pendingCount", count(new QueryWrapper<Order>()
-            .eq("shop_id", shopId).eq("status", Order.Status.PENDING.getCode())));
-        stats.put("inProgressCount", count(new QueryWrapper<Order>()
-            .eq("shop_id", shopId).eq("status", Order.Status.IN_PROGRESS.getCode())));
-        stats.put("completedCount", count(new QueryWrapper<Order>()
-            .eq("shop_id", shopId).eq("status", Order.Status.COMPLETED.getCode())));
-        stats.put("cancelledCount", count(new QueryWrapper<Order>()
-            .eq("shop_id", shopId).eq("status", Order.Status.CANCELLED.getCode())));
+        stats.put("pendingCount", histogram.count(Order.Status.PENDING.getCode()));
+        stats.put("inProgressCount", histogram.count(Order.Status.IN_PROGRESS.getCode()));
+        stats.put("completedCount", histogram.count(Order.Status.COMPLETED.getCode()));
+        stats.put("cancelledCount", histogram.count(Order.Status.CANCELLED.getCode()));
 
         // 今日订单数
-        stats.put("todayCount", count(new QueryWrapper<Order>()
-            .eq("shop_id", shopId)
-            .apply("DATE(create_time) = CURDATE()")));
+        stats.put("todayCount", histogram.totalRecentCount());
 
-        // 营业额统计
+        // 营业额统计（已完成订单的实付金额）
         Map<String, Object> revenue = new HashMap<>();
-        revenue.put("totalRevenue", getBaseMapper().selectList(
-            new QueryWrapper<Order>().eq("shop_id", shopId).eq("status", Order.Status.COMPLETED.getCode())
-        ).stream().mapToDouble(order -> order.getFinalAmount().doubleValue()).sum());
-
-        revenue.put("todayRevenue", getBaseMapper().selectList(
-            new QueryWrapper<Order>()
-                .eq("shop_id", shopId)
-                .eq("status", Order.Status.COMPLETED.getCode())
-                .apply("DATE(create_time) = CURDATE()")
-        ).stream().mapToDouble(order -> order.getFinalAmount().doubleValue()).sum());
+        revenue.put("totalRevenue", histogram.amount(Order.Status.COMPLETED.getCode()));
+        revenue.put("todayRevenue", histogram.recentAmount(Order.Status.COMPLETED.getCode()));
 
         stats.put("revenue", revenue);
 
@@ -357,20 +399,130 @@ public class OrderServiceImpl extends ServiceImpl<OrderRepository, Order> implem
 
     @Override
     public List<OrderVO> getUserOrdersWithDetails(Long userId, Integer status) {
-        return ((OrderRepository) getBaseMapper()).findUserOrdersWithDetails(userId, status);
+        return toDetailsInBatches(allOrders("user_id", userId, status));
     }
 
     @Override
     public List<OrderVO> getShopOrdersWithDetails(Long shopId, Integer status) {
-        return ((OrderRepository) getBaseMapper()).findShopOrdersWithDetails(shopId, status);
+        return toDetailsInBatches(allOrders("shop_id", shopId, status));
+    }
+
+    @Override
+    public CursorPage<OrderVO> getUserOrderDetailsByCursor(String cursor, Integer size, Long userId, Integer status) {
+        return toDetails(getUserOrdersByCursor(cursor, size, userId, status));
+    }
+
+    @Override
+    public CursorPage<OrderVO> getShopOrderDetailsByCursor(String cursor, Integer size, Long shopId, Integer status) {
+        return toDetails(getShopOrdersByCursor(cursor, size, shopId, status));
+    }
+
+    /**
+     * 全部订单，按(create_time, id)倒序
+     */
+    private List<Order> allOrders(String ownerColumn, Long ownerId, Integer status) {
+        QueryWrapper<Order> wrapper = ordersOf(ownerColumn, ownerId, status);
+        wrapper.orderByDesc("create_time", "id");
+        return list(wrapper);
+    }
+
+    private List<OrderVO> toDetailsInBatches(List<Order> orders) {
+        if (orders.size() <= detailsBatchSize) {
+            return toDetails(orders);
+        }
+        List<OrderVO> result = new ArrayList<>(orders.size());
+        for (int from = 0; from < orders.size(); from += detailsBatchSize) {
+            result.addAll(toDetails(orders.subList(from, Math.min(from + detailsBatchSize, orders.size()))));
+        }
+        return result;
+    }
+
+    private CursorPage<OrderVO> toDetails(CursorPage<Order> orderPage) {
+        CursorPage<OrderVO> page = new CursorPage<>();
+        page.setRecords(toDetails(orderPage.getRecords()));
+        page.setSize(orderPage.getSize());
+        page.setHasMore(orderPage.getHasMore());
+        page.setNextCursor(orderPage.getNextCursor());
+        return page;
     }
 
     /**
-     * 生成订单编号
+     * 为一页订单补充门店、车辆、预约、服务项目和技师信息
+     * 每种关联数据按ID集合批量查询一次，只查询展示用到的列，服务项目摘要按预约缓存
      */
-    private String generateOrderNo() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
-        return "ORD" + LocalDateTime.now().format(formatter) +
-               String.format("%03d", new Random().nextInt(1000));
+    private List<OrderVO> toDetails(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Shop> shops = AssociationLoader.loadByIds(orders, Order::getShopId, shopRepository, Shop::getId,
+                ShopRepository.CONTACT_COLUMNS);
+        Map<Long, Appointment> appointments = AssociationLoader.loadByIds(orders, Order::getAppointmentId,
+                appointmentRepository, Appointment::getId, AppointmentRepository.SCHEDULE_COLUMNS);
+        Map<Long, User> technicians = AssociationLoader.loadByIds(orders, Order::getTechnicianId, userRepository,
+                User::getId, UserRepository.NAME_COLUMNS);
+        Map<Long, String> summaries = serviceSummaryCache.getAll(appointments.keySet());
+
+        Set<Long> vehicleIds = new HashSet<>();
+        for (Appointment appointment : appointments.values()) {
+            if (appointment.getVehicleId() != null) {
+                vehicleIds.add(appointment.getVehicleId());
+            }
+        }
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        if (!vehicleIds.isEmpty()) {
+            for (Vehicle vehicle : vehicleRepository.findPlatesByIds(vehicleIds)) {
+                vehicles.put(vehicle.getId(), vehicle);
+            }
+        }
+
+        List<OrderVO> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            OrderVO vo = new OrderVO();
+            vo.setId(order.getId());
+            vo.setOrderNo(order.getOrderNo());
+            vo.setAppointmentId(order.getAppointmentId());
+            vo.setUserId(order.getUserId());
+            vo.setShopId(order.getShopId());
+            vo.setTotalAmount(order.getTotalAmount());
+            vo.setDiscountAmount(order.getDiscountAmount());
+            vo.setFinalAmount(order.getFinalAmount());
+            vo.setPaymentMethod(order.getPaymentMethod());
+            vo.setPaymentStatus(order.getPaymentStatus());
+            vo.setTechnicianId(order.getTechnicianId());
+            vo.setStartTime(order.getStartTime());
+            vo.setEndTime(order.getEndTime());
+            vo.setStatus(order.getStatus());
+            vo.setCreateTime(order.getCreateTime());
+            vo.setUpdateTime(order.getUpdateTime());
+
+            Shop shop = shops.get(order.getShopId());
+            if (shop != null) {
+                vo.setShopName(shop.getShopName());
+                vo.setShopAddress(shop.getAddress());
+                vo.setShopPhone(shop.getPhone());
+            }
+
+            Appointment appointment = order.getAppointmentId() != null ? appointments.get(order.getAppointmentId()) : null;
+            if (appointment != null) {
+                vo.setAppointmentDate(appointment.getAppointmentDate() != null
+                        ? appointment.getAppointmentDate().toString() : null);
+                vo.setAppointmentTime(appointment.getTimeSlot());
+                vo.setVehicleId(appointment.getVehicleId());
+                vo.setServiceItems(summaries.get(appointment.getId()));
+                Vehicle vehicle = appointment.getVehicleId() != null ? vehicles.get(appointment.getVehicleId()) : null;
+                if (vehicle != null) {
+                    vo.setVehicleBrand(vehicle.getBrand());
+                    vo.setVehicleModel(vehicle.getModel());
+                    vo.setLicensePlate(vehicle.getLicensePlate());
+                }
+            }
+
+            User technician = order.getTechnicianId() != null ? technicians.get(order.getTechnicianId()) : null;
+            if (technician != null) {
+                vo.setTechnicianName(technician.getRealName());
+            }
+            result.add(vo);
+        }
+        return result;
     }
 }
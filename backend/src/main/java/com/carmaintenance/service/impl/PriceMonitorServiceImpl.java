@@ -2,6 +2,7 @@ package com.carmaintenance.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.carmaintenance.cache.ReferenceDataCache;
 import com.carmaintenance.entity.PlatformGuidePrice;
 import com.carmaintenance.entity.PriceMonitorRecord;
 import com.carmaintenance.repository.PlatformGuidePriceRepository;
@@ -32,18 +33,25 @@ public class PriceMonitorServiceImpl implements PriceMonitorService {
     @Autowired
     private PriceMonitorRecordRepository monitorRecordRepository;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     // 价格偏差阈值（超过30%视为异常）
     private static final BigDecimal PRICE_DEVIATION_THRESHOLD = new BigDecimal("0.30");
 
     @Override
     public boolean saveGuidePrice(PlatformGuidePrice guidePrice) {
+        boolean result;
         if (guidePrice.getId() != null) {
             // 更新
-            return guidePriceRepository.updateById(guidePrice) > 0;
+            result = guidePriceRepository.updateById(guidePrice) > 0;
         } else {
             // 新增
-            return guidePriceRepository.insert(guidePrice) > 0;
+            result = guidePriceRepository.insert(guidePrice) > 0;
         }
+        // 写入之后再失效，避免并发读取在写入前把旧值重新加载进缓存
+        referenceDataCache.evictGuidePrices();
+        return result;
     }
 
     @Override
@@ -51,14 +59,16 @@ public class PriceMonitorServiceImpl implements PriceMonitorService {
         PlatformGuidePrice guidePrice = guidePriceRepository.selectById(id);
         if (guidePrice != null) {
             guidePrice.setStatus(0); // 设置为无效
-            return guidePriceRepository.updateById(guidePrice) > 0;
+            boolean result = guidePriceRepository.updateById(guidePrice) > 0;
+            referenceDataCache.evictGuidePrices();
+            return result;
         }
         return false;
     }
 
     @Override
     public List<PlatformGuidePrice> getAllGuidePrices() {
-        return guidePriceRepository.findAllActive();
+        return referenceDataCache.getActiveGuidePrices();
     }
 
     @Override
@@ -69,7 +79,7 @@ public class PriceMonitorServiceImpl implements PriceMonitorService {
     @Override
     public boolean checkServicePrice(Long shopId, String itemName, BigDecimal shopPrice) {
         // 查询平台指导价
-        PlatformGuidePrice guidePrice = guidePriceRepository.findByServiceName(itemName);
+        PlatformGuidePrice guidePrice = referenceDataCache.getGuidePrice(itemName);
         
         if (guidePrice == null) {
             logger.warn("未找到服务项目的指导价: {}", itemName);
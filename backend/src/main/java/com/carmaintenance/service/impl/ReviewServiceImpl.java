@@ -3,15 +3,19 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.dto.CursorPage;
 import com.carmaintenance.dto.ReviewDTO;
 import com.carmaintenance.entity.Order;
 import com.carmaintenance.entity.Review;
 import com.carmaintenance.entity.Shop;
+import com.carmaintenance.entity.ShopRatingStats;
 import com.carmaintenance.exception.BusinessException;
 import com.carmaintenance.repository.OrderRepository;
 import com.carmaintenance.repository.ReviewRepository;
+import com.carmaintenance.repository.ShopRatingStatsRepository;
 import com.carmaintenance.repository.ShopRepository;
 import com.carmaintenance.service.ReviewService;
+import com.carmaintenance.utils.KeysetPager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
@@ -39,6 +43,9 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
     @Autowired
     private ShopRepository shopRepository;
 
+    @Autowired
+    private ShopRatingStatsRepository shopRatingStatsRepository;
+
     @Override
     @Transactional
     public String createReview(ReviewDTO reviewDTO, Long userId) {
@@ -82,7 +89,7 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
 
         if (save(review)) {
             // 更新门店评分
-            updateShopRating(order.getShopId());
+            applyRatingDelta(review.getShopId(), overallRating, 1);
             logger.info("评价创建成功: userId={}, reviewId={}, orderId={}", userId, review.getId(), reviewDTO.getOrderId());
             return "评价成功";
         } else {
@@ -105,6 +112,13 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
             throw new BusinessException(403, "无权修改该评价");
         }
 
+        BigDecimal oldRating = existingReview.getOverallRating();
+
+        // 统计行须在写入评价前就存在：写入后才按评价表初始化会已包含新评分，再计入增量就重复了
+        if (isVisible(existingReview.getStatus())) {
+            getRatingStats(existingReview.getShopId());
+        }
+
         // 更新评价信息
         BeanUtils.copyProperties(reviewDTO, existingReview, "id", "userId", "orderId", "shopId", "createTime");
 
@@ -113,8 +127,11 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
         existingReview.setOverallRating(overallRating);
 
         if (updateById(existingReview)) {
-            // 更新门店评分
-            updateShopRating(existingReview.getShopId());
+            // 更新门店评分：减去旧评分，加上新评分
+            if (isVisible(existingReview.getStatus())) {
+                applyRatingDelta(existingReview.getShopId(), oldRating, -1);
+                applyRatingDelta(existingReview.getShopId(), overallRating, 1);
+            }
             return true;
         }
 
@@ -135,12 +152,29 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
             throw new BusinessException(403, "无权删除该评价");
         }
 
-        Long shopId = review.getShopId();
         boolean result = removeById(reviewId);
 
         // 更新门店评分
-        if (result) {
-            updateShopRating(shopId);
+        if (result && isVisible(review.getStatus())) {
+            applyRatingDelta(review.getShopId(), review.getOverallRating(), -1);
+        }
+
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public boolean adminDeleteReview(Long reviewId) {
+        Review review = getById(reviewId);
+        if (review == null) {
+            throw new BusinessException(404, "评价不存在");
+        }
+
+        boolean result = removeById(reviewId);
+
+        // 更新门店评分
+        if (result && isVisible(review.getStatus())) {
+            applyRatingDelta(review.getShopId(), review.getOverallRating(), -1);
         }
 
         return result;
@@ -163,6 +197,14 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
         return page(page, wrapper);
     }
 
+    @Override
+    public CursorPage<Review> getShopReviewsByCursor(String cursor, Integer size, Long shopId) {
+        QueryWrapper<Review> wrapper = new QueryWrapper<>();
+        wrapper.eq("shop_id", shopId);
+        wrapper.eq("status", 1); // 只显示公开的评价
+        return KeysetPager.page(baseMapper, wrapper, cursor, size, Review::getCreateTime, Review::getId);
+    }
+
     @Override
     public Review getReviewDetail(Long reviewId, Long userId, Integer userType) {
         Review review = getById(reviewId);
@@ -192,28 +234,20 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
     @Override
     public Map<String, Object> getShopReviewStats(Long shopId) {
         Map<String, Object> stats = new HashMap<>();
+        ShopRatingStats ratingStats = getRatingStats(shopId);
 
         // 总评价数
-        int totalCount = baseMapper.getReviewCount(shopId);
+        int totalCount = ratingStats.getRatingCount() != null ? ratingStats.getRatingCount() : 0;
         stats.put("totalCount", totalCount);
 
         // 平均评分
-        Double avgRating = baseMapper.getAverageRating(shopId);
-        if (avgRating != null) {
-            stats.put("averageRating", BigDecimal.valueOf(avgRating).setScale(2, RoundingMode.HALF_UP));
-        } else {
-            stats.put("averageRating", BigDecimal.ZERO);
-        }
+        stats.put("averageRating", ratingStats.getAverageRating());
 
         // 评分分布
         if (totalCount > 0) {
             Map<Integer, Long> ratingDistribution = new HashMap<>();
             for (int i = 1; i <= 5; i++) {
-                long count = count(new QueryWrapper<Review>()
-                        .eq("shop_id", shopId)
-                        .eq("status", 1)
-                        .eq("overall_rating", i));
-                ratingDistribution.put(i, count);
+                ratingDistribution.put(i, (long) ratingStats.getStarCount(i));
             }
             stats.put("ratingDistribution", ratingDistribution);
         }
@@ -229,17 +263,8 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
     @Override
     @Transactional
     public boolean updateShopRating(Long shopId) {
-        Double avgRating = baseMapper.getAverageRating(shopId);
-        Shop shop = shopRepository.selectById(shopId);
-
-        if (shop != null) {
-            shop.setRating(avgRating != null ?
-                BigDecimal.valueOf(avgRating).setScale(2, RoundingMode.HALF_UP) :
-                BigDecimal.valueOf(5.0));
-            return shopRepository.updateById(shop) > 0;
-        }
-
-        return false;
+        // 按评价表全量重新汇总，日常评分变更走增量更新，此方法仅用于修正统计偏差
+        return shopRatingStatsRepository.rebuildFromReviews(shopId) > 0;
     }
 
     @Override
@@ -256,17 +281,47 @@ public class ReviewServiceImpl extends ServiceImpl<ReviewRepository, Review> imp
             throw new BusinessException(404, "评价不存在");
         }
 
+        Integer oldStatus = review.getStatus();
         review.setStatus(status);
         boolean result = updateById(review);
 
-        // 如果隐藏评价，需要重新计算门店评分
-        if (result && (status == 0 || status == 1)) {
-            updateShopRating(review.getShopId());
+        // 显示状态变化时增减门店评分
+        if (result && isVisible(oldStatus) != isVisible(status)) {
+            applyRatingDelta(review.getShopId(), review.getOverallRating(), isVisible(status) ? 1 : -1);
         }
 
         return result;
     }
 
+    /**
+     * 读取门店评分统计，统计行不存在时先按评价表初始化
+     */
+    private ShopRatingStats getRatingStats(Long shopId) {
+        ShopRatingStats ratingStats = shopRatingStatsRepository.selectById(shopId);
+        if (ratingStats == null) {
+            shopRatingStatsRepository.initFromReviews(shopId);
+            ratingStats = shopRatingStatsRepository.selectById(shopId);
+        }
+        return ratingStats;
+    }
+
+    /**
+     * 将一条显示状态评价的综合评分计入(sign=1)或移出(sign=-1)门店评分统计。
+     * 需在评价写入之后调用：统计行不存在时按评价表汇总初始化，汇总结果已包含本次变更
+     */
+    private void applyRatingDelta(Long shopId, BigDecimal overallRating, int sign) {
+        BigDecimal rating = overallRating != null ? overallRating : BigDecimal.ZERO;
+        int star = ShopRatingStats.starOf(rating);
+        BigDecimal ratingDelta = sign > 0 ? rating : rating.negate();
+        if (shopRatingStatsRepository.applyDelta(shopId, star, sign, ratingDelta) == 0) {
+            shopRatingStatsRepository.initFromReviews(shopId);
+        }
+    }
+
+    private boolean isVisible(Integer status) {
+        return Integer.valueOf(1).equals(status);
+    }
+
     /**
      * 计算综合评分
      */
@@ -2,7 +2,11 @@ package com.carmaintenance.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.cache.CatalogVersions;
+import com.carmaintenance.dto.CategoryCount;
 import com.carmaintenance.dto.ServiceItemDTO;
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.dto.StatusHistogram;
 import com.carmaintenance.entity.ServiceItem;
 import com.carmaintenance.exception.BusinessException;
 import com.carmaintenance.repository.ServiceItemRepository;
@@ -10,9 +14,12 @@ import com.carmaintenance.service.ServiceItemService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +33,9 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
 
     private static final Logger logger = LoggerFactory.getLogger(ServiceItemServiceImpl.class);
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Override
     @Transactional
     public String addServiceItem(ServiceItemDTO itemDTO, Long shopId) {
@@ -37,6 +47,7 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
         item.setStatus(1); // 默认上架状态
 
         if (save(item)) {
+            catalogVersions.evictServiceItems(shopId);
             logger.info("服务项目添加成功: shopId={}, itemId={}, itemName={}", 
                        shopId, item.getId(), item.getItemName());
             return "服务项目添加成功";
@@ -61,6 +72,7 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
         }
 
         BeanUtils.copyProperties(itemDTO, existingItem, "id", "shopId", "createTime");
+        catalogVersions.evictServiceItems(shopId);
         return updateById(existingItem);
     }
 
@@ -78,6 +90,7 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
             throw new BusinessException(403, "无权操作该服务项目");
         }
 
+        catalogVersions.evictServiceItems(shopId);
         return removeById(itemId);
     }
 
@@ -129,7 +142,8 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
     @Transactional
     public boolean batchUpdateStatus(List<Long> itemIds, Integer status, Long shopId) {
         // 检查所有项目是否属于该门店
-        List<ServiceItem> items = listByIds(itemIds);
+        List<ServiceItem> items = list(new QueryWrapper<ServiceItem>()
+                .select(ServiceItemRepository.OWNER_COLUMNS).in("id", itemIds));
         for (ServiceItem item : items) {
             if (!item.getShopId().equals(shopId)) {
                 logger.warn("批量更新状态失败: 包含无权操作的项目, shopId={}, itemId={}", shopId, item.getId());
@@ -143,6 +157,7 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
             item.setStatus(status);
             updateById(item);
         }
+        catalogVersions.evictServiceItems(shopId);
 
         return true;
     }
@@ -151,46 +166,33 @@ public class ServiceItemServiceImpl extends ServiceImpl<ServiceItemRepository, S
     public Map<String, Object> getServiceItemStats(Long shopId) {
         Map<String, Object> stats = new HashMap<>();
 
+        // 一次GROUP BY status查询得到各状态项目数和价格统计
+        StatusHistogram histogram = StatusHistogram.of(getBaseMapper().aggregateStatusByShop(shopId));
+
         // 总项目数
-        long totalCount = count(new QueryWrapper<ServiceItem>().eq("shop_id", shopId));
-        stats.put("totalCount", totalCount);
+        stats.put("totalCount", histogram.totalCount());
 
         // 上架项目数
-        long activeCount = count(new QueryWrapper<ServiceItem>()
-                .eq("shop_id", shopId).eq("status", 1));
-        stats.put("activeCount", activeCount);
+        stats.put("activeCount", histogram.count(1));
 
         // 下架项目数
-        long inactiveCount = count(new QueryWrapper<ServiceItem>()
-                .eq("shop_id", shopId).eq("status", 0));
-        stats.put("inactiveCount", inactiveCount);
+        stats.put("inactiveCount", histogram.count(0));
 
         // 分类统计
-        List<ServiceItem> items = list(new QueryWrapper<ServiceItem>()
-                .eq("shop_id", shopId).eq("status", 1));
-        Map<String, Long> categoryStats = items.stream()
-                .collect(Collectors.groupingBy(ServiceItem::getCategory, Collectors.counting()));
+        Map<String, Long> categoryStats = new HashMap<>();
+        for (CategoryCount categoryCount : getBaseMapper().countActiveByCategory(shopId)) {
+            categoryStats.put(categoryCount.getCategory(), categoryCount.getTotal());
+        }
         stats.put("categoryStats", categoryStats);
 
-        // 价格统计
-        if (!items.isEmpty()) {
-            double avgPrice = items.stream()
-                    .mapToDouble(item -> item.getPrice().doubleValue())
-                    .average()
-                    .orElse(0.0);
-            double minPrice = items.stream()
-                    .mapToDouble(item -> item.getPrice().doubleValue())
-                    .min()
-                    .orElse(0.0);
-            double maxPrice = items.stream()
-                    .mapToDouble(item -> item.getPrice().doubleValue())
-                    .max()
-                    .orElse(0.0);
-
+        // 价格统计（上架项目）
+        StatusAggregate active = histogram.get(1);
+        if (active != null && histogram.count(1) > 0) {
             Map<String, Object> priceStats = new HashMap<>();
-            priceStats.put("avgPrice", avgPrice);
-            priceStats.put("minPrice", minPrice);
-            priceStats.put("maxPrice", maxPrice);
+            priceStats.put("avgPrice", histogram.amount(1)
+                    .divide(BigDecimal.valueOf(histogram.count(1)), 2, RoundingMode.HALF_UP));
+            priceStats.put("minPrice", active.getMinAmount());
+            priceStats.put("maxPrice", active.getMaxAmount());
             stats.put("priceStats", priceStats);
         }
 
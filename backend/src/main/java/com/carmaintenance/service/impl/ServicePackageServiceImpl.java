@@ -2,10 +2,13 @@ package com.carmaintenance.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.cache.CatalogVersions;
 import com.carmaintenance.dto.ServicePackageDTO;
+import com.carmaintenance.dto.StatusHistogram;
 import com.carmaintenance.entity.*;
 import com.carmaintenance.repository.*;
 import com.carmaintenance.service.ServicePackageService;
+import com.carmaintenance.utils.AssociationLoader;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -27,6 +30,9 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
     @Autowired
     private ServiceItemRepository serviceItemRepository;
 
+    @Autowired
+    private CatalogVersions catalogVersions;
+
     @Override
     @Transactional
     public String createServicePackage(ServicePackageDTO packageDTO, Long shopId) {
@@ -36,11 +42,15 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
         servicePackage.setShopId(shopId);
 
         if (save(servicePackage)) {
+            catalogVersions.evictServicePackages(shopId);
             // 添加套餐项目关联
             if (packageDTO.getItemIds() != null && !packageDTO.getItemIds().isEmpty()) {
+                Map<Long, ServiceItem> serviceItems = AssociationLoader.loadByIds(
+                        packageDTO.getItemIds(), serviceItemRepository, ServiceItem::getId,
+                        ServiceItemRepository.OWNER_COLUMNS);
                 for (Long itemId : packageDTO.getItemIds()) {
                     // 检查项目是否属于该门店
-                    ServiceItem item = serviceItemRepository.selectById(itemId);
+                    ServiceItem item = serviceItems.get(itemId);
                     if (item == null || !item.getShopId().equals(shopId)) {
                         throw new RuntimeException("项目ID " + itemId + " 不存在��无权操作");
                     }
@@ -75,6 +85,7 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
         BeanUtils.copyProperties(packageDTO, existingPackage, "id", "shopId", "createTime");
 
         if (updateById(existingPackage)) {
+            catalogVersions.evictServicePackages(shopId);
             // 更新套餐项目关联
             // 先删除原有关联
             packageItemRepository.delete(new QueryWrapper<PackageItem>()
@@ -82,9 +93,12 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
 
             // 添加新的关联
             if (packageDTO.getItemIds() != null && !packageDTO.getItemIds().isEmpty()) {
+                Map<Long, ServiceItem> serviceItems = AssociationLoader.loadByIds(
+                        packageDTO.getItemIds(), serviceItemRepository, ServiceItem::getId,
+                        ServiceItemRepository.OWNER_COLUMNS);
                 for (Long itemId : packageDTO.getItemIds()) {
                     // 检查项目是否属于该门店
-                    ServiceItem item = serviceItemRepository.selectById(itemId);
+                    ServiceItem item = serviceItems.get(itemId);
                     if (item == null || !item.getShopId().equals(shopId)) {
                         throw new RuntimeException("项目ID " + itemId + " 不存在或无权操作");
                     }
@@ -120,6 +134,7 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
                 .eq("package_id", packageId));
 
         // 删除套餐
+        catalogVersions.evictServicePackages(shopId);
         return removeById(packageId);
     }
 
@@ -159,7 +174,8 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
     @Transactional
     public boolean batchUpdatePackageStatus(List<Long> packageIds, Integer status, Long shopId) {
         // 检查所有套餐是否属于该门店
-        List<ServicePackage> packages = listByIds(packageIds);
+        List<ServicePackage> packages = list(new QueryWrapper<ServicePackage>()
+                .select(ServicePackageRepository.OWNER_COLUMNS).in("id", packageIds));
         for (ServicePackage packageItem : packages) {
             if (!packageItem.getShopId().equals(shopId)) {
                 throw new RuntimeException("包含无权操作的服务套餐");
@@ -172,6 +188,7 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
             packageItem.setStatus(status);
             updateById(packageItem);
         }
+        catalogVersions.evictServicePackages(shopId);
 
         return true;
     }
@@ -180,19 +197,17 @@ public class ServicePackageServiceImpl extends ServiceImpl<ServicePackageReposit
     public Map<String, Object> getServicePackageStats(Long shopId) {
         Map<String, Object> stats = new HashMap<>();
 
+        // 一次GROUP BY status查询得到各状态套餐数
+        StatusHistogram histogram = StatusHistogram.of(baseMapper.aggregateStatusByShop(shopId));
+
         // 总套餐数
-        long totalCount = count(new QueryWrapper<ServicePackage>().eq("shop_id", shopId));
-        stats.put("totalCount", totalCount);
+        stats.put("totalCount", histogram.totalCount());
 
         // 上架套餐数
-        long activeCount = count(new QueryWrapper<ServicePackage>()
-                .eq("shop_id", shopId).eq("status", 1));
-        stats.put("activeCount", activeCount);
+        stats.put("activeCount", histogram.count(1));
 
         // 下架套餐数
-        long inactiveCount = count(new QueryWrapper<ServicePackage>()
-                .eq("shop_id", shopId).eq("status", 0));
-        stats.put("inactiveCount", inactiveCount);
+        stats.put("inactiveCount", histogram.count(0));
 
         // 热门套餐
         List<ServicePackage> popularPackages = getPopularPackages(shopId);
@@ -3,6 +3,11 @@ package com.carmaintenance.service.impl;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.carmaintenance.booking.BaySlotLedger;
+import com.carmaintenance.cache.CatalogVersions;
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.cache.ShopLocationIndex;
+import com.carmaintenance.dto.NearbyShopVO;
 import com.carmaintenance.dto.ShopRegisterDTO;
 import com.carmaintenance.entity.Shop;
 import com.carmaintenance.entity.User;
@@ -10,15 +15,18 @@ import com.carmaintenance.exception.BusinessException;
 import com.carmaintenance.repository.ShopRepository;
 import com.carmaintenance.service.ShopService;
 import com.carmaintenance.service.UserService;
+import com.carmaintenance.utils.FullTextSearch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -29,12 +37,36 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
 
     private static final Logger logger = LoggerFactory.getLogger(ShopServiceImpl.class);
 
+    private static final int DEFAULT_NEARBY_RADIUS = 5000;
+
+    private static final int DEFAULT_NEARBY_LIMIT = 20;
+
+    private static final int MAX_NEARBY_LIMIT = 100;
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private ShopLocationIndex shopLocationIndex;
+
+    @Autowired
+    private BaySlotLedger baySlotLedger;
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    /**
+     * 附近门店查询的最大半径(米)
+     */
+    @Value("${shop.nearby.max-radius-meters:50000}")
+    private int maxNearbyRadius;
+
     @Override
     @Transactional
     public String registerShop(ShopRegisterDTO registerDTO) {
@@ -100,6 +132,8 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
 
         // 保存门店
         if (save(shop)) {
+            shopLocationIndex.rebuildAfterCommit();
+            catalogVersions.evictShop(shop.getId());
             logger.info("门店注册成功: shopName={}, shopId={}, userId={}", 
                        shop.getShopName(), shop.getId(), user.getId());
             return "门店注册成功，请等待管理员审核";
@@ -122,12 +156,25 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
         if (!StringUtils.hasText(keyword)) {
             return list(new QueryWrapper<Shop>().eq("status", 1).orderByDesc("create_time"));
         }
-        return baseMapper.searchShops(keyword);
+        if (FullTextSearch.isSearchable(keyword)) {
+            return baseMapper.searchShops(FullTextSearch.clean(keyword), FullTextSearch.toPhrase(keyword));
+        }
+        // 关键词短于分词长度，无法使用全文索引；与全文检索路径一致，排除逻辑删除的门店
+        return list(new QueryWrapper<Shop>().eq("status", 1).eq("deleted", 0)
+                .and(w -> w.like("shop_name", keyword.trim()).or().like("address", keyword.trim()))
+                .orderByDesc("create_time"));
     }
 
     @Override
     public Page<Shop> getShopPage(Page<Shop> page, String city, String keyword, Integer status) {
-        QueryWrapper<Shop> wrapper = new QueryWrapper<>();
+        if (FullTextSearch.isSearchable(keyword)) {
+            return baseMapper.searchShopPage(page, status != null ? status : 1,
+                    StringUtils.hasText(city) ? city : null,
+                    FullTextSearch.clean(keyword), FullTextSearch.toPhrase(keyword));
+        }
+
+        // 与全文检索路径一致，排除逻辑删除的门店
+        QueryWrapper<Shop> wrapper = new QueryWrapper<Shop>().eq("deleted", 0);
 
         // 按状态过滤
         if (status != null) {
@@ -153,6 +200,41 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
         return page(page, wrapper);
     }
 
+    @Override
+    public List<NearbyShopVO> getNearbyShops(Double latitude, Double longitude, Integer radius, Integer limit,
+                                             Integer status, BigDecimal minRating) {
+        if (latitude == null || longitude == null
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BusinessException(400, "经纬度不正确");
+        }
+        int radiusMeters = radius != null && radius > 0 ? Math.min(radius, maxNearbyRadius) : DEFAULT_NEARBY_RADIUS;
+        int size = limit != null && limit > 0 ? Math.min(limit, MAX_NEARBY_LIMIT) : DEFAULT_NEARBY_LIMIT;
+        Integer shopStatus = status != null ? status : 1;
+
+        List<ShopLocationIndex.Hit> hits = shopLocationIndex.nearest(latitude, longitude, radiusMeters, size,
+                shopStatus, minRating);
+        List<NearbyShopVO> result = new ArrayList<>(hits.size());
+        for (ShopLocationIndex.Hit hit : hits) {
+            Shop shop = referenceDataCache.getShop(hit.getShopId());
+            if (shop == null) {
+                continue;
+            }
+            NearbyShopVO vo = new NearbyShopVO();
+            vo.setShopId(shop.getId());
+            vo.setShopName(shop.getShopName());
+            vo.setAddress(shop.getAddress());
+            vo.setCity(shop.getCity());
+            vo.setPhone(shop.getPhone());
+            vo.setBusinessHours(shop.getBusinessHours());
+            vo.setLatitude(shop.getLatitude());
+            vo.setLongitude(shop.getLongitude());
+            vo.setRating(hit.getRating());
+            vo.setDistance((int) Math.round(hit.getDistance()));
+            result.add(vo);
+        }
+        return result;
+    }
+
     @Override
     @Transactional
     public boolean updateShopStatus(Long shopId, Integer status) {
@@ -163,6 +245,9 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
 
         shop.setStatus(status);
         boolean result = updateById(shop);
+        referenceDataCache.evictShop(shopId);
+        catalogVersions.evictShop(shopId);
+        shopLocationIndex.rebuildAfterCommit();
 
         // 如果审核通过，同时激活用户账号
         if (result && status == 1) {
@@ -181,6 +266,11 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
         return baseMapper.findByUserId(userId);
     }
 
+    @Override
+    public Shop getShopDetail(Long shopId) {
+        return referenceDataCache.getShop(shopId);
+    }
+
     @Override
     @Transactional
     public boolean updateShopInfo(Long shopId, Shop shop) {
@@ -203,7 +293,12 @@ public class ShopServiceImpl extends ServiceImpl<ShopRepository, Shop> implement
         existingShop.setDescription(shop.getDescription());
         existingShop.setLogoUrl(shop.getLogoUrl());
 
-        return updateById(existingShop);
+        boolean result = updateById(existingShop);
+        referenceDataCache.evictShop(shopId);
+        catalogVersions.evictShop(shopId);
+        baySlotLedger.evictShop(shopId);
+        shopLocationIndex.rebuildAfterCommit();
+        return result;
     }
 
     @Override
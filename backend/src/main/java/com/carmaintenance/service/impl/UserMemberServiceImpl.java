@@ -45,40 +45,19 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
     @Override
     @Transactional
     public String initUserMember(Long userId) {
-        // 检查用户是否已有会员信息
-        if (userMemberRepository.countByUserId(userId) > 0) {
+        // 创建初始会员信息（默认青铜会员），并发初始化时只有一次插入成功
+        if (userMemberRepository.insertIfAbsent(userId, 1) == 0) {
             return "用户会员信息已存在";
         }
-
-        // 创建初始会员信息
-        UserMember userMember = new UserMember();
-        userMember.setUserId(userId);
-        userMember.setLevelId(1); // 默认青铜会员
-        userMember.setTotalExperience(0);
-        userMember.setAvailableExperience(0);
-
-        if (save(userMember)) {
-            logger.info("用户会员信息初始化成功: userId={}", userId);
-            return "会员信息初始化成功";
-        } else {
-            logger.error("用户会员信息初始化失败: userId={}", userId);
-            throw new BusinessException(500, "会员信息初始化失败");
-        }
+        logger.info("用户会员信息初始化成功: userId={}", userId);
+        return "会员信息初始化成功";
     }
 
     @Override
     @Transactional
     public String addExperience(Long userId, Integer experience, Integer experienceType, Long orderId, String reason) {
-        UserMember userMember = getUserMemberByUserId(userId);
-        if (userMember == null) {
-            initUserMember(userId);
-            userMember = getUserMemberByUserId(userId);
-        }
-
-        // 更新经验值
-        userMember.setTotalExperience(userMember.getTotalExperience() + experience);
-        userMember.setAvailableExperience(userMember.getAvailableExperience() + experience);
-        updateById(userMember);
+        // 更新经验值并调整等级
+        UserMember userMember = applyExperience(userId, experience);
 
         // 记录经验变化
         ExperienceRecord record = new ExperienceRecord();
@@ -89,9 +68,6 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
         record.setReason(reason);
         experienceRecordRepository.insert(record);
 
-        // 检查并更新用户等级
-        memberLevelService.checkAndUpdateUserLevel(userId);
-
         logger.info("用户经验值增加成功: userId={}, experience={}, totalExp={}", 
                    userId, experience, userMember.getTotalExperience());
         return "经验值增加成功";
@@ -100,21 +76,17 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
     @Override
     @Transactional
     public String deductExperience(Long userId, Integer experience, String reason) {
-        UserMember userMember = getUserMemberByUserId(userId);
-        if (userMember == null) {
-            throw new BusinessException(404, "用户会员信息不存在");
-        }
-
-        if (userMember.getAvailableExperience() < experience) {
+        // 扣减经验值，可用经验值不足时不会更新
+        if (userMemberRepository.deductAvailableExperience(userId, experience) == 0) {
+            UserMember userMember = userMemberRepository.selectExperience(userId);
+            if (userMember == null) {
+                throw new BusinessException(404, "用户会员信息不存在");
+            }
             logger.warn("用户经验值扣减失败: 可用经验值不足, userId={}, available={}, deduct={}", 
                        userId, userMember.getAvailableExperience(), experience);
             throw new BusinessException(400, "可用经验值不足");
         }
 
-        // 扣减经验值
-        userMember.setAvailableExperience(userMember.getAvailableExperience() - experience);
-        updateById(userMember);
-
         // 记录经验变化
         ExperienceRecord record = new ExperienceRecord();
         record.setUserId(userId);
@@ -129,16 +101,8 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
     @Override
     @Transactional
     public String adjustExperience(Long userId, Integer experience, String reason) {
-        UserMember userMember = getUserMemberByUserId(userId);
-        if (userMember == null) {
-            initUserMember(userId);
-            userMember = getUserMemberByUserId(userId);
-        }
-
-        // 调整经验值
-        userMember.setTotalExperience(userMember.getTotalExperience() + experience);
-        userMember.setAvailableExperience(userMember.getAvailableExperience() + experience);
-        updateById(userMember);
+        // 调整经验值并调整等级
+        applyExperience(userId, experience);
 
         // 记录经验变化
         ExperienceRecord record = new ExperienceRecord();
@@ -148,9 +112,6 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
         record.setReason(reason);
         experienceRecordRepository.insert(record);
 
-        // 检查并更新用户等级
-        memberLevelService.checkAndUpdateUserLevel(userId);
-
         return "经验值调整成功";
     }
 
@@ -163,7 +124,7 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
         }
 
         // 获取等级信息
-        MemberLevel currentLevel = memberLevelService.getById(userMember.getLevelId());
+        MemberLevel currentLevel = memberLevelService.getLevelById(userMember.getLevelId());
 
         // 获取等级进度
         Map<String, Object> levelProgress = memberLevelService.getLevelProgress(userMember.getTotalExperience());
@@ -184,7 +145,7 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
             throw new BusinessException(404, "用户会员信息不存在");
         }
 
-        MemberLevel newLevel = memberLevelService.getById(newLevelId);
+        MemberLevel newLevel = memberLevelService.getLevelById(newLevelId);
         if (newLevel == null) {
             throw new BusinessException(404, "目标等级不存在");
         }
@@ -200,7 +161,7 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
             return originalAmount; // 非会员无折扣
         }
 
-        MemberLevel level = memberLevelService.getById(userMember.getLevelId());
+        MemberLevel level = memberLevelService.getLevelById(userMember.getLevelId());
         if (level == null || level.getDiscountRate() == null) {
             return originalAmount;
         }
@@ -238,7 +199,7 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
             throw new BusinessException(404, "用户会员信息不存在");
         }
 
-        MemberLevel currentLevel = memberLevelService.getById(userMember.getLevelId());
+        MemberLevel currentLevel = memberLevelService.getLevelById(userMember.getLevelId());
         List<MemberLevel> allLevels = memberLevelService.getAllLevels();
 
         Map<String, Object> result = new HashMap<>();
@@ -258,6 +219,24 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
         return result;
     }
 
+    /**
+     * 原子增加经验值（可为负数）并按更新后的总经验值调整等级，会员信息不存在时先初始化
+     */
+    private UserMember applyExperience(Long userId, int experience) {
+        if (userMemberRepository.incrementExperience(userId, experience) == 0) {
+            initUserMember(userId);
+            userMemberRepository.incrementExperience(userId, experience);
+        }
+
+        UserMember userMember = userMemberRepository.selectExperience(userId);
+        MemberLevel level = memberLevelService.getLevelByExperience(userMember.getTotalExperience());
+        if (level != null && !level.getId().equals(userMember.getLevelId())) {
+            userMemberRepository.updateLevel(userId, level.getId());
+            userMember.setLevelId(level.getId());
+        }
+        return userMember;
+    }
+
     /**
      * 根据用户ID获取用户会员信息
      */
@@ -267,15 +246,28 @@ public class UserMemberServiceImpl extends ServiceImpl<UserMemberRepository, Use
 
     /**
      * 订单完成后自动添加经验值
+     * 先写入经验记录：(订单, 类型)唯一，并发或重复投递时只有一次插入成功，其余直接跳过
      */
     @Transactional
     public void addExperienceForOrder(Long userId, BigDecimal orderAmount, Long orderId) {
         int experience = orderAmount.intValue() * EXPERIENCE_PER_YUAN;
-        if (experience > 0) {
-            addExperience(userId, experience,
-                    ExperienceRecord.ExperienceType.CONSUME.getCode(),
-                    orderId,
-                    "完成订单获得经验值");
+        if (experience <= 0) {
+            return;
         }
+
+        ExperienceRecord record = new ExperienceRecord();
+        record.setUserId(userId);
+        record.setOrderId(orderId);
+        record.setExperienceChange(experience);
+        record.setExperienceType(ExperienceRecord.ExperienceType.CONSUME.getCode());
+        record.setReason("完成订单获得经验值");
+        if (experienceRecordRepository.insertIfAbsent(record) == 0) {
+            logger.info("订单经验已发放，跳过: userId={}, orderId={}", userId, orderId);
+            return;
+        }
+
+        UserMember userMember = applyExperience(userId, experience);
+        logger.info("订单经验发放成功: userId={}, orderId={}, experience={}, totalExp={}",
+                   userId, orderId, experience, userMember.getTotalExperience());
     }
 }
\ No newline at end of file
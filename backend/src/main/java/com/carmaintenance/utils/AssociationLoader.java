@@ -0,0 +1,93 @@
+package com.carmaintenance.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 关联数据批量加载工具
+ * 先从列表中收集关联ID，每种实体只执行一次selectBatchIds，再在内存中按ID关联，
+ * 用于替代列表循环中逐条selectById的写法。只用到关联实体少数字段时传入列投影，未查询的字段为null
+ */
+public final class AssociationLoader {
+
+    private AssociationLoader() {
+    }
+
+    /**
+     * 按ID批量加载关联实体，返回ID到实体的映射；ID为空的行会被忽略
+     *
+     * @param rows      需要补充关联信息的列表
+     * @param idGetter  从列表行中取关联ID
+     * @param mapper    关联实体的Mapper
+     * @param keyGetter 从关联实体中取ID
+     */
+    public static <R, K extends Serializable, T> Map<K, T> loadByIds(Collection<R> rows,
+                                                                      Function<R, K> idGetter,
+                                                                      BaseMapper<T> mapper,
+                                                                      Function<T, K> keyGetter) {
+        return loadByIds(collectIds(rows, idGetter), mapper, keyGetter);
+    }
+
+    /**
+     * 按ID批量加载关联实体的指定列
+     *
+     * @param columns 查询的列，须包含主键列id
+     */
+    public static <R, K extends Serializable, T> Map<K, T> loadByIds(Collection<R> rows,
+                                                                      Function<R, K> idGetter,
+                                                                      BaseMapper<T> mapper,
+                                                                      Function<T, K> keyGetter,
+                                                                      String columns) {
+        return loadByIds(collectIds(rows, idGetter), mapper, keyGetter, columns);
+    }
+
+    /**
+     * 按ID集合批量加载实体，返回ID到实体的映射
+     */
+    public static <K extends Serializable, T> Map<K, T> loadByIds(Collection<K> ids,
+                                                                   BaseMapper<T> mapper,
+                                                                   Function<T, K> keyGetter) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return index(mapper.selectBatchIds(ids), keyGetter);
+    }
+
+    /**
+     * 按ID集合批量加载实体的指定列，返回ID到实体的映射
+     *
+     * @param columns 查询的列，须包含主键列id
+     */
+    public static <K extends Serializable, T> Map<K, T> loadByIds(Collection<K> ids,
+                                                                   BaseMapper<T> mapper,
+                                                                   Function<T, K> keyGetter,
+                                                                   String columns) {
+        if (ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return index(mapper.selectList(new QueryWrapper<T>().select(columns).in("id", ids)), keyGetter);
+    }
+
+    private static <R, K> Set<K> collectIds(Collection<R> rows, Function<R, K> idGetter) {
+        Set<K> ids = new LinkedHashSet<>();
+        for (R row : rows) {
+            K id = idGetter.apply(row);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static <K, T> Map<K, T> index(List<T> entities, Function<T, K> keyGetter) {
+        Map<K, T> result = new HashMap<>(entities.size() * 2);
+        for (T entity : entities) {
+            result.put(keyGetter.apply(entity), entity);
+        }
+        return result;
+    }
+}
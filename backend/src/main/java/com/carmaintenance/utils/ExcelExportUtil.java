@@ -1,17 +1,15 @@
 package com.carmaintenance.utils;
 
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.net.URLEncoder;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Excel导出工具类
- * 使用Apache POI实现Excel文件导出
+ * 使用Apache POI实现Excel文件导出，大数据量导出请直接使用StreamingExcelWriter
  */
 public class ExcelExportUtil {
 
@@ -29,63 +27,21 @@ public class ExcelExportUtil {
                                      List<Map<String, Object>> dataList, 
                                      HttpServletResponse response) throws IOException {
         
-        // 创建工作簿
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("数据");
-
-        // 创建表头样式
-        CellStyle headerStyle = createHeaderStyle(workbook);
-        
-        // 创建数据样式
-        CellStyle dataStyle = createDataStyle(workbook);
-
-        // 创建表头行
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < headers.size(); i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers.get(i));
-            cell.setCellStyle(headerStyle);
-            
-            // 自动调整列宽
-            sheet.setColumnWidth(i, 15 * 256); // 15个字符宽度
-        }
-
-        // 填充数据
-        int rowIndex = 1;
-        for (Map<String, Object> dataMap : dataList) {
-            Row row = sheet.createRow(rowIndex++);
-            int cellIndex = 0;
-            
-            for (String header : headers) {
-                Cell cell = row.createCell(cellIndex++);
-                Object value = dataMap.get(header);
-                
-                if (value != null) {
-                    if (value instanceof Number) {
-                        cell.setCellValue(((Number) value).doubleValue());
-                    } else {
-                        cell.setCellValue(value.toString());
-                    }
+        try (StreamingExcelWriter writer = new StreamingExcelWriter(headers)) {
+            for (Map<String, Object> dataMap : dataList) {
+                writer.newRow();
+                for (String header : headers) {
+                    writer.cell(dataMap.get(header));
                 }
-                cell.setCellStyle(dataStyle);
             }
+            writer.writeTo(response, fileName);
         }
-
-        // 设置响应头
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setCharacterEncoding("UTF-8");
-        String encodedFileName = URLEncoder.encode(fileName, "UTF-8").replaceAll("\\+", "%20");
-        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + encodedFileName + ".xlsx");
-
-        // 写入响应流
-        workbook.write(response.getOutputStream());
-        workbook.close();
     }
 
     /**
      * 创建表头样式
      */
-    private static CellStyle createHeaderStyle(Workbook workbook) {
+    static CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         
         // 设置背景色
@@ -114,7 +70,7 @@ public class ExcelExportUtil {
     /**
      * 创建数据样式
      */
-    private static CellStyle createDataStyle(Workbook workbook) {
+    static CellStyle createDataStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         
         // 设置边框
@@ -0,0 +1,43 @@
+package com.carmaintenance.utils;
+
+/**
+ * 全文检索关键词处理
+ * 门店、用户、公告的搜索列建有ngram解析器的FULLTEXT索引，
+ * 以布尔模式短语("关键词")过滤，要求关键词连续出现；以自然语言模式的相关度排序。
+ * 短于ngram长度的关键词无法通过全文索引匹配，由调用方回退到LIKE。
+ * 注意匹配范围并不总与LIKE '%关键词%'相同：建索引时innodb_ft_enable_stopword为ON（默认）时，
+ * ngram解析器会丢弃包含停用词的分词，而InnoDB默认停用词表含单字母a、i等，
+ * 含这些字符的关键词（如英文用户名、邮箱）可能查不到。需要与LIKE一致时，
+ * 应在innodb_ft_enable_stopword=OFF（或指定空的停用词表）下重建FULLTEXT索引
+ */
+public final class FullTextSearch {
+
+    /**
+     * ngram分词长度，与MySQL的ngram_token_size一致（默认2）
+     */
+    public static final int NGRAM_TOKEN_SIZE = 2;
+
+    private FullTextSearch() {
+    }
+
+    /**
+     * 去掉首尾空白和双引号，双引号在布尔模式中会截断短语
+     */
+    public static String clean(String keyword) {
+        return keyword == null ? "" : keyword.replace('"', ' ').trim();
+    }
+
+    /**
+     * 关键词是否可以走全文索引
+     */
+    public static boolean isSearchable(String keyword) {
+        return clean(keyword).length() >= NGRAM_TOKEN_SIZE;
+    }
+
+    /**
+     * 布尔模式短语
+     */
+    public static String toPhrase(String keyword) {
+        return "\"" + clean(keyword) + "\"";
+    }
+}
@@ -0,0 +1,17 @@
+package com.carmaintenance.utils;
+
+/**
+ * 业务编号生成器
+ */
+public interface IdGenerator {
+
+    /**
+     * 生成全局唯一且单调递增的数字ID
+     */
+    long nextId();
+
+    /**
+     * 生成带前缀的业务编号，格式为 前缀 + yyyyMMddHHmmss + 其余唯一部分
+     */
+    String nextNo(String prefix);
+}
@@ -1,16 +1,26 @@
 package com.carmaintenance.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT工具类
@@ -24,8 +34,53 @@ public class JwtUtils {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize = 10000;
+
+    private volatile SecretKey signingKey;
+
+    private volatile JwtParser jwtParser;
+
+    /**
+     * 已验签Token缓存，key为Token的SHA-256摘要，条目在Token的exp时间失效，超过上限时按使用频率淘汰
+     */
+    private volatile Cache<String, VerifiedClaims> claimsCache;
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
+    private Cache<String, VerifiedClaims> getClaimsCache() {
+        Cache<String, VerifiedClaims> cache = claimsCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = claimsCache;
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(cacheMaxSize)
+                            .expireAfter(new TokenExpiry())
+                            .build();
+                    claimsCache = cache;
+                }
+            }
+        }
+        return cache;
     }
 
     /**
@@ -104,13 +159,50 @@ public class JwtUtils {
      * 从Token中获取所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    /**
+     * 验签并一次性解析Token中的全部声明
+     * 同一Token在过期前只做一次签名校验，之后直接命中缓存；Token非法或已过期时抛出JwtException
+     */
+    public VerifiedClaims parseVerified(String token) {
+        Cache<String, VerifiedClaims> cache = getClaimsCache();
+        String key = digest(token);
+
+        VerifiedClaims cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = getAllClaimsFromToken(token);
+        VerifiedClaims verified = new VerifiedClaims(
+                Long.valueOf(claims.get("userId").toString()),
+                claims.getSubject(),
+                Integer.valueOf(claims.get("userType").toString()),
+                claims.getExpiration().getTime());
+
+        cache.put(key, verified);
+        return verified;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[hash.length * 2];
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = Character.forDigit((hash[i] >> 4) & 0xF, 16);
+                hex[i * 2 + 1] = Character.forDigit(hash[i] & 0xF, 16);
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
     /**
      * 检查Token是否过期
      */
@@ -126,4 +218,43 @@ public class JwtUtils {
         final String tokenUsername = getUsernameFromToken(token);
         return (tokenUsername.equals(username) && !isTokenExpired(token));
     }
-}
\ No newline at end of file
+
+    /**
+     * 已验签的Token声明
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class VerifiedClaims {
+
+        private final Long userId;
+        private final String username;
+        private final Integer userType;
+        private final long expirationMillis;
+
+        public boolean isExpired() {
+            return expirationMillis <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 缓存条目的存活时间为Token剩余的有效期，读取不延长
+     */
+    private static final class TokenExpiry implements Expiry<String, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedClaims value, long currentTime) {
+            long remaining = value.getExpirationMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
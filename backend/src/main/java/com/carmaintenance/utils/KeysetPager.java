@@ -0,0 +1,96 @@
+package com.carmaintenance.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.carmaintenance.dto.CursorPage;
+import com.carmaintenance.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 按(create_time, id)倒序的游标分页工具
+ * 以上一页最后一行的(create_time, id)作为起点向后查找，配合(过滤列, create_time, id)复合索引，
+ * 翻到多深都只扫描size+1行，也不需要COUNT查询。游标对调用方不透明
+ */
+public final class KeysetPager {
+
+    /**
+     * 每页条数上限
+     */
+    public static final int MAX_SIZE = 100;
+
+    private static final String SEPARATOR = "_";
+
+    private KeysetPager() {
+    }
+
+    /**
+     * 查询一页，wrapper中只需设置过滤条件，排序和LIMIT由此方法追加
+     *
+     * @param mapper      实体Mapper
+     * @param wrapper     过滤条件
+     * @param cursor      上一页返回的游标，首页传null
+     * @param size        每页条数
+     * @param timeGetter  取实体的create_time
+     * @param idGetter    取实体的id
+     */
+    public static <T> CursorPage<T> page(BaseMapper<T> mapper, QueryWrapper<T> wrapper, String cursor, Integer size,
+                                         Function<T, LocalDateTime> timeGetter, Function<T, Long> idGetter) {
+        int pageSize = size == null || size <= 0 ? 10 : Math.min(size, MAX_SIZE);
+        if (cursor != null && !cursor.isEmpty()) {
+            Position position = decode(cursor);
+            wrapper.and(w -> w.lt("create_time", position.createTime)
+                    .or(o -> o.eq("create_time", position.createTime).lt("id", position.id)));
+        }
+        wrapper.orderByDesc("create_time", "id");
+        wrapper.last("LIMIT " + (pageSize + 1));
+
+        List<T> rows = mapper.selectList(wrapper);
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        CursorPage<T> page = new CursorPage<>();
+        page.setRecords(rows);
+        page.setSize(pageSize);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            T last = rows.get(rows.size() - 1);
+            page.setNextCursor(encode(timeGetter.apply(last), idGetter.apply(last)));
+        }
+        return page;
+    }
+
+    private static String encode(LocalDateTime createTime, Long id) {
+        String raw = createTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(SEPARATOR);
+            return new Position(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new BusinessException(400, "无效的分页游标");
+        }
+    }
+
+    private static final class Position {
+
+        private final LocalDateTime createTime;
+
+        private final Long id;
+
+        private Position(LocalDateTime createTime, Long id) {
+            this.createTime = createTime;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.carmaintenance.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * 雪花算法编号生成器
+ * ID由41位毫秒时间戳、10位节点号和12位序列号组成，同一节点内严格递增。
+ * 时钟回拨时沿用上一次的时间戳继续分配序列号，序列号用尽后逻辑时钟前进1毫秒，不阻塞也不重复。
+ * 业务编号格式：前缀 + yyyyMMddHHmmss + 毫秒(3位) + 节点号(4位) + 序列号(4位)
+ */
+@Component
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeIdGenerator.class);
+
+    /**
+     * 起始时间 2023-01-01 00:00:00 UTC
+     */
+    private static final long EPOCH = 1672531200000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * 时钟回拨超过该毫秒数时记录告警
+     */
+    private static final long SKEW_WARN_MILLIS = 1000L;
+
+    private static final int DATE_TIME_DIGITS = 14;
+
+    private static final int SUFFIX_DIGITS = 3 + 4 + 4;
+
+    /**
+     * 节点号，未配置(-1)时由本机IP地址推导
+     */
+    @Value("${id.generator.node-id:-1}")
+    private long nodeId = -1;
+
+    private final LongSupplier clock;
+
+    private long lastTimestamp = -1L;
+
+    private long sequence;
+
+    /**
+     * 最近一秒的yyyyMMddHHmmss字符，同一秒内的编号共用
+     */
+    private volatile SecondDigits secondDigits = new SecondDigits(-1L, new char[DATE_TIME_DIGITS]);
+
+    public SnowflakeIdGenerator() {
+        this.clock = System::currentTimeMillis;
+    }
+
+    /**
+     * 指定节点号和时钟，用于测试
+     */
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (nodeId < 0) {
+            nodeId = deriveNodeId();
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("id.generator.node-id必须在0到" + MAX_NODE_ID + "之间");
+        }
+        logger.info("编号生成器节点号: {}", nodeId);
+    }
+
+    @Override
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now < lastTimestamp && lastTimestamp - now > SKEW_WARN_MILLIS) {
+            logger.warn("检测到时钟回拨: {}ms", lastTimestamp - now);
+        }
+
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            sequence = 0;
+        } else {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                lastTimestamp++;
+            }
+        }
+        return ((lastTimestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | sequence;
+    }
+
+    @Override
+    public String nextNo(String prefix) {
+        long id = nextId();
+        long millis = (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+        int node = (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+        int seq = (int) (id & SEQUENCE_MASK);
+
+        int prefixLength = prefix.length();
+        char[] buf = new char[prefixLength + DATE_TIME_DIGITS + SUFFIX_DIGITS];
+        prefix.getChars(0, prefixLength, buf, 0);
+        System.arraycopy(digitsOfSecond(millis / 1000), 0, buf, prefixLength, DATE_TIME_DIGITS);
+        int pos = prefixLength + DATE_TIME_DIGITS;
+        pos = writeDigits(buf, pos, (int) (millis % 1000), 3);
+        pos = writeDigits(buf, pos, node, 4);
+        writeDigits(buf, pos, seq, 4);
+        return new String(buf);
+    }
+
+    private char[] digitsOfSecond(long epochSecond) {
+        SecondDigits cached = secondDigits;
+        if (cached.epochSecond == epochSecond) {
+            return cached.digits;
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneId.systemDefault());
+        char[] digits = new char[DATE_TIME_DIGITS];
+        int pos = writeDigits(digits, 0, time.getYear(), 4);
+        pos = writeDigits(digits, pos, time.getMonthValue(), 2);
+        pos = writeDigits(digits, pos, time.getDayOfMonth(), 2);
+        pos = writeDigits(digits, pos, time.getHour(), 2);
+        pos = writeDigits(digits, pos, time.getMinute(), 2);
+        writeDigits(digits, pos, time.getSecond(), 2);
+        secondDigits = new SecondDigits(epochSecond, digits);
+        return digits;
+    }
+
+    /**
+     * 按固定宽度左补零写入十进制数字，返回写入后的位置
+     */
+    private static int writeDigits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static long deriveNodeId() {
+        try {
+            byte[] address = InetAddress.getLocalHost().getAddress();
+            return ((address[address.length - 2] & 0x03) << 8) | (address[address.length - 1] & 0xFF);
+        } catch (UnknownHostException e) {
+            logger.warn("获取本机地址失败，节点号使用0", e);
+            return 0;
+        }
+    }
+
+    private static final class SecondDigits {
+
+        private final long epochSecond;
+
+        private final char[] digits;
+
+        private SecondDigits(long epochSecond, char[] digits) {
+            this.epochSecond = epochSecond;
+            this.digits = digits;
+        }
+    }
+}
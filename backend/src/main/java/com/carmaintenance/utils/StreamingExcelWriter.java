@@ -0,0 +1,128 @@
+package com.carmaintenance.utils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 流式Excel写入器
+ * 基于SXSSF滑动窗口，内存中只保留最近的若干行，其余行刷到临时文件，
+ * 单元格按列位置依次写入，表头和数据样式在整个工作簿内共享
+ */
+public class StreamingExcelWriter implements Closeable {
+
+    /**
+     * 内存中保留的行数
+     */
+    private static final int WINDOW_SIZE = 200;
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final SXSSFWorkbook workbook;
+
+    private final SXSSFSheet sheet;
+
+    private final CellStyle dataStyle;
+
+    private volatile int rowIndex; // 只由写入线程修改，volatile便于其它线程读取进度
+
+    private Row currentRow;
+
+    private int cellIndex;
+
+    public StreamingExcelWriter(List<String> headers) {
+        this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet("数据");
+
+        CellStyle headerStyle = ExcelExportUtil.createHeaderStyle(workbook);
+        this.dataStyle = ExcelExportUtil.createDataStyle(workbook);
+
+        Row headerRow = sheet.createRow(rowIndex++);
+        for (int i = 0; i < headers.size(); i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers.get(i));
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(i, 15 * 256); // 15个字符宽度
+        }
+    }
+
+    /**
+     * 开始新的一行
+     */
+    public StreamingExcelWriter newRow() {
+        currentRow = sheet.createRow(rowIndex++);
+        cellIndex = 0;
+        return this;
+    }
+
+    /**
+     * 在当前行的下一列写入单元格
+     */
+    public StreamingExcelWriter cell(Object value) {
+        Cell cell = currentRow.createCell(cellIndex++);
+        if (value instanceof BigDecimal) {
+            cell.setCellValue(((BigDecimal) value).doubleValue());
+        } else if (value instanceof Number) {
+            cell.setCellValue(((Number) value).doubleValue());
+        } else if (value instanceof LocalDateTime) {
+            cell.setCellValue(DATE_TIME_FORMATTER.format((LocalDateTime) value));
+        } else if (value instanceof LocalDate) {
+            cell.setCellValue(DATE_FORMATTER.format((LocalDate) value));
+        } else if (value != null) {
+            cell.setCellValue(value.toString());
+        }
+        cell.setCellStyle(dataStyle);
+        return this;
+    }
+
+    /**
+     * 已写入的数据行数（不含表头）
+     */
+    public int getRowCount() {
+        return rowIndex - 1;
+    }
+
+    /**
+     * 写入输出流
+     */
+    public void write(OutputStream out) throws IOException {
+        workbook.write(out);
+        out.flush();
+    }
+
+    /**
+     * 设置下载响应头并写入HTTP响应
+     */
+    public void writeTo(HttpServletResponse response, String fileName) throws IOException {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("UTF-8");
+        String encodedFileName = URLEncoder.encode(fileName, "UTF-8").replaceAll("\\+", "%20");
+        response.setHeader("Content-Disposition", "attachment; filename*=UTF-8''" + encodedFileName + ".xlsx");
+        write(response.getOutputStream());
+    }
+
+    /**
+     * 释放工作簿并删除临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+}
@@ -0,0 +1,125 @@
+package com.carmaintenance.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 时间窗口
+ * 今天、本周、本月和自定义日期范围统一表示为左闭右开的[start, end)，"今天"按业务时区计算
+ * (默认GMT+8，与数据库连接的serverTimezone一致)。用作create_time等列的范围条件，
+ * 代替DATE(create_time) = CURDATE()这类对列套函数、无法使用索引的写法。start或end为null表示该侧不限
+ */
+public final class TimeWindow {
+
+    private static volatile ZoneId zone = ZoneId.of("GMT+8");
+
+    private static volatile Clock clock = Clock.systemUTC();
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private TimeWindow(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 设置业务时区，启动时由配置调用
+     */
+    public static void setZone(ZoneId businessZone) {
+        zone = businessZone;
+    }
+
+    public static ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 替换当前时刻来源，用于测试
+     */
+    static void setClock(Clock source) {
+        clock = source;
+    }
+
+    /**
+     * 业务时区的当前日期
+     */
+    public static LocalDate currentDate() {
+        return LocalDate.now(clock.withZone(zone));
+    }
+
+    public static TimeWindow today() {
+        return ofDay(currentDate());
+    }
+
+    /**
+     * 本周，周一开始
+     */
+    public static TimeWindow thisWeek() {
+        LocalDate monday = currentDate().with(DayOfWeek.MONDAY);
+        return ofDays(monday, monday.plusDays(6));
+    }
+
+    public static TimeWindow thisMonth() {
+        LocalDate today = currentDate();
+        return ofMonth(today.getYear(), today.getMonthValue());
+    }
+
+    public static TimeWindow ofDay(LocalDate day) {
+        return ofDays(day, day);
+    }
+
+    public static TimeWindow ofMonth(int year, int month) {
+        LocalDate first = LocalDate.of(year, month, 1);
+        return ofDays(first, first.plusMonths(1).minusDays(1));
+    }
+
+    /**
+     * [startDate, endDate]（含首尾两天），任一端为null表示不限
+     */
+    public static TimeWindow ofDays(LocalDate startDate, LocalDate endDate) {
+        return new TimeWindow(startDate != null ? startDate.atStartOfDay() : null,
+                endDate != null ? endDate.plusDays(1).atStartOfDay() : null);
+    }
+
+    /**
+     * [start, end)，任一端为null表示不限
+     */
+    public static TimeWindow between(LocalDateTime start, LocalDateTime end) {
+        return new TimeWindow(start, end);
+    }
+
+    /**
+     * 在条件构造器上追加 column >= start AND column < end
+     */
+    public <T> QueryWrapper<T> applyTo(QueryWrapper<T> wrapper, String column) {
+        wrapper.ge(start != null, column, start)
+                .lt(end != null, column, end);
+        return wrapper;
+    }
+
+    /**
+     * 起始时间（含），不限时为null
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * 结束时间（不含），不限时为null
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
@@ -0,0 +1,121 @@
+-- ============================================================
+-- V2 复合索引
+-- 按Repository中@Select语句和Service中QueryWrapper的实际查询条件建立复合索引，
+-- 并删除被复合索引最左前缀覆盖的单列索引。
+-- 脚本可重复执行：索引已存在时跳过创建，不存在时跳过删除，
+-- 因此对init_complete.sql新建的库和旧库都适用（旧库首次执行时按baselineOnMigrate建立V1基线）
+-- ============================================================
+
+DROP PROCEDURE IF EXISTS add_index_if_absent;
+DROP PROCEDURE IF EXISTS drop_index_if_exists;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_index_if_absent(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD INDEX `', p_index, '` (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE drop_index_if_exists(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` DROP INDEX `', p_index, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+
+-- users
+CALL add_index_if_absent('users', 'idx_type_create', 'user_type, create_time');  -- 用户列表按类型过滤、按注册时间排序
+CALL add_index_if_absent('users', 'idx_create_time', 'create_time');  -- 每日新增用户统计
+CALL drop_index_if_exists('users', 'idx_user_type');
+
+-- shops
+CALL add_index_if_absent('shops', 'idx_city_status_create', 'city, status, create_time');  -- 按城市查询正常门店
+CALL add_index_if_absent('shops', 'idx_status_create', 'status, create_time');  -- 门店列表按状态过滤、按创建时间排序
+CALL add_index_if_absent('shops', 'idx_create_time', 'create_time');  -- 每日新增门店统计
+CALL drop_index_if_exists('shops', 'idx_city');
+CALL drop_index_if_exists('shops', 'idx_status');
+
+-- vehicles
+CALL add_index_if_absent('vehicles', 'idx_user_plate', 'user_id, license_plate');  -- 车牌重复检查、用户车辆列表
+CALL drop_index_if_exists('vehicles', 'idx_user_id');
+
+-- user_members
+CALL add_index_if_absent('user_members', 'idx_create_time', 'create_time');  -- 每日新增会员统计
+
+-- experience_records
+CALL add_index_if_absent('experience_records', 'idx_user_create', 'user_id, create_time');  -- 用户经验记录
+CALL add_index_if_absent('experience_records', 'idx_order_type', 'order_id, experience_type');  -- 订单经验发放幂等检查
+CALL drop_index_if_exists('experience_records', 'idx_user_id');
+CALL drop_index_if_exists('experience_records', 'idx_order_id');
+
+-- service_items
+CALL add_index_if_absent('service_items', 'idx_shop_status_category_price', 'shop_id, status, category, price');  -- 门店服务项目列表
+CALL drop_index_if_exists('service_items', 'idx_shop_id');
+
+-- service_packages
+CALL add_index_if_absent('service_packages', 'idx_shop_status_price', 'shop_id, status, package_price');  -- 门店套餐列表
+CALL drop_index_if_exists('service_packages', 'idx_shop_id');
+
+-- appointments
+CALL add_index_if_absent('appointments', 'idx_shop_date_slot_status', 'shop_id, appointment_date, time_slot, status');  -- 时段占用计数、工位台账加载
+CALL add_index_if_absent('appointments', 'idx_shop_create', 'shop_id, create_time, id');  -- 门店预约列表
+CALL add_index_if_absent('appointments', 'idx_shop_status_create', 'shop_id, status, create_time, id');  -- 门店预约列表按状态过滤
+CALL add_index_if_absent('appointments', 'idx_user_create', 'user_id, create_time, id');  -- 用户预约列表
+CALL add_index_if_absent('appointments', 'idx_user_status', 'user_id, status');  -- 用户各状态预约数
+CALL add_index_if_absent('appointments', 'idx_appointment_no', 'appointment_no');  -- 按预约编号查询
+CALL add_index_if_absent('appointments', 'idx_create_time', 'create_time');  -- 每日新增预约统计
+CALL drop_index_if_exists('appointments', 'idx_user_id');
+CALL drop_index_if_exists('appointments', 'idx_shop_id');
+
+-- orders
+CALL add_index_if_absent('orders', 'idx_user_create', 'user_id, create_time, id');  -- 用户订单列表
+CALL add_index_if_absent('orders', 'idx_user_status_create', 'user_id, status, create_time, id');  -- 用户订单列表按状态过滤、各状态订单数
+CALL add_index_if_absent('orders', 'idx_shop_create', 'shop_id, create_time, id');  -- 门店订单列表
+CALL add_index_if_absent('orders', 'idx_shop_status_create', 'shop_id, status, create_time, id');  -- 门店订单列表按状态过滤、各状态订单数
+CALL add_index_if_absent('orders', 'idx_create_time', 'create_time, id');  -- 订单管理列表、每日订单统计
+CALL add_index_if_absent('orders', 'idx_status_create', 'status, create_time');  -- 门店营业额排行
+CALL drop_index_if_exists('orders', 'idx_user_id');
+CALL drop_index_if_exists('orders', 'idx_shop_id');
+CALL drop_index_if_exists('orders', 'idx_status');
+
+-- reviews
+CALL add_index_if_absent('reviews', 'idx_shop_status_deleted_create', 'shop_id, status, deleted, create_time, id');  -- 门店评价列表、评分统计
+CALL add_index_if_absent('reviews', 'idx_user_deleted_create', 'user_id, deleted, create_time');  -- 用户评价列表
+CALL add_index_if_absent('reviews', 'idx_status_deleted_create', 'status, deleted, create_time');  -- 每日新增评价统计
+CALL drop_index_if_exists('reviews', 'idx_shop_status_create');
+CALL drop_index_if_exists('reviews', 'idx_shop_id');
+
+-- announcements
+CALL add_index_if_absent('announcements', 'idx_status_deleted_priority', 'status, deleted, priority, create_time');  -- 有效公告、公告列表排序
+CALL drop_index_if_exists('announcements', 'idx_status');
+
+-- platform_guide_prices
+CALL add_index_if_absent('platform_guide_prices', 'idx_name_status', 'service_name, status');  -- 按服务名称查询指导价
+CALL add_index_if_absent('platform_guide_prices', 'idx_category_status', 'category, status');  -- 按分类查询指导价
+CALL add_index_if_absent('platform_guide_prices', 'idx_status_category_name', 'status, category, service_name');  -- 全部有效指导价
+CALL drop_index_if_exists('platform_guide_prices', 'idx_service_name');
+CALL drop_index_if_exists('platform_guide_prices', 'idx_category');
+CALL drop_index_if_exists('platform_guide_prices', 'idx_status');
+
+-- price_monitor_records
+CALL add_index_if_absent('price_monitor_records', 'idx_shop_create', 'shop_id, create_time');  -- 门店价格监控记录
+CALL add_index_if_absent('price_monitor_records', 'idx_shop_status', 'shop_id, status');  -- 门店异常价格计数
+CALL add_index_if_absent('price_monitor_records', 'idx_status_create', 'status, create_time');  -- 异常价格记录列表
+CALL drop_index_if_exists('price_monitor_records', 'idx_shop_id');
+CALL drop_index_if_exists('price_monitor_records', 'idx_status');
+
+DROP PROCEDURE add_index_if_absent;
+DROP PROCEDURE drop_index_if_exists;
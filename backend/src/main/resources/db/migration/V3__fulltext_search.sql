@@ -0,0 +1,29 @@
+-- ============================================================
+-- V3 全文索引
+-- 门店、用户、公告的关键词搜索由LIKE '%关键词%'改为ngram解析器的FULLTEXT索引，
+-- 需要MySQL 5.7.6及以上，分词长度取ngram_token_size（默认2）。
+-- 脚本可重复执行：索引已存在时跳过
+-- ============================================================
+
+DROP PROCEDURE IF EXISTS add_fulltext_if_absent;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_fulltext_if_absent(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD FULLTEXT INDEX `', p_index, '` (', p_columns, ') WITH PARSER ngram');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+CALL add_fulltext_if_absent('shops', 'ft_search', 'shop_name, address, description');
+CALL add_fulltext_if_absent('users', 'ft_search', 'username, real_name, email, phone');
+CALL add_fulltext_if_absent('announcements', 'ft_search', 'title, content');
+
+DROP PROCEDURE add_fulltext_if_absent;
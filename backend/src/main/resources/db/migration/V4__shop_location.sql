@@ -0,0 +1,27 @@
+-- ============================================================
+-- V4 门店坐标
+-- shops增加经纬度列，用于附近门店查询（内存网格索引，见ShopLocationIndex）。
+-- 脚本可重复执行：列已存在时跳过
+-- ============================================================
+
+DROP PROCEDURE IF EXISTS add_column_if_absent;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_column_if_absent(IN p_table VARCHAR(64), IN p_column VARCHAR(64), IN p_definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND column_name = p_column) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD COLUMN `', p_column, '` ', p_definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+CALL add_column_if_absent('shops', 'longitude', 'DECIMAL(10,7) COMMENT ''经度'' AFTER city');
+CALL add_column_if_absent('shops', 'latitude', 'DECIMAL(10,7) COMMENT ''纬度'' AFTER longitude');
+
+DROP PROCEDURE add_column_if_absent;
@@ -0,0 +1,13 @@
+-- ============================================================
+-- V5 指标位图
+-- 活跃用户（有订单的用户）集合以位图形式定期持久化，见UserMetrics。
+-- 脚本可重复执行：表已存在时跳过
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS metric_bitmaps (
+    name VARCHAR(50) PRIMARY KEY COMMENT '位图名称',
+    bitmap LONGBLOB NOT NULL COMMENT '位图数据(java.util.BitSet字节序)',
+    cardinality BIGINT NOT NULL DEFAULT 0 COMMENT '置位数',
+    watermark BIGINT NOT NULL DEFAULT 0 COMMENT '已合并到的源表最大ID',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='指标位图表';
@@ -0,0 +1,98 @@
+-- ============================================================
+-- V6 汇总、预约容量、订单事件和评分统计
+-- 补齐此前只写入init_complete.sql的表和索引：每日指标汇总与水位线、各表update_time索引、
+-- 预约时段容量、订单事件发件箱、门店评分统计。
+-- 脚本可重复执行：表和索引已存在时跳过，因此对init_complete.sql新建的库和旧库都适用
+-- ============================================================
+
+DROP PROCEDURE IF EXISTS add_index_if_absent;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_index_if_absent(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD INDEX `', p_index, '` (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+-- 每日指标汇总按update_time水位线增量刷新
+CALL add_index_if_absent('users', 'idx_update_time', 'update_time');
+CALL add_index_if_absent('shops', 'idx_update_time', 'update_time');
+CALL add_index_if_absent('user_members', 'idx_update_time', 'update_time');
+CALL add_index_if_absent('appointments', 'idx_update_time', 'update_time');
+CALL add_index_if_absent('orders', 'idx_update_time', 'update_time');
+CALL add_index_if_absent('reviews', 'idx_update_time', 'update_time');
+
+DROP PROCEDURE add_index_if_absent;
+
+CREATE TABLE IF NOT EXISTS daily_metrics (
+    metric_date DATE PRIMARY KEY COMMENT '统计日期',
+    order_count BIGINT DEFAULT 0 COMMENT '订单数',
+    pending_orders BIGINT DEFAULT 0 COMMENT '待服务订单数',
+    in_progress_orders BIGINT DEFAULT 0 COMMENT '进行中订单数',
+    completed_orders BIGINT DEFAULT 0 COMMENT '已完成订单数',
+    cancelled_orders BIGINT DEFAULT 0 COMMENT '已取消订单数',
+    order_revenue DECIMAL(14,2) DEFAULT 0 COMMENT '已完成订单营业额',
+    new_users BIGINT DEFAULT 0 COMMENT '新增用户数',
+    new_customers BIGINT DEFAULT 0 COMMENT '新增车主数',
+    new_shop_users BIGINT DEFAULT 0 COMMENT '新增门店用户数',
+    new_admins BIGINT DEFAULT 0 COMMENT '新增管理员数',
+    new_shops BIGINT DEFAULT 0 COMMENT '新增门店数',
+    new_members BIGINT DEFAULT 0 COMMENT '新增会员数',
+    new_reviews BIGINT DEFAULT 0 COMMENT '新增显示评价数',
+    new_appointments BIGINT DEFAULT 0 COMMENT '新增预约数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='每日指标汇总表';
+
+-- 汇总任务水位线表
+CREATE TABLE IF NOT EXISTS metric_watermarks (
+    name VARCHAR(50) PRIMARY KEY COMMENT '汇总任务名称',
+    watermark DATETIME NOT NULL COMMENT '已处理到的update_time'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='汇总任务水位线表';
+
+-- 预约时段容量表
+CREATE TABLE IF NOT EXISTS appointment_slot_capacity (
+    shop_id BIGINT NOT NULL COMMENT '门店ID',
+    appointment_date DATE NOT NULL COMMENT '预约日期',
+    time_slot VARCHAR(20) NOT NULL COMMENT '时间段',
+    capacity INT NOT NULL COMMENT '工位数',
+    reserved INT NOT NULL DEFAULT 0 COMMENT '已占用工位数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (shop_id, appointment_date, time_slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='预约时段容量表';
+
+-- 订单事件表（事务发件箱）
+CREATE TABLE IF NOT EXISTS order_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL COMMENT '事件类型',
+    order_id BIGINT NOT NULL COMMENT '订单ID',
+    payload TEXT COMMENT '事件内容JSON',
+    status TINYINT DEFAULT 0 COMMENT '状态: 0-待处理, 1-处理中, 2-已完成, 3-失败',
+    retry_count INT DEFAULT 0 COMMENT '重试次数',
+    next_retry_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '下次处理时间',
+    last_error VARCHAR(500) COMMENT '最近一次错误信息',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_type_order (event_type, order_id),
+    INDEX idx_status_retry (status, next_retry_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单事件表';
+
+-- 门店评分统计表（按评价增删改增量维护）
+CREATE TABLE IF NOT EXISTS shop_rating_stats (
+    shop_id BIGINT PRIMARY KEY COMMENT '门店ID',
+    rating_sum DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '显示状态评价的综合评分之和',
+    rating_count INT NOT NULL DEFAULT 0 COMMENT '显示状态评价数',
+    star_1 INT NOT NULL DEFAULT 0 COMMENT '1星评价数',
+    star_2 INT NOT NULL DEFAULT 0 COMMENT '2星评价数',
+    star_3 INT NOT NULL DEFAULT 0 COMMENT '3星评价数',
+    star_4 INT NOT NULL DEFAULT 0 COMMENT '4星评价数',
+    star_5 INT NOT NULL DEFAULT 0 COMMENT '5星评价数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='门店评分统计表';
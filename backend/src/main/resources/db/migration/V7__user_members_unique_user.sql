@@ -0,0 +1,46 @@
+-- ============================================================
+-- V7 会员信息按用户唯一
+-- 首次发放经验时的初始化改为INSERT IGNORE，依赖user_id唯一键避免并发时重复建行。
+-- 已有的重复行只保留总经验值最高（相同时ID最小）的一行。
+-- 脚本可重复执行：唯一键已存在时跳过创建，旧索引不存在时跳过删除
+-- ============================================================
+
+DELETE um FROM user_members um
+JOIN user_members keep ON keep.user_id = um.user_id
+    AND (keep.total_experience > um.total_experience
+         OR (keep.total_experience = um.total_experience AND keep.id < um.id));
+
+DROP PROCEDURE IF EXISTS add_unique_if_absent;
+DROP PROCEDURE IF EXISTS drop_index_if_exists;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_unique_if_absent(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD UNIQUE KEY `', p_index, '` (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE drop_index_if_exists(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` DROP INDEX `', p_index, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+CALL add_unique_if_absent('user_members', 'uk_user_id', 'user_id');
+CALL drop_index_if_exists('user_members', 'idx_user_id');
+
+DROP PROCEDURE add_unique_if_absent;
+DROP PROCEDURE drop_index_if_exists;
@@ -0,0 +1,47 @@
+-- ============================================================
+-- V8 订单经验记录按(订单, 类型)唯一
+-- 订单完成事件可能并发重复投递，发放经验时先INSERT IGNORE经验记录，依赖该唯一键判断是否已发放。
+-- 已有的重复记录只保留ID最小的一条（重复发放已计入会员经验值的部分需人工核对）。
+-- order_id为NULL的记录（投诉扣减、手动调整）不受唯一键约束。
+-- 脚本可重复执行：唯一键已存在时跳过创建，旧索引不存在时跳过删除
+-- ============================================================
+
+DELETE er FROM experience_records er
+JOIN experience_records keep ON keep.order_id = er.order_id
+    AND keep.experience_type = er.experience_type
+    AND keep.id < er.id;
+
+DROP PROCEDURE IF EXISTS add_unique_if_absent;
+DROP PROCEDURE IF EXISTS drop_index_if_exists;
+
+DELIMITER $$
+
+CREATE PROCEDURE add_unique_if_absent(IN p_table VARCHAR(64), IN p_index VARCHAR(64), IN p_columns VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                   WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` ADD UNIQUE KEY `', p_index, '` (', p_columns, ')');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+CREATE PROCEDURE drop_index_if_exists(IN p_table VARCHAR(64), IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = p_table AND index_name = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE `', p_table, '` DROP INDEX `', p_index, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END$$
+
+DELIMITER ;
+
+CALL add_unique_if_absent('experience_records', 'uk_order_type', 'order_id, experience_type');
+CALL drop_index_if_exists('experience_records', 'idx_order_type');
+
+DROP PROCEDURE add_unique_if_absent;
+DROP PROCEDURE drop_index_if_exists;
@@ -0,0 +1,215 @@
+package com.carmaintenance.booking;
+
+import com.carmaintenance.cache.ReferenceDataCache;
+import com.carmaintenance.entity.Shop;
+import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.repository.AppointmentRepository;
+import com.carmaintenance.utils.TimeWindow;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 工位预占并发测试
+ * 数据库条件更新用AtomicInteger模拟：已占用数小于门店当前工位数时才加一
+ */
+class BaySlotReservationTest {
+
+    private static final Long SHOP_ID = 1L;
+
+    private static final LocalDate DATE = TimeWindow.currentDate().plusDays(1);
+
+    private static final String SLOT = "09:00-09:30";
+
+    private final AtomicInteger shopBays = new AtomicInteger();
+
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    private BaySlotLedger ledger;
+
+    private BaySlotReservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.findByShopIdAndDate(anyLong(), any())).thenReturn(Collections.emptyList());
+        when(appointmentRepository.reserveSlot(anyLong(), any(), anyString(), anyInt())).thenAnswer(invocation -> {
+            while (true) {
+                int current = reserved.get();
+                if (current >= shopBays.get()) {
+                    return 0;
+                }
+                if (reserved.compareAndSet(current, current + 1)) {
+                    return 1;
+                }
+            }
+        });
+        when(appointmentRepository.releaseSlot(anyLong(), any(), anyString())).thenAnswer(invocation ->
+                reserved.getAndUpdate(current -> current > 0 ? current - 1 : current) > 0 ? 1 : 0);
+
+        ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+        when(referenceDataCache.getShop(SHOP_ID)).thenAnswer(invocation -> {
+            Shop shop = new Shop();
+            shop.setId(SHOP_ID);
+            shop.setShopBays(shopBays.get());
+            return shop;
+        });
+
+        ledger = new BaySlotLedger();
+        ReflectionTestUtils.setField(ledger, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(ledger, "referenceDataCache", referenceDataCache);
+        ReflectionTestUtils.setField(ledger, "defaultBays", 10);
+        ReflectionTestUtils.setField(ledger, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(ledger, "horizonDays", 7);
+        ReflectionTestUtils.setField(ledger, "maxSize", 100L);
+        ReflectionTestUtils.setField(ledger, "idleSeconds", 120L);
+        ledger.init();
+
+        reservation = new BaySlotReservation();
+        ReflectionTestUtils.setField(reservation, "baySlotLedger", ledger);
+        ReflectionTestUtils.setField(reservation, "appointmentRepository", appointmentRepository);
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedCapacity() throws Exception {
+        shopBays.set(3);
+
+        int successes = runConcurrently(64);
+
+        assertEquals(3, successes);
+        assertEquals(3, reserved.get());
+        assertFalse(ledger.isAvailable(SHOP_ID, DATE, SLOT));
+    }
+
+    @Test
+    void loweredBaysAreEnforcedBeforeLedgerReloads() throws Exception {
+        shopBays.set(5);
+        assertTrue(ledger.isAvailable(SHOP_ID, DATE, SLOT));
+        // 台账仍按5个工位计算，数据库条件以当前的2个工位为准
+        shopBays.set(2);
+
+        int successes = runConcurrently(32);
+
+        assertEquals(2, successes);
+        assertEquals(2, reserved.get());
+    }
+
+    @Test
+    void raisedBaysApplyAfterLedgerEviction() throws Exception {
+        shopBays.set(1);
+        assertEquals(1, runConcurrently(8));
+
+        shopBays.set(4);
+        ledger.evictShop(SHOP_ID);
+
+        assertEquals(3, runConcurrently(16));
+        assertEquals(4, reserved.get());
+    }
+
+    @Test
+    void rejectedReservationReturnsLedgerSlot() {
+        shopBays.set(2);
+        assertTrue(ledger.isAvailable(SHOP_ID, DATE, SLOT));
+        // 其它实例占满：数据库拒绝，回滚后内存台账应归还
+        reserved.set(2);
+
+        assertFalse(inTransaction(() -> reservation.reserve(SHOP_ID, DATE, SLOT)));
+        assertFalse(inTransaction(() -> reservation.reserve(SHOP_ID, DATE, SLOT)));
+
+        assertTrue(ledger.isAvailable(SHOP_ID, DATE, SLOT));
+    }
+
+    @Test
+    void releaseFreesSlotAfterCommit() throws Exception {
+        shopBays.set(2);
+        assertEquals(2, runConcurrently(8));
+
+        assertTrue(inTransaction(() -> reservation.release(SHOP_ID, DATE, SLOT)));
+
+        assertEquals(1, reserved.get());
+        assertTrue(ledger.isAvailable(SHOP_ID, DATE, SLOT));
+        assertEquals(1, runConcurrently(8));
+    }
+
+    @Test
+    void onlyKnownShopsWithinHorizonAreCached() {
+        shopBays.set(2);
+        Cache<?, ?> ledgers = (Cache<?, ?>) ReflectionTestUtils.getField(ledger, "ledgers");
+
+        ledger.getAvailableSlots(SHOP_ID, DATE.plusDays(30));
+        ledger.getAvailableSlots(SHOP_ID, DATE.minusDays(10));
+        ledger.getAvailableSlots(99L, DATE);
+        assertEquals(0, ledgers.estimatedSize());
+
+        ledger.getAvailableSlots(SHOP_ID, DATE);
+        assertEquals(1, ledgers.estimatedSize());
+    }
+
+    /**
+     * 多个线程同时在各自的事务中预占同一时段，返回成功数
+     */
+    private int runConcurrently(int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return inTransaction(() -> reservation.reserve(SHOP_ID, DATE, SLOT));
+                }));
+            }
+            start.countDown();
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+            return successes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 模拟事务：业务异常视为回滚，之后按结果回调事务同步
+     */
+    private static boolean inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        boolean committed = false;
+        List<TransactionSynchronization> synchronizations;
+        try {
+            action.run();
+            committed = true;
+        } catch (BusinessException e) {
+            // 时段已满
+        } finally {
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        return committed;
+    }
+}
@@ -0,0 +1,83 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.entity.MemberLevel;
+import com.carmaintenance.entity.PlatformGuidePrice;
+import com.carmaintenance.entity.Shop;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 缓存返回副本的逐字段拷贝测试：实体每个字段都赋上不同的值，拷贝后必须相等，
+ * 实体新增字段而拷贝方法未同步时失败
+ */
+class CachedEntityCopyTest {
+
+    @Test
+    void shopCopyCoversEveryField() throws Exception {
+        Shop source = populated(new Shop());
+        Shop copy = ReferenceDataCache.copyOf(source);
+
+        assertNotSame(source, copy);
+        assertEquals(source, copy);
+        assertNull(ReferenceDataCache.copyOf((Shop) null));
+    }
+
+    @Test
+    void guidePriceCopyCoversEveryField() throws Exception {
+        PlatformGuidePrice source = populated(new PlatformGuidePrice());
+        PlatformGuidePrice copy = ReferenceDataCache.copyOf(source);
+
+        assertNotSame(source, copy);
+        assertEquals(source, copy);
+        assertNull(ReferenceDataCache.copyOf((PlatformGuidePrice) null));
+    }
+
+    @Test
+    void memberLevelCopyCoversEveryField() throws Exception {
+        MemberLevel source = populated(new MemberLevel());
+        MemberLevel copy = MemberLevelTable.Snapshot.copyOf(source);
+
+        assertNotSame(source, copy);
+        assertEquals(source, copy);
+    }
+
+    /**
+     * 按字段顺序给每个实例字段赋不同的非空值
+     */
+    private static <T> T populated(T entity) throws IllegalAccessException {
+        int seed = 1;
+        for (Field field : entity.getClass().getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            field.set(entity, valueOf(field.getType(), seed++));
+        }
+        return entity;
+    }
+
+    private static Object valueOf(Class<?> type, int seed) {
+        if (type == Long.class) {
+            return (long) seed;
+        }
+        if (type == Integer.class) {
+            return seed;
+        }
+        if (type == String.class) {
+            return "value" + seed;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(seed + ".25");
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(seed);
+        }
+        throw new IllegalArgumentException("unsupported field type: " + type);
+    }
+}
@@ -0,0 +1,87 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.dto.ShopLocation;
+import com.carmaintenance.repository.ShopRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 附近门店查询基准：1万家门店均匀分布在约66公里见方的城区内，
+ * 分别测5公里半径的常规查询和覆盖全部门店的50公里半径查询，目标单次低于1毫秒。
+ * 运行：mvn test-compile 后以测试类路径执行本类的main方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShopLocationIndexBenchmark {
+
+    private static final int SHOP_COUNT = 10000;
+
+    private static final double CENTER_LATITUDE = 39.9;
+
+    private static final double CENTER_LONGITUDE = 116.4;
+
+    private ShopLocationIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ShopLocation> locations = new ArrayList<>(SHOP_COUNT);
+        for (int i = 0; i < SHOP_COUNT; i++) {
+            ShopLocation location = new ShopLocation();
+            location.setShopId((long) i + 1);
+            location.setLatitude(BigDecimal.valueOf(CENTER_LATITUDE - 0.3 + random.nextDouble() * 0.6));
+            location.setLongitude(BigDecimal.valueOf(CENTER_LONGITUDE - 0.3 + random.nextDouble() * 0.6));
+            location.setStatus(random.nextInt(10) == 0 ? 0 : 1);
+            int ratingCount = random.nextInt(50);
+            location.setRatingCount(ratingCount);
+            location.setRatingSum(BigDecimal.valueOf(ratingCount * (3 + random.nextDouble() * 2)));
+            locations.add(location);
+        }
+        ShopRepository shopRepository = mock(ShopRepository.class);
+        when(shopRepository.findAllLocations()).thenReturn(locations);
+
+        index = new ShopLocationIndex();
+        ReflectionTestUtils.setField(index, "shopRepository", shopRepository);
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.05);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<ShopLocationIndex.Hit> nearestWithin5Km() {
+        return index.nearest(CENTER_LATITUDE, CENTER_LONGITUDE, 5000, 20, 1, null);
+    }
+
+    @Benchmark
+    public List<ShopLocationIndex.Hit> nearestWithin5KmMinRating() {
+        return index.nearest(CENTER_LATITUDE, CENTER_LONGITUDE, 5000, 20, 1, new BigDecimal("4.5"));
+    }
+
+    @Benchmark
+    public List<ShopLocationIndex.Hit> nearestWithin50Km() {
+        return index.nearest(CENTER_LATITUDE, CENTER_LONGITUDE, 50000, 20, 1, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ShopLocationIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.carmaintenance.cache;
+
+import com.carmaintenance.dto.ShopLocation;
+import com.carmaintenance.repository.ShopRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 附近门店索引测试：半径、数量上限、状态和最低评分过滤
+ */
+class ShopLocationIndexTest {
+
+    /**
+     * 查询点靠近网格边角，附近门店分布在相邻的几个网格中
+     */
+    private static final double LATITUDE = 30.049;
+
+    private static final double LONGITUDE = 120.049;
+
+    private static final double METERS_PER_DEGREE = Math.PI * 6371008.8 / 180;
+
+    private ShopLocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<ShopLocation> locations = Arrays.asList(
+                shop(1L, 100, 0, 1, "4.8", 1),
+                shop(2L, 0, 500, 1, "8.0", 2),
+                shop(3L, -1000, 0, 0, "5.0", 1),
+                shop(4L, 0, -2000, 1, null, 0),
+                shop(5L, 20000, 0, 1, "5.0", 1),
+                shop(6L, 2000, 2000, 1, "9.2", 2));
+        ShopRepository shopRepository = mock(ShopRepository.class);
+        when(shopRepository.findAllLocations()).thenReturn(locations);
+
+        index = new ShopLocationIndex();
+        ReflectionTestUtils.setField(index, "shopRepository", shopRepository);
+        ReflectionTestUtils.setField(index, "cellDegrees", 0.05);
+    }
+
+    @Test
+    void returnsShopsWithinRadiusOrderedByDistance() {
+        List<ShopLocationIndex.Hit> hits = index.nearest(LATITUDE, LONGITUDE, 10000, 10, null, null);
+
+        assertEquals(Arrays.asList(1L, 2L, 3L, 4L, 6L), ids(hits));
+        assertEquals(100, hits.get(0).getDistance(), 1);
+        assertEquals(2828, hits.get(4).getDistance(), 10);
+    }
+
+    @Test
+    void radiusBoundaryExcludesFartherShops() {
+        assertEquals(Arrays.asList(1L, 2L), ids(index.nearest(LATITUDE, LONGITUDE, 600, 10, null, null)));
+        assertTrue(index.nearest(LATITUDE, LONGITUDE, 50, 10, null, null).isEmpty());
+    }
+
+    @Test
+    void limitKeepsOnlyTheNearestShops() {
+        assertEquals(Arrays.asList(1L, 2L), ids(index.nearest(LATITUDE, LONGITUDE, 10000, 2, null, null)));
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(index.nearest(LATITUDE, LONGITUDE, 10000, 3, 1, null)));
+    }
+
+    @Test
+    void statusFilterSkipsOtherStatuses() {
+        assertEquals(Arrays.asList(3L), ids(index.nearest(LATITUDE, LONGITUDE, 10000, 10, 0, null)));
+        assertEquals(Arrays.asList(1L, 2L, 4L, 6L), ids(index.nearest(LATITUDE, LONGITUDE, 10000, 10, 1, null)));
+    }
+
+    @Test
+    void minRatingIsInclusiveAndExcludesUnratedShops() {
+        assertEquals(Arrays.asList(1L, 6L),
+                ids(index.nearest(LATITUDE, LONGITUDE, 10000, 10, 1, new BigDecimal("4.5"))));
+        assertEquals(Arrays.asList(1L, 2L, 6L),
+                ids(index.nearest(LATITUDE, LONGITUDE, 10000, 10, 1, new BigDecimal("4.0"))));
+
+        List<ShopLocationIndex.Hit> hits = index.nearest(LATITUDE, LONGITUDE, 10000, 10, 1, null);
+        assertEquals(new BigDecimal("4.80"), hits.get(0).getRating());
+        assertNull(hits.get(2).getRating());
+    }
+
+    private static List<Long> ids(List<ShopLocationIndex.Hit> hits) {
+        return hits.stream().map(ShopLocationIndex.Hit::getShopId).collect(Collectors.toList());
+    }
+
+    /**
+     * 以查询点为原点，按向北、向东的米数放置门店
+     */
+    private static ShopLocation shop(Long id, double northMeters, double eastMeters, int status,
+                                     String ratingSum, int ratingCount) {
+        ShopLocation location = new ShopLocation();
+        location.setShopId(id);
+        location.setLatitude(BigDecimal.valueOf(LATITUDE + northMeters / METERS_PER_DEGREE));
+        location.setLongitude(BigDecimal.valueOf(LONGITUDE
+                + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(LATITUDE)))));
+        location.setStatus(status);
+        location.setRatingSum(ratingSum != null ? new BigDecimal(ratingSum) : null);
+        location.setRatingCount(ratingCount);
+        return location;
+    }
+}
@@ -0,0 +1,135 @@
+package com.carmaintenance.report;
+
+import com.carmaintenance.config.AuditTimeMetaObjectHandler;
+import com.carmaintenance.dto.OrderDailyAggregate;
+import com.carmaintenance.entity.DailyMetrics;
+import com.carmaintenance.entity.Order;
+import com.carmaintenance.repository.*;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 每日指标增量刷新测试
+ * orders表用内存列表模拟，按update_time查找变更日期、按日期和状态聚合，汇总表和水位线用Map保存
+ */
+class DailyMetricsRollupTest {
+
+    private final List<Order> orders = new ArrayList<>();
+
+    private final Map<LocalDate, DailyMetrics> rolledUp = new HashMap<>();
+
+    private final AtomicReference<LocalDateTime> watermark = new AtomicReference<>();
+
+    private DailyMetricsRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        DailyMetricsRepository dailyMetricsRepository = mock(DailyMetricsRepository.class);
+        when(dailyMetricsRepository.getWatermark(anyString())).thenAnswer(invocation -> watermark.get());
+        when(dailyMetricsRepository.saveWatermark(anyString(), any())).thenAnswer(invocation -> {
+            watermark.set(invocation.getArgument(1));
+            return 1;
+        });
+        when(dailyMetricsRepository.upsert(any())).thenAnswer(invocation -> {
+            DailyMetrics row = invocation.getArgument(0);
+            rolledUp.put(row.getMetricDate(), row);
+            return 1;
+        });
+        when(dailyMetricsRepository.findChangedDays(eq("orders"), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(1);
+            LocalDateTime until = invocation.getArgument(2);
+            return orders.stream()
+                    .filter(order -> order.getUpdateTime().isAfter(since) && !order.getUpdateTime().isAfter(until))
+                    .map(order -> order.getCreateTime().toLocalDate())
+                    .distinct()
+                    .collect(Collectors.toList());
+        });
+
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.aggregateByDayAndStatus(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime start = invocation.getArgument(0);
+            LocalDateTime end = invocation.getArgument(1);
+            Map<String, OrderDailyAggregate> groups = new HashMap<>();
+            for (Order order : orders) {
+                if (order.getCreateTime().isBefore(start) || !order.getCreateTime().isBefore(end)) {
+                    continue;
+                }
+                LocalDate day = order.getCreateTime().toLocalDate();
+                OrderDailyAggregate row = groups.computeIfAbsent(day + "|" + order.getStatus(), key -> {
+                    OrderDailyAggregate aggregate = new OrderDailyAggregate();
+                    aggregate.setDay(day);
+                    aggregate.setStatus(order.getStatus());
+                    aggregate.setOrderCount(0L);
+                    aggregate.setAmount(BigDecimal.ZERO);
+                    return aggregate;
+                });
+                row.setOrderCount(row.getOrderCount() + 1);
+                row.setAmount(row.getAmount().add(order.getFinalAmount()));
+            }
+            return new ArrayList<>(groups.values());
+        });
+
+        rollup = new DailyMetricsRollup();
+        ReflectionTestUtils.setField(rollup, "dailyMetricsRepository", dailyMetricsRepository);
+        ReflectionTestUtils.setField(rollup, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(rollup, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(rollup, "shopRepository", mock(ShopRepository.class));
+        ReflectionTestUtils.setField(rollup, "userMemberRepository", mock(UserMemberRepository.class));
+        ReflectionTestUtils.setField(rollup, "reviewRepository", mock(ReviewRepository.class));
+        ReflectionTestUtils.setField(rollup, "appointmentRepository", mock(AppointmentRepository.class));
+    }
+
+    @Test
+    void statusChangeOnOldOrderRebuildsItsCreationDay() {
+        LocalDateTime created = LocalDateTime.now().minusDays(10);
+        Order order = new Order();
+        order.setStatus(Order.Status.PENDING.getCode());
+        order.setFinalAmount(new BigDecimal("199.90"));
+        order.setCreateTime(created);
+        order.setUpdateTime(created);
+        orders.add(order);
+
+        ReflectionTestUtils.setField(rollup, "lagSeconds", 3600L);
+        rollup.refresh();
+        DailyMetrics before = rolledUp.get(created.toLocalDate());
+        assertEquals(1L, before.getPendingOrders().longValue());
+        assertEquals(0L, before.getCompletedOrders().longValue());
+
+        // 与getById后updateById相同：实体带着加载时的update_time，由填充器覆盖
+        order.setStatus(Order.Status.COMPLETED.getCode());
+        new AuditTimeMetaObjectHandler().updateFill(SystemMetaObject.forObject(order));
+        assertTrue(order.getUpdateTime().isAfter(watermark.get()));
+
+        ReflectionTestUtils.setField(rollup, "lagSeconds", -5L);
+        rollup.refresh();
+        DailyMetrics after = rolledUp.get(created.toLocalDate());
+        assertEquals(0L, after.getPendingOrders().longValue());
+        assertEquals(1L, after.getCompletedOrders().longValue());
+        assertEquals(0, new BigDecimal("199.90").compareTo(after.getOrderRevenue()));
+    }
+
+    @Test
+    void updateFillOverwritesLoadedUpdateTime() {
+        LocalDateTime loaded = LocalDateTime.of(2020, 1, 1, 8, 0);
+        Order order = new Order();
+        order.setUpdateTime(loaded);
+
+        new AuditTimeMetaObjectHandler().updateFill(SystemMetaObject.forObject(order));
+
+        assertTrue(order.getUpdateTime().isAfter(loaded));
+    }
+}
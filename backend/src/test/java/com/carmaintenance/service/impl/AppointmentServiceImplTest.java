@@ -0,0 +1,56 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.entity.Appointment;
+import com.carmaintenance.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 门店预约统计测试：一次GROUP BY status查询
+ */
+class AppointmentServiceImplTest {
+
+    private static final Long SHOP_ID = 5L;
+
+    @Test
+    void appointmentStatsUseOneGroupedQuery() {
+        AppointmentRepository repository = mock(AppointmentRepository.class);
+        when(repository.aggregateStatusByShop(eq(SHOP_ID), any())).thenReturn(Arrays.asList(
+                row(Appointment.Status.PENDING.getCode(), 4, 2),
+                row(Appointment.Status.IN_PROGRESS.getCode(), 1, 1),
+                row(Appointment.Status.CANCELLED.getCode(), 2, 0)));
+        AppointmentServiceImpl service = new AppointmentServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", repository);
+
+        Map<String, Object> stats = service.getAppointmentStats(SHOP_ID);
+
+        verify(repository, times(1)).aggregateStatusByShop(eq(SHOP_ID), any());
+        verify(repository, never()).selectCount(any());
+        verify(repository, never()).selectList(any());
+        verifyNoMoreInteractions(repository);
+
+        assertEquals(7L, stats.get("totalCount"));
+        assertEquals(4L, stats.get("pendingCount"));
+        assertEquals(1L, stats.get("inProgressCount"));
+        assertEquals(0L, stats.get("completedCount"));
+        assertEquals(2L, stats.get("cancelledCount"));
+        assertEquals(3L, stats.get("todayCount"));
+    }
+
+    private static StatusAggregate row(Integer status, long total, long recentTotal) {
+        StatusAggregate row = new StatusAggregate();
+        row.setStatus(status);
+        row.setTotal(total);
+        row.setRecentTotal(recentTotal);
+        return row;
+    }
+}
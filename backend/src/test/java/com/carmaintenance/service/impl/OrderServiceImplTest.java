@@ -0,0 +1,64 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.entity.Order;
+import com.carmaintenance.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 门店订单统计测试：一次GROUP BY status查询，金额为精确的DECIMAL合计
+ */
+class OrderServiceImplTest {
+
+    private static final Long SHOP_ID = 5L;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void orderStatsUseOneGroupedQueryWithExactRevenue() {
+        OrderRepository repository = mock(OrderRepository.class);
+        when(repository.aggregateStatusByShop(eq(SHOP_ID), any())).thenReturn(Arrays.asList(
+                row(Order.Status.PENDING.getCode(), 2, "30.00", 1, "10.00"),
+                row(Order.Status.COMPLETED.getCode(), 3, "0.30", 2, "0.20"),
+                row(Order.Status.CANCELLED.getCode(), 1, "99.99", 0, "0")));
+        OrderServiceImpl service = new OrderServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", repository);
+
+        Map<String, Object> stats = service.getOrderStats(SHOP_ID);
+
+        verify(repository, times(1)).aggregateStatusByShop(eq(SHOP_ID), any());
+        verify(repository, never()).selectCount(any());
+        verify(repository, never()).selectList(any());
+        verifyNoMoreInteractions(repository);
+
+        assertEquals(6L, stats.get("totalCount"));
+        assertEquals(2L, stats.get("pendingCount"));
+        assertEquals(0L, stats.get("inProgressCount"));
+        assertEquals(3L, stats.get("completedCount"));
+        assertEquals(1L, stats.get("cancelledCount"));
+        assertEquals(3L, stats.get("todayCount"));
+        Map<String, Object> revenue = (Map<String, Object>) stats.get("revenue");
+        // 0.1 + 0.2之类的金额按DECIMAL原样返回，不经过double
+        assertEquals(new BigDecimal("0.30"), revenue.get("totalRevenue"));
+        assertEquals(new BigDecimal("0.20"), revenue.get("todayRevenue"));
+    }
+
+    private static StatusAggregate row(Integer status, long total, String amount, long recentTotal, String recentAmount) {
+        StatusAggregate row = new StatusAggregate();
+        row.setStatus(status);
+        row.setTotal(total);
+        row.setAmount(new BigDecimal(amount));
+        row.setRecentTotal(recentTotal);
+        row.setRecentAmount(new BigDecimal(recentAmount));
+        return row;
+    }
+}
@@ -0,0 +1,163 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.dto.ReviewDTO;
+import com.carmaintenance.entity.Review;
+import com.carmaintenance.entity.ShopRatingStats;
+import com.carmaintenance.repository.ReviewRepository;
+import com.carmaintenance.repository.ShopRatingStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评价修改时门店评分统计测试
+ * reviews表和shop_rating_stats表用内存模拟：初始化按当前评价汇总，增量更新在统计行不存在时返回0
+ */
+class ReviewServiceImplTest {
+
+    private static final Long SHOP_ID = 3L;
+
+    private static final Long USER_ID = 9L;
+
+    private final Map<Long, Review> reviews = new HashMap<>();
+
+    private final AtomicReference<ShopRatingStats> stats = new AtomicReference<>();
+
+    private ReviewServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReviewRepository reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.selectById(any())).thenAnswer(invocation -> copy(reviews.get(invocation.<Long>getArgument(0))));
+        when(reviewRepository.updateById(any(Review.class))).thenAnswer(invocation -> {
+            Review review = invocation.getArgument(0);
+            reviews.put(review.getId(), copy(review));
+            return 1;
+        });
+
+        ShopRatingStatsRepository statsRepository = mock(ShopRatingStatsRepository.class);
+        when(statsRepository.selectById(any())).thenAnswer(invocation -> stats.get());
+        when(statsRepository.initFromReviews(anyLong())).thenAnswer(invocation -> {
+            if (stats.get() != null) {
+                return 0;
+            }
+            ShopRatingStats row = emptyStats();
+            for (Review review : reviews.values()) {
+                if (Integer.valueOf(1).equals(review.getStatus())) {
+                    add(row, ShopRatingStats.starOf(review.getOverallRating()), 1, review.getOverallRating());
+                }
+            }
+            stats.set(row);
+            return 1;
+        });
+        when(statsRepository.applyDelta(anyLong(), anyInt(), anyInt(), any())).thenAnswer(invocation -> {
+            ShopRatingStats row = stats.get();
+            if (row == null) {
+                return 0;
+            }
+            add(row, invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3));
+            return 1;
+        });
+
+        service = new ReviewServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", reviewRepository);
+        ReflectionTestUtils.setField(service, "shopRatingStatsRepository", statsRepository);
+    }
+
+    @Test
+    void firstEditWithoutStatsRowCountsNewRatingOnce() {
+        Review review = new Review();
+        review.setId(1L);
+        review.setUserId(USER_ID);
+        review.setShopId(SHOP_ID);
+        review.setOverallRating(new BigDecimal("4.00"));
+        review.setStatus(1);
+        reviews.put(review.getId(), review);
+
+        assertTrue(service.updateReview(1L, ratings(2), USER_ID));
+
+        ShopRatingStats row = stats.get();
+        assertEquals(1, row.getRatingCount().intValue());
+        assertEquals(0, new BigDecimal("2.00").compareTo(row.getRatingSum()));
+        assertEquals(1, row.getStar2().intValue());
+        assertEquals(0, row.getStar4().intValue());
+    }
+
+    @Test
+    void editWithExistingStatsRowMovesRating() {
+        Review review = new Review();
+        review.setId(1L);
+        review.setUserId(USER_ID);
+        review.setShopId(SHOP_ID);
+        review.setOverallRating(new BigDecimal("4.00"));
+        review.setStatus(1);
+        reviews.put(review.getId(), review);
+        ShopRatingStats row = emptyStats();
+        add(row, 4, 1, new BigDecimal("4.00"));
+        stats.set(row);
+
+        assertTrue(service.updateReview(1L, ratings(5), USER_ID));
+
+        assertEquals(1, row.getRatingCount().intValue());
+        assertEquals(0, new BigDecimal("5.00").compareTo(row.getRatingSum()));
+        assertEquals(0, row.getStar4().intValue());
+        assertEquals(1, row.getStar5().intValue());
+    }
+
+    private static ReviewDTO ratings(int rating) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setTechnicianRating(rating);
+        dto.setServiceRating(rating);
+        dto.setPriceRating(rating);
+        dto.setEnvironmentRating(rating);
+        return dto;
+    }
+
+    private static ShopRatingStats emptyStats() {
+        ShopRatingStats row = new ShopRatingStats();
+        row.setShopId(SHOP_ID);
+        row.setRatingSum(BigDecimal.ZERO);
+        row.setRatingCount(0);
+        row.setStar1(0);
+        row.setStar2(0);
+        row.setStar3(0);
+        row.setStar4(0);
+        row.setStar5(0);
+        return row;
+    }
+
+    private static void add(ShopRatingStats row, int star, int countDelta, BigDecimal ratingDelta) {
+        row.setRatingSum(row.getRatingSum().add(ratingDelta));
+        row.setRatingCount(row.getRatingCount() + countDelta);
+        switch (star) {
+            case 1: row.setStar1(row.getStar1() + countDelta); break;
+            case 2: row.setStar2(row.getStar2() + countDelta); break;
+            case 3: row.setStar3(row.getStar3() + countDelta); break;
+            case 4: row.setStar4(row.getStar4() + countDelta); break;
+            default: row.setStar5(row.getStar5() + countDelta); break;
+        }
+    }
+
+    private static Review copy(Review review) {
+        if (review == null) {
+            return null;
+        }
+        Review copy = new Review();
+        copy.setId(review.getId());
+        copy.setUserId(review.getUserId());
+        copy.setShopId(review.getShopId());
+        copy.setOverallRating(review.getOverallRating());
+        copy.setStatus(review.getStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,66 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.dto.CategoryCount;
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.repository.ServiceItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 服务项目统计测试：状态直方图和分类计数两次查询，价格统计为精确的DECIMAL
+ */
+class ServiceItemServiceImplTest {
+
+    private static final Long SHOP_ID = 5L;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itemStatsUseHistogramAndCategoryQueriesOnly() {
+        ServiceItemRepository repository = mock(ServiceItemRepository.class);
+        when(repository.aggregateStatusByShop(SHOP_ID)).thenReturn(Arrays.asList(
+                row(1, 3, "0.30", "0.10", "0.10"),
+                row(0, 2, "500.00", "200.00", "300.00")));
+        CategoryCount category = new CategoryCount();
+        category.setCategory("保养");
+        category.setTotal(3L);
+        when(repository.countActiveByCategory(SHOP_ID)).thenReturn(Collections.singletonList(category));
+        ServiceItemServiceImpl service = new ServiceItemServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", repository);
+
+        Map<String, Object> stats = service.getServiceItemStats(SHOP_ID);
+
+        verify(repository, times(1)).aggregateStatusByShop(SHOP_ID);
+        verify(repository, times(1)).countActiveByCategory(SHOP_ID);
+        verify(repository, never()).selectCount(any());
+        verify(repository, never()).selectList(any());
+        verifyNoMoreInteractions(repository);
+
+        assertEquals(5L, stats.get("totalCount"));
+        assertEquals(3L, stats.get("activeCount"));
+        assertEquals(2L, stats.get("inactiveCount"));
+        assertEquals(3L, ((Map<String, Long>) stats.get("categoryStats")).get("保养").longValue());
+        Map<String, Object> priceStats = (Map<String, Object>) stats.get("priceStats");
+        assertEquals(new BigDecimal("0.10"), priceStats.get("avgPrice"));
+        assertEquals(new BigDecimal("0.10"), priceStats.get("minPrice"));
+        assertEquals(new BigDecimal("0.10"), priceStats.get("maxPrice"));
+    }
+
+    private static StatusAggregate row(Integer status, long total, String amount, String min, String max) {
+        StatusAggregate row = new StatusAggregate();
+        row.setStatus(status);
+        row.setTotal(total);
+        row.setAmount(new BigDecimal(amount));
+        row.setMinAmount(new BigDecimal(min));
+        row.setMaxAmount(new BigDecimal(max));
+        return row;
+    }
+}
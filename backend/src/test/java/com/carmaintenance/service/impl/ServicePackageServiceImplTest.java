@@ -0,0 +1,50 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.dto.StatusAggregate;
+import com.carmaintenance.repository.ServicePackageRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 服务套餐统计测试：一次GROUP BY status查询，另有热门套餐查询
+ */
+class ServicePackageServiceImplTest {
+
+    private static final Long SHOP_ID = 5L;
+
+    @Test
+    void packageStatsUseOneGroupedQuery() {
+        ServicePackageRepository repository = mock(ServicePackageRepository.class);
+        when(repository.aggregateStatusByShop(SHOP_ID)).thenReturn(Arrays.asList(row(1, 4), row(0, 1)));
+        when(repository.findPopularPackages(SHOP_ID)).thenReturn(Collections.emptyList());
+        ServicePackageServiceImpl service = new ServicePackageServiceImpl();
+        ReflectionTestUtils.setField(service, "baseMapper", repository);
+
+        Map<String, Object> stats = service.getServicePackageStats(SHOP_ID);
+
+        verify(repository, times(1)).aggregateStatusByShop(SHOP_ID);
+        verify(repository, times(1)).findPopularPackages(SHOP_ID);
+        verify(repository, never()).selectCount(any());
+        verify(repository, never()).selectList(any());
+        verifyNoMoreInteractions(repository);
+
+        assertEquals(5L, stats.get("totalCount"));
+        assertEquals(4L, stats.get("activeCount"));
+        assertEquals(1L, stats.get("inactiveCount"));
+    }
+
+    private static StatusAggregate row(Integer status, long total) {
+        StatusAggregate row = new StatusAggregate();
+        row.setStatus(status);
+        row.setTotal(total);
+        return row;
+    }
+}
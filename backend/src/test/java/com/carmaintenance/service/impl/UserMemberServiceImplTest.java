@@ -0,0 +1,232 @@
+package com.carmaintenance.service.impl;
+
+import com.carmaintenance.entity.ExperienceRecord;
+import com.carmaintenance.entity.UserMember;
+import com.carmaintenance.exception.BusinessException;
+import com.carmaintenance.repository.ExperienceRecordRepository;
+import com.carmaintenance.repository.UserMemberRepository;
+import com.carmaintenance.service.MemberLevelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 经验值并发发放与扣减测试
+ * user_members用按user_id唯一的ConcurrentHashMap模拟：INSERT IGNORE对应putIfAbsent，
+ * 原子增加和带条件的原子扣减对应computeIfPresent；
+ * experience_records的(订单, 类型)唯一键用并发Set模拟
+ */
+class UserMemberServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final ConcurrentMap<Long, UserMember> rows = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inserts = new AtomicInteger();
+
+    private final Set<String> orderRecords = ConcurrentHashMap.newKeySet();
+
+    private ExperienceRecordRepository recordRepository;
+
+    private UserMemberServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        UserMemberRepository repository = mock(UserMemberRepository.class);
+        when(repository.insertIfAbsent(anyLong(), anyInt())).thenAnswer(invocation -> {
+            UserMember row = new UserMember();
+            row.setUserId(invocation.getArgument(0));
+            row.setLevelId(invocation.getArgument(1));
+            row.setTotalExperience(0);
+            row.setAvailableExperience(0);
+            if (rows.putIfAbsent(row.getUserId(), row) != null) {
+                return 0;
+            }
+            inserts.incrementAndGet();
+            return 1;
+        });
+        when(repository.incrementExperience(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int experience = invocation.getArgument(1);
+            UserMember updated = rows.computeIfPresent(invocation.getArgument(0), (id, row) -> {
+                UserMember next = copy(row);
+                next.setTotalExperience(row.getTotalExperience() + experience);
+                next.setAvailableExperience(row.getAvailableExperience() + experience);
+                return next;
+            });
+            return updated != null ? 1 : 0;
+        });
+        when(repository.deductAvailableExperience(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int experience = invocation.getArgument(1);
+            AtomicBoolean deducted = new AtomicBoolean();
+            rows.computeIfPresent(invocation.getArgument(0), (id, row) -> {
+                if (row.getAvailableExperience() < experience) {
+                    return row;
+                }
+                deducted.set(true);
+                UserMember next = copy(row);
+                next.setAvailableExperience(row.getAvailableExperience() - experience);
+                return next;
+            });
+            return deducted.get() ? 1 : 0;
+        });
+        when(repository.selectExperience(anyLong())).thenAnswer(invocation -> {
+            UserMember row = rows.get(invocation.getArgument(0));
+            return row != null ? copy(row) : null;
+        });
+
+        recordRepository = mock(ExperienceRecordRepository.class);
+        when(recordRepository.insertIfAbsent(any(ExperienceRecord.class))).thenAnswer(invocation -> {
+            ExperienceRecord record = invocation.getArgument(0);
+            return orderRecords.add(record.getOrderId() + "|" + record.getExperienceType()) ? 1 : 0;
+        });
+
+        service = new UserMemberServiceImpl();
+        ReflectionTestUtils.setField(service, "userMemberRepository", repository);
+        ReflectionTestUtils.setField(service, "memberLevelService", mock(MemberLevelService.class));
+        ReflectionTestUtils.setField(service, "experienceRecordRepository", recordRepository);
+    }
+
+    @Test
+    void concurrentFirstAccrualsCreateOneRowAndKeepEveryIncrement() throws Exception {
+        int threads = 32;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < perThread; j++) {
+                        service.adjustExperience(USER_ID, 3, "测试");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, inserts.get());
+        assertEquals(1, rows.size());
+        assertEquals(threads * perThread * 3, rows.get(USER_ID).getTotalExperience().intValue());
+        assertEquals(threads * perThread * 3, rows.get(USER_ID).getAvailableExperience().intValue());
+    }
+
+    @Test
+    void concurrentOrderDeliveriesGrantExperienceOnce() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    service.addExperienceForOrder(USER_ID, new BigDecimal("128.50"), 42L);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, orderRecords.size());
+        assertEquals(128, rows.get(USER_ID).getTotalExperience().intValue());
+    }
+
+    @Test
+    void deductRejectsInsufficientExperienceWithoutWritingRecord() {
+        service.adjustExperience(USER_ID, 10, "测试");
+        clearInvocations(recordRepository);
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> service.deductExperience(USER_ID, 15, "投诉"));
+
+        assertEquals(400, e.getCode().intValue());
+        assertEquals(10, rows.get(USER_ID).getAvailableExperience().intValue());
+        verify(recordRepository, never()).insert(any(ExperienceRecord.class));
+    }
+
+    @Test
+    void deductWithoutMemberReturnsNotFound() {
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> service.deductExperience(USER_ID, 1, "投诉"));
+
+        assertEquals(404, e.getCode().intValue());
+        verify(recordRepository, never()).insert(any(ExperienceRecord.class));
+    }
+
+    @Test
+    void concurrentDeductionsNeverOverdraw() throws Exception {
+        service.adjustExperience(USER_ID, 10, "测试");
+        clearInvocations(recordRepository);
+        int threads = 10;
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.deductExperience(USER_ID, 3, "投诉");
+                    } catch (BusinessException e) {
+                        assertEquals(400, e.getCode().intValue());
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads - 3, rejected.get());
+        assertEquals(1, rows.get(USER_ID).getAvailableExperience().intValue());
+        assertEquals(10, rows.get(USER_ID).getTotalExperience().intValue());
+        verify(recordRepository, times(3)).insert(argThat((ExperienceRecord record) -> record.getExperienceChange() == -3));
+    }
+
+    @Test
+    void initIsIdempotent() {
+        assertEquals("会员信息初始化成功", service.initUserMember(USER_ID));
+        assertEquals("用户会员信息已存在", service.initUserMember(USER_ID));
+        assertEquals(1, inserts.get());
+    }
+
+    private static UserMember copy(UserMember row) {
+        UserMember copy = new UserMember();
+        copy.setUserId(row.getUserId());
+        copy.setLevelId(row.getLevelId());
+        copy.setTotalExperience(row.getTotalExperience());
+        copy.setAvailableExperience(row.getAvailableExperience());
+        return copy;
+    }
+}
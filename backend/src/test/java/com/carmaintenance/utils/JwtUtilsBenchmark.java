@@ -0,0 +1,90 @@
+package com.carmaintenance.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token解析基准：每次验签解析与命中已验签缓存的对比，另测一组多线程读取缓存。
+ * legacyFilterPath复现改造前过滤器的一次请求：过期时间、用户名、用户ID、用户类型各解析一次，
+ * 每次解析都重新构建签名密钥和解析器。
+ * 运行：mvn test-compile 后以测试类路径执行本类的main方法
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET =
+            "benchmarkSecretKeyForJwtUtilsWithSufficientLengthForTheHS512AlgorithmRequirementsAbcdefgh";
+
+    private JwtUtils jwtUtils;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtils, "cacheMaxSize", 10000);
+        token = jwtUtils.generateToken(1L, "benchmark", 1);
+        jwtUtils.parseVerified(token);
+    }
+
+    @Benchmark
+    public void legacyFilterPath(Blackhole blackhole) {
+        Date expiration = legacyParse(token).getExpiration();
+        blackhole.consume(expiration.before(new Date()));
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(Long.valueOf(legacyParse(token).get("userId").toString()));
+        blackhole.consume(Integer.valueOf(legacyParse(token).get("userType").toString()));
+    }
+
+    @Benchmark
+    public Long parseUncached() {
+        return jwtUtils.getUserIdFromToken(token);
+    }
+
+    @Benchmark
+    public JwtUtils.VerifiedClaims parseCached() {
+        return jwtUtils.parseVerified(token);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public JwtUtils.VerifiedClaims parseCachedContended() {
+        return jwtUtils.parseVerified(token);
+    }
+
+    /**
+     * 改造前JwtUtils.getAllClaimsFromToken的实现
+     */
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtUtilsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.carmaintenance.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 雪花编号生成器测试：跨线程唯一、单线程递增、时钟回拨和同一毫秒序列号用尽
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long NOW = 1700000000000L;
+
+    private static final int TIMESTAMP_SHIFT = 22;
+
+    @Test
+    void idsAreUniqueAcrossThreadsAndIncreasingPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, System::currentTimeMillis);
+        int threads = 16;
+        int perThread = 20000;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long previous = Long.MIN_VALUE;
+                    for (int j = 0; j < perThread; j++) {
+                        long id = generator.nextId();
+                        assertTrue(id > previous, "同一线程内编号应递增");
+                        previous = id;
+                        ids.add(id);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    void clockRollbackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5000);
+        long during = generator.nextId();
+        long next = generator.nextId();
+        clock.set(NOW + 1);
+        long after = generator.nextId();
+
+        assertTrue(during > before);
+        assertTrue(next > during);
+        assertTrue(after > next);
+        // 回拨期间沿用上一次的时间戳
+        assertEquals(before >>> TIMESTAMP_SHIFT, during >>> TIMESTAMP_SHIFT);
+    }
+
+    @Test
+    void sequenceExhaustionAdvancesLogicalClock() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> NOW);
+
+        long first = generator.nextId();
+        long previous = first;
+        for (int i = 1; i < 4096; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertEquals(first >>> TIMESTAMP_SHIFT, id >>> TIMESTAMP_SHIFT);
+            previous = id;
+        }
+        long overflow = generator.nextId();
+
+        assertTrue(overflow > previous);
+        assertEquals((first >>> TIMESTAMP_SHIFT) + 1, overflow >>> TIMESTAMP_SHIFT);
+        assertEquals(0, overflow & 0xFFF);
+    }
+
+    @Test
+    void nextNoIsPrefixedFixedWidthAndUnique() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(12, () -> NOW);
+
+        String first = generator.nextNo("ORD");
+        String second = generator.nextNo("ORD");
+
+        assertTrue(first.startsWith("ORD"));
+        assertEquals(3 + 14 + 3 + 4 + 4, first.length());
+        assertTrue(first.matches("ORD\\d+"));
+        assertEquals("0012", first.substring(20, 24));
+        assertNotEquals(first, second);
+        assertTrue(second.compareTo(first) > 0);
+    }
+}
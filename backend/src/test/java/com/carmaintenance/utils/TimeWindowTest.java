@@ -0,0 +1,128 @@
+package com.carmaintenance.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 时间窗口边界测试：左闭右开、跨月跨年、不限端和业务时区换日
+ */
+class TimeWindowTest {
+
+    private static final ZoneId GMT8 = ZoneId.of("GMT+8");
+
+    @AfterEach
+    void tearDown() {
+        TimeWindow.setZone(GMT8);
+        TimeWindow.setClock(Clock.systemUTC());
+    }
+
+    @Test
+    void dayIncludesLastMillisecondAndExcludesNextMidnight() {
+        TimeWindow window = TimeWindow.ofDay(LocalDate.of(2024, 2, 29));
+
+        assertEquals(LocalDateTime.of(2024, 2, 29, 0, 0), window.getStart());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), window.getEnd());
+        assertTrue(contains(window, LocalDateTime.of(2024, 2, 29, 0, 0)));
+        assertTrue(contains(window, LocalDateTime.of(2024, 2, 29, 23, 59, 59, 999_000_000)));
+        assertFalse(contains(window, LocalDateTime.of(2024, 3, 1, 0, 0)));
+        assertFalse(contains(window, LocalDateTime.of(2024, 2, 28, 23, 59, 59, 999_000_000)));
+    }
+
+    @Test
+    void daysIncludeBothEndDates() {
+        TimeWindow window = TimeWindow.ofDays(LocalDate.of(2024, 1, 30), LocalDate.of(2024, 2, 2));
+
+        assertEquals(LocalDateTime.of(2024, 1, 30, 0, 0), window.getStart());
+        assertEquals(LocalDateTime.of(2024, 2, 3, 0, 0), window.getEnd());
+        assertTrue(contains(window, LocalDateTime.of(2024, 2, 2, 23, 59, 59, 999_000_000)));
+        assertFalse(contains(window, LocalDateTime.of(2024, 2, 3, 0, 0)));
+    }
+
+    @Test
+    void monthEndsAtFirstOfNextMonth() {
+        TimeWindow february = TimeWindow.ofMonth(2023, 2);
+
+        assertEquals(LocalDateTime.of(2023, 2, 1, 0, 0), february.getStart());
+        assertEquals(LocalDateTime.of(2023, 3, 1, 0, 0), february.getEnd());
+        assertTrue(contains(february, LocalDateTime.of(2023, 2, 28, 23, 59, 59, 999_000_000)));
+        assertFalse(contains(february, LocalDateTime.of(2023, 3, 1, 0, 0)));
+    }
+
+    @Test
+    void decemberEndsAtNextYear() {
+        TimeWindow december = TimeWindow.ofMonth(2024, 12);
+
+        assertEquals(LocalDateTime.of(2024, 12, 1, 0, 0), december.getStart());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), december.getEnd());
+        assertTrue(contains(december, LocalDateTime.of(2024, 12, 31, 23, 59, 59, 999_000_000)));
+        assertFalse(contains(december, LocalDateTime.of(2025, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void weekSpansYearBoundary() {
+        // 2026-01-01是周四，本周从2025-12-29开始
+        fixNow("2026-01-01T04:00:00Z");
+
+        TimeWindow week = TimeWindow.thisWeek();
+
+        assertEquals(LocalDateTime.of(2025, 12, 29, 0, 0), week.getStart());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 0, 0), week.getEnd());
+    }
+
+    @Test
+    void weekSpansMonthBoundary() {
+        // 2024-03-03是周日，仍属于2024-02-26开始的一周
+        fixNow("2024-03-03T12:00:00Z");
+
+        TimeWindow week = TimeWindow.thisWeek();
+
+        assertEquals(LocalDateTime.of(2024, 2, 26, 0, 0), week.getStart());
+        assertEquals(LocalDateTime.of(2024, 3, 4, 0, 0), week.getEnd());
+    }
+
+    @Test
+    void nullEndsAreUnbounded() {
+        TimeWindow from = TimeWindow.ofDays(LocalDate.of(2024, 5, 1), null);
+        TimeWindow until = TimeWindow.ofDays(null, LocalDate.of(2024, 5, 1));
+        TimeWindow all = TimeWindow.between(null, null);
+
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), from.getStart());
+        assertNull(from.getEnd());
+        assertNull(until.getStart());
+        assertEquals(LocalDateTime.of(2024, 5, 2, 0, 0), until.getEnd());
+        assertNull(all.getStart());
+        assertNull(all.getEnd());
+        assertTrue(contains(from, LocalDateTime.of(2999, 1, 1, 0, 0)));
+        assertTrue(contains(until, LocalDateTime.of(1970, 1, 1, 0, 0)));
+        assertTrue(contains(all, LocalDateTime.of(2024, 5, 1, 12, 0)));
+    }
+
+    @Test
+    void todayFollowsBusinessZone() {
+        // UTC 2025-12-31 16:30 在GMT+8已是2026-01-01
+        fixNow("2025-12-31T16:30:00Z");
+
+        TimeWindow.setZone(GMT8);
+        assertEquals(LocalDate.of(2026, 1, 1), TimeWindow.currentDate());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0), TimeWindow.today().getStart());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0), TimeWindow.thisMonth().getStart());
+
+        TimeWindow.setZone(ZoneOffset.UTC);
+        assertEquals(LocalDate.of(2025, 12, 31), TimeWindow.currentDate());
+        assertEquals(LocalDateTime.of(2025, 12, 31, 0, 0), TimeWindow.today().getStart());
+        assertEquals(LocalDateTime.of(2025, 12, 1, 0, 0), TimeWindow.thisMonth().getStart());
+    }
+
+    private static void fixNow(String instant) {
+        TimeWindow.setClock(Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+    }
+
+    private static boolean contains(TimeWindow window, LocalDateTime time) {
+        return (window.getStart() == null || !time.isBefore(window.getStart()))
+                && (window.getEnd() == null || time.isBefore(window.getEnd()));
+    }
+}
@@ -33,7 +33,10 @@ CREATE TABLE IF NOT EXISTS users (
     INDEX idx_username (username),
     INDEX idx_email (email),
     INDEX idx_phone (phone),
-    INDEX idx_user_type (user_type)
+    INDEX idx_type_create (user_type, create_time),
+    INDEX idx_create_time (create_time),
+    INDEX idx_update_time (update_time),
+    FULLTEXT INDEX ft_search (username, real_name, email, phone) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
 
 -- 1.2 门店表
@@ -44,6 +47,8 @@ CREATE TABLE IF NOT EXISTS shops (
     description TEXT COMMENT '门店描述',
     address VARCHAR(255) COMMENT '详细地址',
     city VARCHAR(50) COMMENT '城市',
+    longitude DECIMAL(10,7) COMMENT '经度',
+    latitude DECIMAL(10,7) COMMENT '纬度',
     phone VARCHAR(20) COMMENT '联系电话',
     email VARCHAR(100) COMMENT '邮箱',
     business_hours VARCHAR(100) COMMENT '营业时间',
@@ -56,8 +61,11 @@ CREATE TABLE IF NOT EXISTS shops (
     deleted TINYINT DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(id),
     INDEX idx_user_id (user_id),
-    INDEX idx_city (city),
-    INDEX idx_status (status)
+    INDEX idx_city_status_create (city, status, create_time),
+    INDEX idx_status_create (status, create_time),
+    INDEX idx_create_time (create_time),
+    INDEX idx_update_time (update_time),
+    FULLTEXT INDEX ft_search (shop_name, address, description) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='门店表';
 
 -- 1.3 车辆表
@@ -73,8 +81,8 @@ CREATE TABLE IF NOT EXISTS vehicles (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     deleted TINYINT DEFAULT 0,
     FOREIGN KEY (user_id) REFERENCES users(id),
-    INDEX idx_user_id (user_id),
-    INDEX idx_license_plate (license_plate)
+    INDEX idx_license_plate (license_plate),
+    INDEX idx_user_plate (user_id, license_plate)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='车辆表';
 
 -- 1.4 会员等级表
@@ -100,8 +108,10 @@ CREATE TABLE IF NOT EXISTS user_members (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (level_id) REFERENCES member_levels(id),
-    INDEX idx_user_id (user_id),
-    INDEX idx_level_id (level_id)
+    UNIQUE KEY uk_user_id (user_id),
+    INDEX idx_level_id (level_id),
+    INDEX idx_create_time (create_time),
+    INDEX idx_update_time (update_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户会员信息表';
 
 -- 1.6 经验记录表
@@ -114,8 +124,8 @@ CREATE TABLE IF NOT EXISTS experience_records (
     reason VARCHAR(255) COMMENT '原因说明',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id),
-    INDEX idx_user_id (user_id),
-    INDEX idx_order_id (order_id)
+    INDEX idx_user_create (user_id, create_time),
+    UNIQUE KEY uk_order_type (order_id, experience_type)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='经验记录表';
 
 -- 1.7 服务项目表
@@ -133,9 +143,9 @@ CREATE TABLE IF NOT EXISTS service_items (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     deleted TINYINT DEFAULT 0,
     FOREIGN KEY (shop_id) REFERENCES shops(id),
-    INDEX idx_shop_id (shop_id),
     INDEX idx_status (status),
-    INDEX idx_category (category)
+    INDEX idx_category (category),
+    INDEX idx_shop_status_category_price (shop_id, status, category, price)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='服务项目表';
 
 -- 1.8 套餐表
@@ -152,8 +162,8 @@ CREATE TABLE IF NOT EXISTS service_packages (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     deleted TINYINT DEFAULT 0,
     FOREIGN KEY (shop_id) REFERENCES shops(id),
-    INDEX idx_shop_id (shop_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_shop_status_price (shop_id, status, package_price)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='套餐表';
 
 -- 1.9 套餐项目关联表
@@ -189,10 +199,16 @@ CREATE TABLE IF NOT EXISTS appointments (
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (shop_id) REFERENCES shops(id),
     FOREIGN KEY (vehicle_id) REFERENCES vehicles(id),
-    INDEX idx_user_id (user_id),
-    INDEX idx_shop_id (shop_id),
     INDEX idx_appointment_date (appointment_date),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_shop_date_slot_status (shop_id, appointment_date, time_slot, status),
+    INDEX idx_shop_create (shop_id, create_time, id),
+    INDEX idx_shop_status_create (shop_id, status, create_time, id),
+    INDEX idx_user_create (user_id, create_time, id),
+    INDEX idx_user_status (user_id, status),
+    INDEX idx_appointment_no (appointment_no),
+    INDEX idx_create_time (create_time),
+    INDEX idx_update_time (update_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='预约表';
 
 -- 1.11 预约项目表
@@ -238,9 +254,13 @@ CREATE TABLE IF NOT EXISTS orders (
     FOREIGN KEY (shop_id) REFERENCES shops(id),
     FOREIGN KEY (vehicle_id) REFERENCES vehicles(id),
     INDEX idx_order_no (order_no),
-    INDEX idx_user_id (user_id),
-    INDEX idx_shop_id (shop_id),
-    INDEX idx_status (status)
+    INDEX idx_user_create (user_id, create_time, id),
+    INDEX idx_user_status_create (user_id, status, create_time, id),
+    INDEX idx_shop_create (shop_id, create_time, id),
+    INDEX idx_shop_status_create (shop_id, status, create_time, id),
+    INDEX idx_create_time (create_time, id),
+    INDEX idx_status_create (status, create_time),
+    INDEX idx_update_time (update_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单表';
 
 -- 1.13 评价表
@@ -264,8 +284,11 @@ CREATE TABLE IF NOT EXISTS reviews (
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (shop_id) REFERENCES shops(id),
     INDEX idx_order_id (order_id),
-    INDEX idx_shop_id (shop_id),
-    INDEX idx_overall_rating (overall_rating)
+    INDEX idx_overall_rating (overall_rating),
+    INDEX idx_shop_status_deleted_create (shop_id, status, deleted, create_time, id),
+    INDEX idx_user_deleted_create (user_id, deleted, create_time),
+    INDEX idx_status_deleted_create (status, deleted, create_time),
+    INDEX idx_update_time (update_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='评价表';
 
 -- 1.14 公告表
@@ -283,8 +306,9 @@ CREATE TABLE IF NOT EXISTS announcements (
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     deleted TINYINT DEFAULT 0,
     FOREIGN KEY (created_by) REFERENCES users(id),
-    INDEX idx_status (status),
-    INDEX idx_type (type)
+    INDEX idx_type (type),
+    INDEX idx_status_deleted_priority (status, deleted, priority, create_time),
+    FULLTEXT INDEX ft_search (title, content) WITH PARSER ngram
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='公告表';
 
 -- 1.15 系统配置表
@@ -309,9 +333,9 @@ CREATE TABLE IF NOT EXISTS platform_guide_prices (
     status TINYINT DEFAULT 1 COMMENT '状态: 0-禁用, 1-启用',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_service_name (service_name),
-    INDEX idx_category (category),
-    INDEX idx_status (status)
+    INDEX idx_name_status (service_name, status),
+    INDEX idx_category_status (category, status),
+    INDEX idx_status_category_name (status, category, service_name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='平台指导价表';
 
 -- 1.17 价格监控记录表
@@ -327,11 +351,87 @@ CREATE TABLE IF NOT EXISTS price_monitor_records (
     status TINYINT DEFAULT 0 COMMENT '状态: 0-正常, 1-偏高, 2-偏低',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (shop_id) REFERENCES shops(id) ON DELETE CASCADE,
-    INDEX idx_shop_id (shop_id),
-    INDEX idx_status (status),
-    INDEX idx_create_time (create_time)
+    INDEX idx_create_time (create_time),
+    INDEX idx_shop_create (shop_id, create_time),
+    INDEX idx_shop_status (shop_id, status),
+    INDEX idx_status_create (status, create_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='价格监控记录表';
 
+-- 1.18 每日指标汇总表
+CREATE TABLE IF NOT EXISTS daily_metrics (
+    metric_date DATE PRIMARY KEY COMMENT '统计日期',
+    order_count BIGINT DEFAULT 0 COMMENT '订单数',
+    pending_orders BIGINT DEFAULT 0 COMMENT '待服务订单数',
+    in_progress_orders BIGINT DEFAULT 0 COMMENT '进行中订单数',
+    completed_orders BIGINT DEFAULT 0 COMMENT '已完成订单数',
+    cancelled_orders BIGINT DEFAULT 0 COMMENT '已取消订单数',
+    order_revenue DECIMAL(14,2) DEFAULT 0 COMMENT '已完成订单营业额',
+    new_users BIGINT DEFAULT 0 COMMENT '新增用户数',
+    new_customers BIGINT DEFAULT 0 COMMENT '新增车主数',
+    new_shop_users BIGINT DEFAULT 0 COMMENT '新增门店用户数',
+    new_admins BIGINT DEFAULT 0 COMMENT '新增管理员数',
+    new_shops BIGINT DEFAULT 0 COMMENT '新增门店数',
+    new_members BIGINT DEFAULT 0 COMMENT '新增会员数',
+    new_reviews BIGINT DEFAULT 0 COMMENT '新增显示评价数',
+    new_appointments BIGINT DEFAULT 0 COMMENT '新增预约数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='每日指标汇总表';
+
+-- 1.19 汇总任务水位线表
+CREATE TABLE IF NOT EXISTS metric_watermarks (
+    name VARCHAR(50) PRIMARY KEY COMMENT '汇总任务名称',
+    watermark DATETIME NOT NULL COMMENT '已处理到的update_time'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='汇总任务水位线表';
+
+-- 1.20 预约时段容量表
+CREATE TABLE IF NOT EXISTS appointment_slot_capacity (
+    shop_id BIGINT NOT NULL COMMENT '门店ID',
+    appointment_date DATE NOT NULL COMMENT '预约日期',
+    time_slot VARCHAR(20) NOT NULL COMMENT '时间段',
+    capacity INT NOT NULL COMMENT '工位数',
+    reserved INT NOT NULL DEFAULT 0 COMMENT '已占用工位数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (shop_id, appointment_date, time_slot)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='预约时段容量表';
+
+-- 1.21 订单事件表（事务发件箱）
+CREATE TABLE IF NOT EXISTS order_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL COMMENT '事件类型',
+    order_id BIGINT NOT NULL COMMENT '订单ID',
+    payload TEXT COMMENT '事件内容JSON',
+    status TINYINT DEFAULT 0 COMMENT '状态: 0-待处理, 1-处理中, 2-已完成, 3-失败',
+    retry_count INT DEFAULT 0 COMMENT '重试次数',
+    next_retry_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '下次处理时间',
+    last_error VARCHAR(500) COMMENT '最近一次错误信息',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP,
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_type_order (event_type, order_id),
+    INDEX idx_status_retry (status, next_retry_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='订单事件表';
+
+-- 1.22 门店评分统计表（按评价增删改增量维护）
+CREATE TABLE IF NOT EXISTS shop_rating_stats (
+    shop_id BIGINT PRIMARY KEY COMMENT '门店ID',
+    rating_sum DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '显示状态评价的综合评分之和',
+    rating_count INT NOT NULL DEFAULT 0 COMMENT '显示状态评价数',
+    star_1 INT NOT NULL DEFAULT 0 COMMENT '1星评价数',
+    star_2 INT NOT NULL DEFAULT 0 COMMENT '2星评价数',
+    star_3 INT NOT NULL DEFAULT 0 COMMENT '3星评价数',
+    star_4 INT NOT NULL DEFAULT 0 COMMENT '4星评价数',
+    star_5 INT NOT NULL DEFAULT 0 COMMENT '5星评价数',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='门店评分统计表';
+
+-- 1.23 指标位图表（如有订单的用户集合，按用户ID置位）
+CREATE TABLE IF NOT EXISTS metric_bitmaps (
+    name VARCHAR(50) PRIMARY KEY COMMENT '位图名称',
+    bitmap LONGBLOB NOT NULL COMMENT '位图数据(java.util.BitSet字节序)',
+    cardinality BIGINT NOT NULL DEFAULT 0 COMMENT '置位数',
+    watermark BIGINT NOT NULL DEFAULT 0 COMMENT '已合并到的源表最大ID',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='指标位图表';
+
 -- ============================================================
 -- 2. 插入基础数据
 -- ============================================================
@@ -54,7 +54,10 @@ export const adminAPI = {
   // ==================== 数据导出 ====================
   exportUsers: (userType) => request.get('/admin/export/users', { params: { userType }, responseType: 'blob' }),
   exportOrders: (params) => request.get('/admin/export/orders', { params, responseType: 'blob' }),
-  exportFinancialData: (params) => request.get('/admin/export/financial', { params, responseType: 'blob' })
+  exportFinancialData: (params) => request.get('/admin/export/financial', { params, responseType: 'blob' }),
+  submitExportJob: (params) => request.post('/admin/export/jobs', null, { params }),
+  getExportJob: (jobId) => request.get(`/admin/export/jobs/${jobId}`),
+  downloadExportJob: (jobId) => request.get(`/admin/export/jobs/${jobId}/download`, { responseType: 'blob' })
 }
 
 export default adminAPI